@@ -0,0 +1,85 @@
+// Codec for room chat relayed by game-server, the format is documented in ChatFormat.java;
+// both sides must change together.
+//
+// Every message starts with a u8 type, multi-byte fields are little-endian.
+// Client to server:
+//   AUTH_MESSAGE    u16 token length, access token (ASCII)
+//   SEND_MESSAGE    u16 text length, text (UTF-8)
+// Server to client:
+//   BATCH_MESSAGE   u16 entry count, then for each entry:
+//                     u32 sequence, u64 sent at (epoch millis),
+//                     u8 sender length, sender (UTF-8), u16 text length, text (UTF-8)
+//   NOTICE_MESSAGE  u8 notice code
+// Sequences grow by one per message within a room. A room that empties out starts over from 1,
+// so history replayed after a reconnect is only comparable with entries received from the same room.
+
+const AUTH_MESSAGE = 16;
+const SEND_MESSAGE = 17;
+const BATCH_MESSAGE = 18;
+const NOTICE_MESSAGE = 19;
+
+export enum ChatNotice {
+	Authenticated = 0,
+	Unauthorized = 1,
+	Rejected = 2,
+	TooSlow = 3,
+}
+
+export interface ChatEntry {
+	sequence: number;
+	sentAt: Date;
+	sender: string;
+	text: string;
+}
+
+export type ChatEvent =
+	| { type: "messages"; entries: ChatEntry[] }
+	| { type: "notice"; notice: ChatNotice };
+
+const encoder = new TextEncoder();
+const decoder = new TextDecoder();
+
+export function decodeChat(buffer: ArrayBuffer): ChatEvent | undefined {
+	const view = new DataView(buffer);
+	const bytes = new Uint8Array(buffer);
+	const type = view.getUint8(0);
+	if (type === NOTICE_MESSAGE) {
+		return { type: "notice", notice: view.getUint8(1) };
+	}
+	if (type !== BATCH_MESSAGE) return undefined;
+
+	const count = view.getUint16(1, true);
+	const entries: ChatEntry[] = [];
+	let position = 3;
+	for (let i = 0; i < count; i++) {
+		const sequence = view.getUint32(position, true);
+		const sentAt = new Date(Number(view.getBigUint64(position + 4, true)));
+		position += 12;
+		const senderLength = view.getUint8(position);
+		const sender = decoder.decode(bytes.subarray(position + 1, position + 1 + senderLength));
+		position += 1 + senderLength;
+		const textLength = view.getUint16(position, true);
+		const text = decoder.decode(bytes.subarray(position + 2, position + 2 + textLength));
+		position += 2 + textLength;
+		entries.push({ sequence, sentAt, sender, text });
+	}
+	return { type: "messages", entries };
+}
+
+export function encodeAuth(token: string): ArrayBuffer {
+	return encode(AUTH_MESSAGE, encoder.encode(token));
+}
+
+// game-server rejects texts longer than game.chat.max-message-size bytes
+export function encodeChatMessage(text: string): ArrayBuffer {
+	return encode(SEND_MESSAGE, encoder.encode(text));
+}
+
+function encode(type: number, body: Uint8Array): ArrayBuffer {
+	const buffer = new ArrayBuffer(3 + body.length);
+	const view = new DataView(buffer);
+	view.setUint8(0, type);
+	view.setUint16(1, body.length, true);
+	new Uint8Array(buffer, 3).set(body);
+	return buffer;
+}
@@ -1,34 +1,42 @@
+import { decodeChat, encodeAuth, encodeChatMessage } from "./chat/chat-codec";
+import { SnapshotDecoder, encodeAck } from "./snapshot/snapshot-decoder";
+
 export class Client {
 	private rest: string;
 	private webrtc?: string;
 
 	private peerConn?: RTCPeerConnection;
+	private game?: RTCDataChannel;
+	private chat?: RTCDataChannel;
 
 	constructor(rest_url: string, webrtc_url?: string) {
 		this.rest = rest_url;
 		this.webrtc = webrtc_url;
 	}
 	
-	private lastTick: number = 0;
+	private snapshots = new SnapshotDecoder();
 
 	onRtcGameMessage(event: MessageEvent) {
-		const buffer = event.data as ArrayBuffer;
+		const snapshot = this.snapshots.decode(event.data as ArrayBuffer);
+		if (!snapshot) return;
+		// the server encodes the next snapshots as deltas against the newest acknowledged one
+		this.game?.send(encodeAck(snapshot.tick));
 
-		const intView = new Int32Array(buffer);
+		console.log("Snapshot:", snapshot.tick, snapshot.entities.size);
+	}
 
-		// Just an example protocol
-		const tick = intView[0];
-		if (tick < this.lastTick) return;
-		this.lastTick = tick;
-		const x = intView[1];
-		const y = intView[2];
+	onRtcChatMessage(event: MessageEvent) {
+		const message = decodeChat(event.data as ArrayBuffer);
+		console.log(message)
+	}
 
-		console.log("Coordinates:", x, y);
+	// the relay ignores chat messages until the channel is authenticated
+	authenticateChat(token: string) {
+		this.chat?.send(encodeAuth(token));
 	}
 
-	onRtcChatMessage(event: MessageEvent) {
-		const state = JSON.parse(event.data);
-		console.log(state)
+	sendChat(text: string) {
+		this.chat?.send(encodeChatMessage(text));
 	}
 
 	onRtcOpen() {
@@ -44,10 +52,13 @@ export class Client {
 
 		const dc = pc.createDataChannel("game", { ordered: false });
 		dc.binaryType = "arraybuffer"; 
+		this.game = dc;
 		dc.onopen = () => this.onRtcOpen();
 		dc.onmessage = (event) => this.onRtcGameMessage(event);
 
 		const dcChat = pc.createDataChannel("chat", { ordered: true });
+		dcChat.binaryType = "arraybuffer";
+		this.chat = dcChat;
 		dcChat.onopen = () => this.onRtcOpen();
 		dcChat.onmessage = (event) => this.onRtcChatMessage(event);
 
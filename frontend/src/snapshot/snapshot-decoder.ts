@@ -0,0 +1,169 @@
+// Decoder for snapshots sent by game-server, the format is documented in SnapshotFormat.java;
+// both sides must change together.
+//
+// Every message is bit-packed LSB first:
+//   u32      tick
+//   u32      baseline tick, 0 for a full snapshot
+//   varuint  removed count, then for each removed entity: varuint id gap
+//   varuint  updated count, then for each updated entity: varuint id gap, followed by
+//              delta only: 1 bit new entity
+//              new entity: 3 bit type, 16 bit x, 16 bit z, 8 bit hp
+//              otherwise:  3 bit mask (x, z, hp), each changed coordinate as 1 bit small flag and
+//                          7 bit zigzag delta or 16 bit absolute value, hp as 8 bits
+// Id gaps are relative to the previous id in the same list, starting at 0. Varuints are 7 bit groups
+// with a continuation bit. Positions are signed fixed point, 32 steps per unit.
+//
+// A delta can only be applied to the exact baseline it was encoded against, so decoded snapshots
+// are kept for a while and the newest decoded tick is acknowledged with encodeAck().
+
+export const POSITION_SCALE = 32;
+const POSITION_BITS = 16;
+const SMALL_DELTA_BITS = 7;
+const TYPE_BITS = 3;
+const HP_BITS = 8;
+const MASK_X = 1;
+const MASK_Z = 2;
+const MASK_HP = 4;
+const ACK_MESSAGE = 1;
+const HISTORY_SIZE = 64;
+
+export enum EntityType {
+	Player = 0,
+	Grunt = 1,
+	Shooter = 2,
+	Projectile = 3,
+}
+
+export interface EntityState {
+	id: number;
+	type: EntityType;
+	// quantized, divide by POSITION_SCALE for world units
+	x: number;
+	z: number;
+	hp: number;
+}
+
+export interface Snapshot {
+	tick: number;
+	entities: Map<number, EntityState>;
+}
+
+export class SnapshotDecoder {
+	private history: (Snapshot | undefined)[] = new Array(HISTORY_SIZE);
+	private lastTick: number = 0;
+
+	// Returns undefined for stale snapshots and for deltas against a baseline that is no longer kept.
+	decode(buffer: ArrayBuffer): Snapshot | undefined {
+		const reader = new BitReader(buffer);
+		const tick = reader.read(32);
+		const baselineTick = reader.read(32);
+		if (tick <= this.lastTick) return undefined;
+
+		let entities: Map<number, EntityState>;
+		const isDelta = baselineTick !== 0;
+		if (isDelta) {
+			const baseline = this.history[baselineTick % HISTORY_SIZE];
+			if (!baseline || baseline.tick !== baselineTick) return undefined;
+			entities = new Map();
+			baseline.entities.forEach((e, id) => entities.set(id, { ...e }));
+		} else {
+			entities = new Map();
+		}
+
+		const removed = reader.readVarUint();
+		let id = 0;
+		for (let i = 0; i < removed; i++) {
+			id += reader.readVarUint();
+			entities.delete(id);
+		}
+
+		const updated = reader.readVarUint();
+		id = 0;
+		for (let i = 0; i < updated; i++) {
+			id += reader.readVarUint();
+			const isNew = !isDelta || reader.read(1) === 1;
+			if (isNew) {
+				entities.set(id, {
+					id,
+					type: reader.read(TYPE_BITS),
+					x: reader.readSigned(POSITION_BITS),
+					z: reader.readSigned(POSITION_BITS),
+					hp: reader.read(HP_BITS),
+				});
+				continue;
+			}
+			const entity = entities.get(id);
+			if (!entity) return undefined;
+			const mask = reader.read(3);
+			if (mask & MASK_X) entity.x = readCoordinate(reader, entity.x);
+			if (mask & MASK_Z) entity.z = readCoordinate(reader, entity.z);
+			if (mask & MASK_HP) entity.hp = reader.read(HP_BITS);
+		}
+
+		const snapshot = { tick, entities };
+		this.history[tick % HISTORY_SIZE] = snapshot;
+		this.lastTick = tick;
+		return snapshot;
+	}
+
+	getLastTick(): number {
+		return this.lastTick;
+	}
+}
+
+export function encodeAck(tick: number): ArrayBuffer {
+	const buffer = new ArrayBuffer(5);
+	const view = new DataView(buffer);
+	view.setUint8(0, ACK_MESSAGE);
+	view.setUint32(1, tick, true);
+	return buffer;
+}
+
+function readCoordinate(reader: BitReader, base: number): number {
+	const small = reader.read(1) === 1;
+	if (!small) return reader.readSigned(POSITION_BITS);
+	const zigzag = reader.read(SMALL_DELTA_BITS);
+	return base + ((zigzag >>> 1) ^ -(zigzag & 1));
+}
+
+class BitReader {
+	private bytes: Uint8Array;
+	private position: number = 0;
+
+	constructor(buffer: ArrayBuffer) {
+		this.bytes = new Uint8Array(buffer);
+	}
+
+	// up to 32 bits, returned as unsigned
+	read(count: number): number {
+		let value = 0;
+		let written = 0;
+		while (written < count) {
+			const byte = this.bytes[this.position >>> 3] ?? 0;
+			const offset = this.position & 7;
+			const take = Math.min(8 - offset, count - written);
+			const bits = (byte >>> offset) & ((1 << take) - 1);
+			value += bits * 2 ** written;
+			written += take;
+			this.position += take;
+		}
+		return value;
+	}
+
+	readSigned(count: number): number {
+		const shift = 32 - count;
+		return (this.read(count) << shift) >> shift;
+	}
+
+	readVarUint(): number {
+		let value = 0;
+		let shift = 0;
+		let group: number;
+		do {
+			group = this.read(8);
+			value += (group & 0x7f) * 2 ** shift;
+			shift += 7;
+		} while (group & 0x80);
+		return value;
+	}
+}
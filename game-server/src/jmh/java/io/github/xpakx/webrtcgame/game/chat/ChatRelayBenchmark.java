@@ -0,0 +1,83 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One room relaying to 100 and 1000 members, with members' sender tasks run inline so that the score
+ * includes writing every frame. {@code messagesPerFlush=1} is the unbatched case of one write per member
+ * per message. The {@code messages} and {@code deliveries} counters are relayed messages per second and
+ * messages per second summed over all recipients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatRelayBenchmark {
+    private static final ByteBuffer TEXT = ByteBuffer.wrap("gg, one more round after this one?"
+            .getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+
+    @Param({"100", "1000"})
+    private int members;
+
+    @Param({"1", "32"})
+    private int messagesPerFlush;
+
+    private ChatRoom room;
+    private ChatMember sender;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Relayed {
+        public long messages;
+        public long deliveries;
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        ChatSettings settings = new ChatSettings(50, 64, 1024, 1024);
+        room = new ChatRoom("bench", settings, Runnable::run,
+                new SimpleMeterRegistry().counter("game.chat.members.dropped"));
+        for (int i = 0; i < members; i++) {
+            ChatMember member = room.join(new BlackholeConnection("member-" + i, blackhole), "player" + i);
+            if (i == 0) {
+                sender = member;
+            }
+        }
+    }
+
+    @Benchmark
+    public int relay(Relayed relayed) {
+        for (int i = 0; i < messagesPerFlush; i++) {
+            room.post(sender, TEXT.duplicate());
+        }
+        int messages = room.flush();
+        relayed.messages += messages;
+        relayed.deliveries += (long) messages * members;
+        return messages;
+    }
+
+    private record BlackholeConnection(String id, Blackhole blackhole) implements Connection {
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void send(ByteBuffer payload) {
+            blackhole.consume(payload.get(payload.limit() - 1));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.xpakx.webrtcgame.game.input;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Four producer threads against one draining consumer, for the input ring and for an
+ * {@link ArrayBlockingQueue} of preallocated inputs. Offer scores count attempts, accepted or not.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputRingBenchmark {
+    private static final int CAPACITY = 1024;
+    private static final int BATCH = 64;
+    private static final Input INPUT = new Input("client", 1, (byte) 1, (byte) 0, 0);
+
+    private InputRing<String> ring;
+    private ArrayBlockingQueue<Input> queue;
+    private InputHandler<String> handler;
+    private int sequence;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        ring = new InputRing<>(CAPACITY);
+        queue = new ArrayBlockingQueue<>(CAPACITY);
+        handler = (source, sequence, moveX, moveZ, buttons) -> blackhole.consume(sequence);
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(4)
+    public boolean ringOffer() {
+        return ring.offer("client", ++sequence, (byte) 1, (byte) 0, 0);
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public int ringDrain() {
+        return ring.drain(handler, BATCH);
+    }
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(4)
+    public boolean queueOffer() {
+        return queue.offer(INPUT);
+    }
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(1)
+    public int queueDrain(Blackhole blackhole) {
+        int drained = 0;
+        Input input;
+        while (drained < BATCH && (input = queue.poll()) != null) {
+            blackhole.consume(input.sequence());
+            drained++;
+        }
+        return drained;
+    }
+
+    private record Input(String source, int sequence, byte moveX, byte moveZ, int buttons) {
+    }
+}
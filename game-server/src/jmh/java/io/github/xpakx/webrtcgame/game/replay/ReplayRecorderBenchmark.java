@@ -0,0 +1,114 @@
+package io.github.xpakx.webrtcgame.game.replay;
+
+import io.github.xpakx.webrtcgame.game.sim.EntityType;
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import io.github.xpakx.webrtcgame.game.snapshot.BitWriter;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotEncoder;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFrame;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotHistory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick cost of recording: encoding the room delta alone, and encoding plus appending it
+ * with four inputs to a replay file (keyframe every 300 ticks). The difference is the recorder's own overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayRecorderBenchmark {
+    private static final int TICKS = 600;
+
+    @Param({"100", "1000"})
+    private int entities;
+
+    private SnapshotFrame previous;
+    private SnapshotFrame current;
+    private BitWriter writer;
+    private Path directory;
+    private ReplayRecorder recorder;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Simulation simulation = new Simulation(entities * 2, 4f, 42L);
+        SplittableRandom random = new SplittableRandom(42L);
+        simulation.addPlayer(0f, 0f);
+        for (int i = 1; i < entities; i++) {
+            double angle = random.nextDouble() * Math.PI * 2;
+            float speed = EntityType.PROJECTILE.speed();
+            simulation.spawn(EntityType.PROJECTILE,
+                    (float) (random.nextDouble() - 0.5) * 200f, (float) (random.nextDouble() - 0.5) * 200f,
+                    (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed);
+        }
+        SnapshotHistory history = new SnapshotHistory(2, entities);
+        simulation.step(1f / 60);
+        previous = history.record(2, simulation.entities());
+        simulation.step(1f / 60);
+        current = history.record(3, simulation.entities());
+        writer = new BitWriter(SnapshotFormat.maxEncodedSize(entities * 2));
+        directory = Files.createTempDirectory("replay-benchmark");
+    }
+
+    @Setup(Level.Iteration)
+    public void openRecorder() throws IOException {
+        recorder = ReplayRecorder.create(directory.resolve("benchmark"), 60, 42L, 64L * 1024 * 1024, 300, 64, () -> { });
+        tick = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRecorder() throws IOException {
+        recorder.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(directory.resolve("benchmark" + ReplayFormat.REPLAY_EXTENSION));
+        Files.deleteIfExists(directory.resolve("benchmark" + ReplayFormat.INDEX_EXTENSION));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public int encodeOnly() {
+        int bytes = 0;
+        for (int i = 0; i < TICKS; i++) {
+            tick++;
+            bytes += encode(tick % 300 == 0).remaining();
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public int encodeAndRecord() throws IOException {
+        int bytes = 0;
+        for (int i = 0; i < TICKS; i++) {
+            tick++;
+            for (int player = 1; player <= 4; player++) {
+                recorder.input(tick, player, tick, (byte) 127, (byte) 0, 0);
+            }
+            boolean keyframe = recorder.isKeyframe(tick);
+            ByteBuffer payload = encode(keyframe);
+            bytes += payload.remaining();
+            recorder.snapshot(tick, keyframe, payload);
+        }
+        return bytes;
+    }
+
+    private ByteBuffer encode(boolean keyframe) {
+        writer.reset();
+        SnapshotEncoder.encode(current, keyframe ? null : previous, writer);
+        return writer.flip();
+    }
+}
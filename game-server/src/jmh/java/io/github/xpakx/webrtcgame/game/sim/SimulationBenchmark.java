@@ -0,0 +1,108 @@
+package io.github.xpakx.webrtcgame.game.sim;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one simulated second (60 ticks) for growing numbers of projectiles in flight,
+ * and of the player hit broad phase against a brute-force scan over the same entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+    private static final int TICKS = 60;
+    private static final float AREA = 200f;
+
+    @Param({"1000", "4000", "16000"})
+    private int projectiles;
+
+    @Param({"4", "16"})
+    private int players;
+
+    private Simulation simulation;
+    private SplittableRandom random;
+    private SpatialHash grid;
+    private EntityStore store;
+    private int[] candidates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        simulation = new Simulation(projectiles * 2, 4f, 42L);
+        random = new SplittableRandom(42L);
+        for (int i = 0; i < players; i++) {
+            simulation.addPlayer(coordinate(), coordinate());
+        }
+
+        store = new EntityStore(projectiles);
+        grid = new SpatialHash(projectiles, 4f);
+        candidates = new int[projectiles];
+        for (int i = 0; i < projectiles; i++) {
+            int slot = store.spawn(EntityType.PROJECTILE, coordinate(), coordinate(), 0f, 0f);
+            grid.insert(slot, store.x(slot), store.z(slot));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void populate() {
+        simulation.clear();
+        for (int i = 0; i < projectiles; i++) {
+            double angle = random.nextDouble() * Math.PI * 2;
+            float speed = EntityType.PROJECTILE.speed();
+            simulation.spawn(EntityType.PROJECTILE, coordinate(), coordinate(),
+                    (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed);
+        }
+        for (int i = 0; i < projectiles / 20; i++) {
+            EntityType type = i % 3 == 0 ? EntityType.SHOOTER : EntityType.GRUNT;
+            simulation.spawn(type, coordinate(), coordinate(), 0f, 0f);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public int step() {
+        for (int i = 0; i < TICKS; i++) {
+            simulation.step(1f / TICKS);
+        }
+        return simulation.entities().size();
+    }
+
+    @Benchmark
+    public void broadPhaseQuery(Blackhole blackhole) {
+        float radius = EntityType.PLAYER.radius() + EntityType.MAX_RADIUS;
+        for (int p = 0; p < players; p++) {
+            float x = p * 7f - 50f;
+            int count = grid.query(x, x, radius, candidates);
+            for (int i = 0; i < count; i++) {
+                blackhole.consume(hits(candidates[i], x, x, radius));
+            }
+        }
+    }
+
+    @Benchmark
+    public void bruteForceQuery(Blackhole blackhole) {
+        float radius = EntityType.PLAYER.radius() + EntityType.MAX_RADIUS;
+        for (int p = 0; p < players; p++) {
+            float x = p * 7f - 50f;
+            for (int i = 0; i < store.size(); i++) {
+                blackhole.consume(hits(store.slotAt(i), x, x, radius));
+            }
+        }
+    }
+
+    private boolean hits(int slot, float x, float z, float radius) {
+        float dx = store.x(slot) - x;
+        float dz = store.z(slot) - z;
+        return dx * dx + dz * dz < radius * radius;
+    }
+
+    private float coordinate() {
+        return (float) (random.nextDouble() - 0.5) * AREA;
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import io.github.xpakx.webrtcgame.game.sim.EntityType;
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode cost per entity for full snapshots and for deltas against a baseline one tick
+ * and ten ticks old. Each nested class fixes the entity count so scores come out in ns per entity;
+ * bytes per tick for each case are printed at the end of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class SnapshotCodecBenchmark {
+    private static final int CURRENT_TICK = 11;
+
+    private SnapshotFrame current;
+    private SnapshotFrame previous;
+    private SnapshotFrame old;
+    private BitWriter writer;
+
+    protected abstract int entities();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int entities = entities();
+        Simulation simulation = new Simulation(entities * 2, 4f, 42L);
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < 4; i++) {
+            simulation.addPlayer(coordinate(random), coordinate(random));
+        }
+        for (int i = 0; i < entities - 4; i++) {
+            if (i % 10 == 0) {
+                simulation.spawn(i % 30 == 0 ? EntityType.SHOOTER : EntityType.GRUNT,
+                        coordinate(random), coordinate(random), 0f, 0f);
+                continue;
+            }
+            double angle = random.nextDouble() * Math.PI * 2;
+            float speed = EntityType.PROJECTILE.speed();
+            simulation.spawn(EntityType.PROJECTILE, coordinate(random), coordinate(random),
+                    (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed);
+        }
+        SnapshotHistory history = new SnapshotHistory(16, entities);
+        for (int tick = 1; tick <= CURRENT_TICK; tick++) {
+            simulation.step(1f / 60);
+            history.record(tick, simulation.entities());
+        }
+        current = history.get(CURRENT_TICK);
+        previous = history.get(CURRENT_TICK - 1);
+        old = history.get(CURRENT_TICK - 10);
+        writer = new BitWriter(SnapshotFormat.maxEncodedSize(entities * 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%d entities, bytes per tick: full %d, delta(1) %d, delta(10) %d%n",
+                current.count(), encode(null), encode(previous), encode(old));
+    }
+
+    @Benchmark
+    public int encodeFull() {
+        return encode(null);
+    }
+
+    @Benchmark
+    public int encodeDelta() {
+        return encode(previous);
+    }
+
+    @Benchmark
+    public int encodeDeltaOld() {
+        return encode(old);
+    }
+
+    private int encode(SnapshotFrame baseline) {
+        writer.reset();
+        SnapshotEncoder.encode(current, baseline, writer);
+        return writer.flip().remaining();
+    }
+
+    private static float coordinate(SplittableRandom random) {
+        return (float) (random.nextDouble() - 0.5) * 200f;
+    }
+
+    @OperationsPerInvocation(100)
+    public static class Entities100 extends SnapshotCodecBenchmark {
+        @Override
+        protected int entities() {
+            return 100;
+        }
+    }
+
+    @OperationsPerInvocation(1000)
+    public static class Entities1000 extends SnapshotCodecBenchmark {
+        @Override
+        protected int entities() {
+            return 1000;
+        }
+    }
+
+    @OperationsPerInvocation(8000)
+    public static class Entities8000 extends SnapshotCodecBenchmark {
+        @Override
+        protected int entities() {
+            return 8000;
+        }
+    }
+}
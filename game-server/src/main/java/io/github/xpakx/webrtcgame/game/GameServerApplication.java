@@ -0,0 +1,13 @@
+package io.github.xpakx.webrtcgame.game;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class GameServerApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(GameServerApplication.class, args);
+	}
+
+}
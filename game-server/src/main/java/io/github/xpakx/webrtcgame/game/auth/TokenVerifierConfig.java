@@ -0,0 +1,18 @@
+package io.github.xpakx.webrtcgame.game.auth;
+
+import io.github.xpakx.webrtcgame.verifier.TokenVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+
+@Configuration
+public class TokenVerifierConfig {
+
+    @Bean
+    public TokenVerifier tokenVerifier(
+            @Value("${auth.jwks-uri:http://localhost:8080/.well-known/jwks.json}") URI jwksUri) {
+        return new TokenVerifier(jwksUri);
+    }
+}
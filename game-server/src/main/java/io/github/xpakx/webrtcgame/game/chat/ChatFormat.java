@@ -0,0 +1,56 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Wire constants shared with {@code frontend/src/chat/chat-codec.ts}; both sides must change together.
+ *
+ * <p>Every message starts with a u8 type, multi-byte fields are little-endian. Client to server:
+ * <pre>
+ * AUTH_MESSAGE    u16 token length, access token (ASCII)
+ * SEND_MESSAGE    u16 text length, text (UTF-8)
+ * </pre>
+ * Server to client:
+ * <pre>
+ * BATCH_MESSAGE   u16 entry count, then for each entry:
+ *                   u32 sequence, u64 sent at (epoch millis),
+ *                   u8 sender length, sender (UTF-8), u16 text length, text (UTF-8)
+ * NOTICE_MESSAGE  u8 notice code
+ * </pre>
+ * Sequences grow by one per message within a room and start over when the room empties out.
+ * Nothing but AUTH_MESSAGE is accepted before the {@link #AUTHENTICATED} notice.
+ */
+public final class ChatFormat {
+    public static final byte AUTH_MESSAGE = 16;
+    public static final byte SEND_MESSAGE = 17;
+    public static final byte BATCH_MESSAGE = 18;
+    public static final byte NOTICE_MESSAGE = 19;
+
+    public static final byte AUTHENTICATED = 0;
+    public static final byte UNAUTHORIZED = 1;
+    /** The message was empty, too long, or the room had too many messages waiting. */
+    public static final byte REJECTED = 2;
+    /** Sent instead of the batch that didn't fit into the member's outbound queue, the connection is closed after it. */
+    public static final byte TOO_SLOW = 3;
+
+    static final int BATCH_HEADER_SIZE = 3;
+    static final int ENTRY_HEADER_SIZE = 4 + 8 + 1 + 2;
+    static final int MAX_SENDER_BYTES = 255;
+    static final int MAX_BATCH_ENTRIES = 0xFFFF;
+
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private ChatFormat() {
+    }
+
+    static byte[] notice(byte code) {
+        return new byte[]{NOTICE_MESSAGE, code};
+    }
+
+    // sequences are assigned at flush, after the entry has been encoded
+    static void setSequence(byte[] entry, int sequence) {
+        INT.set(entry, 0, sequence);
+    }
+}
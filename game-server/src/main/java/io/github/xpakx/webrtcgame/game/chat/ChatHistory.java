@@ -0,0 +1,55 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size ring of the room's newest encoded entries. Not thread-safe, guarded by its room.
+ */
+final class ChatHistory {
+    private final byte[][] entries;
+    private int next;
+    private int size;
+    private int bytes;
+
+    ChatHistory(int capacity) {
+        this.entries = new byte[Math.max(capacity, 0)][];
+    }
+
+    void add(byte[] entry) {
+        if (entries.length == 0) {
+            return;
+        }
+        byte[] evicted = entries[next];
+        if (evicted != null) {
+            bytes -= evicted.length;
+        } else {
+            size++;
+        }
+        entries[next] = entry;
+        bytes += entry.length;
+        next = next + 1 == entries.length ? 0 : next + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return batch frame with every kept entry, oldest first, or null if there are none
+     */
+    byte[] toFrame() {
+        if (size == 0) {
+            return null;
+        }
+        byte[] frame = new byte[ChatFormat.BATCH_HEADER_SIZE + bytes];
+        ByteBuffer buffer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN)
+                .put(ChatFormat.BATCH_MESSAGE)
+                .putShort((short) size);
+        int oldest = size < entries.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            buffer.put(entries[(oldest + i) % entries.length]);
+        }
+        return frame;
+    }
+}
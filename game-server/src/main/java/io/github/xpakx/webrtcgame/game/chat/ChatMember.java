@@ -0,0 +1,89 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An authenticated connection in a chat room. Frames wait in a bounded queue and are written by
+ * at most one sender task at a time, so a slow socket only ever holds up its own member.
+ */
+public final class ChatMember {
+    private final Connection connection;
+    private final String username;
+    private final byte[] sender;
+    private final ArrayBlockingQueue<byte[]> outbound;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final Executor executor;
+    private final Runnable drain = this::drain;
+    private volatile boolean closed;
+
+    ChatMember(Connection connection, String username, int outboundCapacity, Executor executor) {
+        this.connection = connection;
+        this.username = username;
+        this.sender = encodeSender(username);
+        this.outbound = new ArrayBlockingQueue<>(Math.max(outboundCapacity, 1));
+        this.executor = executor;
+    }
+
+    public Connection connection() {
+        return connection;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    byte[] sender() {
+        return sender;
+    }
+
+    /**
+     * Queues a frame shared with other members; it must not be modified afterwards.
+     * @return false if the queue is full
+     */
+    boolean offer(byte[] frame) {
+        if (closed || !outbound.offer(frame)) {
+            return false;
+        }
+        if (sending.compareAndSet(false, true)) {
+            executor.execute(drain);
+        }
+        return true;
+    }
+
+    /**
+     * Drops whatever is still queued and closes the connection once the notice is written.
+     */
+    void disconnect(byte notice) {
+        closed = true;
+        outbound.clear();
+        executor.execute(() -> {
+            connection.send(ByteBuffer.wrap(ChatFormat.notice(notice)));
+            connection.close();
+        });
+    }
+
+    private void drain() {
+        do {
+            byte[] frame;
+            while (!closed && (frame = outbound.poll()) != null) {
+                connection.send(ByteBuffer.wrap(frame));
+            }
+            sending.set(false);
+            // a frame offered after the last poll but before the flag was cleared has no sender yet
+        } while (!closed && !outbound.isEmpty() && sending.compareAndSet(false, true));
+    }
+
+    private static byte[] encodeSender(String username) {
+        byte[] bytes = username.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > ChatFormat.MAX_SENDER_BYTES) {
+            throw new IllegalArgumentException("Username too long for chat");
+        }
+        return bytes;
+    }
+}
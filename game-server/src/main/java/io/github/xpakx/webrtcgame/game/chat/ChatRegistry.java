@@ -0,0 +1,124 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates chat rooms on first join, drops them when the last member leaves,
+ * and flushes all of them from one platform thread every flush interval.
+ */
+@Component
+public class ChatRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ChatRegistry.class);
+    private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+    private static final byte[] REJECTED = ChatFormat.notice(ChatFormat.REJECTED);
+
+    private final ConcurrentHashMap<String, ChatRoom> rooms = new ConcurrentHashMap<>();
+    private final ChatSettings settings;
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter relayed;
+    private final Counter rejected;
+    private final Counter droppedMembers;
+
+    public ChatRegistry(
+            @Value("${game.chat.flush-interval:50ms}") Duration flushInterval,
+            @Value("${game.chat.history-size:50}") int historySize,
+            @Value("${game.chat.outbound-queue-size:64}") int outboundCapacity,
+            @Value("${game.chat.max-message-size:1KB}") DataSize maxMessageSize,
+            @Value("${game.chat.max-pending-per-room:1024}") int maxPending,
+            MeterRegistry registry) {
+        this.settings = new ChatSettings(
+                historySize,
+                outboundCapacity,
+                (int) Math.min(maxMessageSize.toBytes(), 0xFFFF),
+                maxPending
+        );
+        this.relayed = Counter.builder("game.chat.messages")
+                .tag("outcome", "relayed")
+                .register(registry);
+        this.rejected = Counter.builder("game.chat.messages")
+                .tag("outcome", "rejected")
+                .register(registry);
+        this.droppedMembers = Counter.builder("game.chat.members.dropped")
+                .register(registry);
+        registry.gauge("game.chat.rooms", rooms, ConcurrentHashMap::size);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("chat-flusher")
+                .daemon(true)
+                .factory());
+        long period = flushInterval.toNanos();
+        flusher.scheduleAtFixedRate(this::flush, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    public ChatMember join(String roomId, Connection connection, String username) {
+        ChatMember[] member = new ChatMember[1];
+        rooms.compute(roomId, (id, room) -> {
+            if (room == null) {
+                room = new ChatRoom(id, settings, senders, droppedMembers);
+            }
+            member[0] = room.join(connection, username);
+            return room;
+        });
+        return member[0];
+    }
+
+    public void leave(String roomId, ChatMember member) {
+        rooms.computeIfPresent(roomId, (id, room) -> {
+            room.leave(member);
+            return room.isEmpty() ? null : room;
+        });
+    }
+
+    /**
+     * A rejected message is answered with a notice queued behind the frames the sender is still waiting for,
+     * so it can't overtake the sender's own {@link ChatFormat#AUTHENTICATED} notice.
+     * @return false if the message was rejected
+     */
+    public boolean post(String roomId, ChatMember member, ByteBuffer text) {
+        ChatRoom room = rooms.get(roomId);
+        if (room != null && room.post(member, text)) {
+            return true;
+        }
+        rejected.increment();
+        member.offer(REJECTED);
+        return false;
+    }
+
+    public ChatRoom get(String roomId) {
+        return rooms.get(roomId);
+    }
+
+    private void flush() {
+        // an exception would cancel the schedule and silence every room
+        for (ChatRoom room : rooms.values()) {
+            try {
+                relayed.increment(room.flush());
+            } catch (RuntimeException e) {
+                logger.warn("Couldn't flush chat room {}", room.getId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import io.micrometer.core.instrument.Counter;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Relays chat messages between members of one room. Messages can be posted from any thread and are encoded
+ * right away; {@link #flush()} then packs everything posted since the previous flush into a single batch frame,
+ * shared by all members, so a room costs one write per member per flush instead of one per member per message.
+ */
+public class ChatRoom {
+    private static final byte[] AUTHENTICATED = ChatFormat.notice(ChatFormat.AUTHENTICATED);
+
+    @Getter
+    private final String id;
+    private final ChatSettings settings;
+    private final Executor senders;
+    private final Counter droppedMembers;
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ChatHistory history;
+    private final List<ChatMember> members = new ArrayList<>();
+    private final List<byte[]> batch = new ArrayList<>();
+    private int sequence;
+
+    /**
+     * @param senders runs members' sender tasks, which block while their socket is busy
+     * @param droppedMembers counts members disconnected because their outbound queue was full
+     */
+    public ChatRoom(String id, ChatSettings settings, Executor senders, Counter droppedMembers) {
+        this.id = id;
+        this.settings = settings;
+        this.senders = senders;
+        this.droppedMembers = droppedMembers;
+        this.history = new ChatHistory(Math.min(settings.historySize(), ChatFormat.MAX_BATCH_ENTRIES));
+    }
+
+    /**
+     * Adds an authenticated member and queues the room's history for it, so it sees every message exactly once.
+     */
+    public synchronized ChatMember join(Connection connection, String username) {
+        ChatMember member = new ChatMember(connection, username, settings.outboundCapacity(), senders);
+        member.offer(AUTHENTICATED);
+        byte[] recent = history.toFrame();
+        if (recent != null) {
+            member.offer(recent);
+        }
+        members.add(member);
+        return member;
+    }
+
+    public synchronized void leave(ChatMember member) {
+        members.remove(member);
+    }
+
+    public synchronized boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public synchronized int size() {
+        return members.size();
+    }
+
+    /**
+     * Called from network threads with the message text as UTF-8, which is relayed without being decoded.
+     * @return false if the message was rejected
+     */
+    public boolean post(ChatMember sender, ByteBuffer text) {
+        int length = text.remaining();
+        if (length == 0 || length > settings.maxMessageBytes()) {
+            return false;
+        }
+        if (pendingCount.incrementAndGet() > settings.maxPending()) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+        byte[] name = sender.sender();
+        byte[] entry = new byte[ChatFormat.ENTRY_HEADER_SIZE + name.length + length];
+        ByteBuffer.wrap(entry).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(0)
+                .putLong(System.currentTimeMillis())
+                .put((byte) name.length)
+                .put(name)
+                .putShort((short) length)
+                .put(text);
+        pending.add(entry);
+        return true;
+    }
+
+    /**
+     * Sends everything posted since the previous flush as one batch. Called periodically by a single flusher thread.
+     * @return number of messages relayed
+     */
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        synchronized (this) {
+            int bytes = 0;
+            byte[] entry;
+            while (batch.size() < ChatFormat.MAX_BATCH_ENTRIES && (entry = pending.poll()) != null) {
+                ChatFormat.setSequence(entry, ++sequence);
+                history.add(entry);
+                batch.add(entry);
+                bytes += entry.length;
+            }
+            pendingCount.addAndGet(-batch.size());
+            byte[] frame = new byte[ChatFormat.BATCH_HEADER_SIZE + bytes];
+            ByteBuffer buffer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN)
+                    .put(ChatFormat.BATCH_MESSAGE)
+                    .putShort((short) batch.size());
+            for (byte[] message : batch) {
+                buffer.put(message);
+            }
+            int relayed = batch.size();
+            batch.clear();
+            deliver(frame);
+            return relayed;
+        }
+    }
+
+    private void deliver(byte[] frame) {
+        Iterator<ChatMember> iterator = members.iterator();
+        while (iterator.hasNext()) {
+            ChatMember member = iterator.next();
+            if (!member.offer(frame)) {
+                // history keeps the newest messages, so a client that reconnects catches up from there
+                iterator.remove();
+                member.disconnect(ChatFormat.TOO_SLOW);
+                droppedMembers.increment();
+            }
+        }
+    }
+}
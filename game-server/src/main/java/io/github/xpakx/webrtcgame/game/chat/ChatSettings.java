@@ -0,0 +1,15 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+/**
+ * @param historySize messages kept per room for members who join later
+ * @param outboundCapacity frames a member may have waiting before it's disconnected as too slow
+ * @param maxMessageBytes longest accepted message text, in UTF-8 bytes
+ * @param maxPending messages a room accepts between two flushes
+ */
+public record ChatSettings(
+        int historySize,
+        int outboundCapacity,
+        int maxMessageBytes,
+        int maxPending
+) {
+}
@@ -0,0 +1,20 @@
+package io.github.xpakx.webrtcgame.game.input;
+
+/**
+ * Client to server input message, little-endian:
+ * <pre>
+ * u8   INPUT_MESSAGE
+ * u32  sequence, increasing per client starting at 1, wrapping around
+ * i8   move x, -127..127
+ * i8   move z, -127..127
+ * u8   buttons
+ * </pre>
+ * Each message carries the full input state, so a lost or stale message can be dropped without replay.
+ */
+public final class InputFormat {
+    public static final byte INPUT_MESSAGE = 2;
+    public static final int INPUT_MESSAGE_SIZE = 8;
+
+    private InputFormat() {
+    }
+}
@@ -0,0 +1,6 @@
+package io.github.xpakx.webrtcgame.game.input;
+
+@FunctionalInterface
+public interface InputHandler<S> {
+    void onInput(S source, int sequence, byte moveX, byte moveZ, int buttons);
+}
@@ -0,0 +1,99 @@
+package io.github.xpakx.webrtcgame.game.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring of inputs stored in preallocated primitive arrays.
+ * Producers claim a cell by CAS on the tail and publish it through the cell's sequence number,
+ * so network threads never lock and never wait for the tick thread; when the ring is full
+ * {@link #offer} fails instead of allocating.
+ */
+public final class InputRing<S> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private final Object[] sources;
+    private final int[] sequences;
+    private final byte[] moveX;
+    private final byte[] moveZ;
+    private final int[] buttons;
+    private long head;
+
+    public InputRing(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.published = new AtomicLongArray(this.capacity);
+        this.sources = new Object[this.capacity];
+        this.sequences = new int[this.capacity];
+        this.moveX = new byte[this.capacity];
+        this.moveZ = new byte[this.capacity];
+        this.buttons = new int[this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, i);
+        }
+    }
+
+    /**
+     * Safe to call from any thread.
+     * @return false if the ring is full
+     */
+    public boolean offer(S source, int sequence, byte x, byte z, int buttonMask) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = published.getAcquire(index);
+            if (available == position) {
+                long witness = tail.compareAndExchange(position, position + 1);
+                if (witness == position) {
+                    sources[index] = source;
+                    sequences[index] = sequence;
+                    moveX[index] = x;
+                    moveZ[index] = z;
+                    buttons[index] = buttonMask;
+                    published.setRelease(index, position + 1);
+                    return true;
+                }
+                position = witness;
+            } else if (available < position) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hands up to {@code limit} published inputs to the handler in claim order. Only the consumer thread may call it.
+     * @return number of inputs drained
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(InputHandler<S> handler, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) head & mask;
+            if (published.getAcquire(index) != head + 1) {
+                break;
+            }
+            S source = (S) sources[index];
+            sources[index] = null;
+            handler.onInput(source, sequences[index], moveX[index], moveZ[index], buttons[index]);
+            published.setRelease(index, head + capacity);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Approximate, for metrics.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.xpakx.webrtcgame.game.input;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-client sequence tracking over an unordered channel, compared with wraparound.
+ * Network threads drop stale and duplicate packets before they take space in the ring; the tick thread
+ * checks again, since two packets of one client may still be claimed in the ring in reverse order.
+ */
+public final class InputSequence {
+    private final AtomicInteger newestOffered = new AtomicInteger();
+    private int lastApplied;
+
+    /**
+     * Producer side, safe to call from any thread.
+     * @return false if {@code sequence} isn't newer than every sequence offered before
+     */
+    public boolean tryOffer(int sequence) {
+        int newest = newestOffered.get();
+        while (sequence - newest > 0) {
+            int witness = newestOffered.compareAndExchange(newest, sequence);
+            if (witness == newest) {
+                return true;
+            }
+            newest = witness;
+        }
+        return false;
+    }
+
+    /**
+     * Consumer side, tick thread only.
+     * @return false if a newer input of this client was already applied
+     */
+    public boolean tryApply(int sequence) {
+        if (sequence - lastApplied <= 0) {
+            return false;
+        }
+        lastApplied = sequence;
+        return true;
+    }
+}
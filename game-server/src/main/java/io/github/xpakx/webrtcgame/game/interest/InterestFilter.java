@@ -0,0 +1,97 @@
+package io.github.xpakx.webrtcgame.game.interest;
+
+import io.github.xpakx.webrtcgame.game.sim.EntityStore;
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFrame;
+
+/**
+ * Builds a viewer's frame from the room's frame, keeping only entities in the viewer's area of interest.
+ * Candidates come from the simulation's spatial hash. Entities in a slower tier that aren't due this tick
+ * keep the state last sent to the viewer, so the delta encoder skips them.
+ * Reuses per-slot scratch arrays and is owned by the room's tick thread.
+ */
+public final class InterestFilter {
+    private final InterestPolicy policy;
+    private final int[] candidates;
+    private final int[] visibleStamp;
+    private final int[] intervalBySlot;
+    private int stamp;
+    private int entered;
+    private int left;
+
+    public InterestFilter(InterestPolicy policy, int capacity) {
+        this.policy = policy;
+        this.candidates = new int[capacity];
+        this.visibleStamp = new int[capacity];
+        this.intervalBySlot = new int[capacity];
+    }
+
+    /**
+     * @param room     room frame recorded this tick
+     * @param previous frame built for the same viewer on the previous tick, or null
+     * @param out      frame to fill
+     */
+    public void filter(Simulation simulation, int viewerSlot, SnapshotFrame room, SnapshotFrame previous, SnapshotFrame out) {
+        markVisible(simulation, viewerSlot);
+        out.begin(room.tick());
+        entered = 0;
+        left = 0;
+        int previousCount = previous != null ? previous.count() : 0;
+        int p = 0;
+        for (int i = 0; i < room.count(); i++) {
+            int slot = room.slot(i);
+            if (visibleStamp[slot] != stamp) {
+                continue;
+            }
+            int id = room.id(i);
+            while (p < previousCount && previous.id(p) < id) {
+                left++;
+                p++;
+            }
+            if (p == previousCount || previous.id(p) != id) {
+                entered++;
+                out.append(room, i, room, i);
+                continue;
+            }
+            if (InterestPolicy.isDue(room.tick(), id, intervalBySlot[slot])) {
+                out.append(room, i, room, i);
+            } else {
+                out.append(room, i, previous, p);
+            }
+            p++;
+        }
+        left += previousCount - p;
+    }
+
+    /**
+     * @return entities that became visible in the last {@link #filter} call
+     */
+    public int entered() {
+        return entered;
+    }
+
+    /**
+     * @return entities that stopped being visible in the last {@link #filter} call
+     */
+    public int left() {
+        return left;
+    }
+
+    private void markVisible(Simulation simulation, int viewerSlot) {
+        stamp++;
+        EntityStore entities = simulation.entities();
+        float x = entities.x(viewerSlot);
+        float z = entities.z(viewerSlot);
+        int count = simulation.query(x, z, policy.radius(), candidates);
+        for (int i = 0; i < count; i++) {
+            int slot = candidates[i];
+            float dx = entities.x(slot) - x;
+            float dz = entities.z(slot) - z;
+            int interval = policy.interval(dx * dx + dz * dz);
+            if (interval > 0) {
+                visibleStamp[slot] = stamp;
+                intervalBySlot[slot] = interval;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.xpakx.webrtcgame.game.interest;
+
+/**
+ * Distance tiers around a viewer: entities within {@code radii[i]} are refreshed every {@code intervals[i]} ticks,
+ * entities beyond the last radius are not visible at all.
+ */
+public final class InterestPolicy {
+    private final float[] radiiSquared;
+    private final int[] intervals;
+    private final float radius;
+
+    public InterestPolicy(float[] radii, int[] intervals) {
+        if (radii.length == 0 || radii.length != intervals.length) {
+            throw new IllegalArgumentException("Interest tiers need one interval per radius");
+        }
+        this.radiiSquared = new float[radii.length];
+        this.intervals = intervals.clone();
+        for (int i = 0; i < radii.length; i++) {
+            if (i > 0 && radii[i] <= radii[i - 1]) {
+                throw new IllegalArgumentException("Interest tier radii must be increasing");
+            }
+            if (intervals[i] < 1) {
+                throw new IllegalArgumentException("Interest tier intervals must be positive");
+            }
+            radiiSquared[i] = radii[i] * radii[i];
+        }
+        this.radius = radii[radii.length - 1];
+    }
+
+    public float radius() {
+        return radius;
+    }
+
+    /**
+     * @return refresh interval in ticks, or 0 if the entity is out of range
+     */
+    public int interval(float distanceSquared) {
+        for (int i = 0; i < radiiSquared.length; i++) {
+            if (distanceSquared <= radiiSquared[i]) {
+                return intervals[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Spreads refreshes of one tier over its interval instead of updating all its entities on the same tick.
+     */
+    public static boolean isDue(int tick, int id, int interval) {
+        return interval == 1 || Integer.remainderUnsigned(tick + id, interval) == 0;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.xpakx.webrtcgame.game.replay;
+
+/**
+ * Layout of replay files, all little-endian.
+ *
+ * <p>{@code .replay} is an append-only log:
+ * <pre>
+ * header   u32 MAGIC, u16 VERSION, u16 tick rate, u64 simulation seed, u64 start epoch millis
+ * record   u8 type, u32 tick, u32 payload length, payload
+ * </pre>
+ * Every tick has a {@link #KEYFRAME} (full snapshot) or {@link #DELTA} (snapshot against the previous tick) record,
+ * preceded by an {@link #INPUTS} record if any input was applied that tick. Snapshot payloads use
+ * the network {@code SnapshotFormat}; an inputs payload is a sequence of
+ * {@code u32 player entity id, u32 sequence, i8 move x, i8 move z, u8 buttons}.
+ *
+ * <p>{@code .index} holds one {@code u32 tick, u64 offset} entry per keyframe, in tick order.
+ */
+public final class ReplayFormat {
+    public static final int MAGIC = 0x50524757;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    public static final int RECORD_HEADER_SIZE = 9;
+    public static final int INDEX_ENTRY_SIZE = 12;
+    public static final int INPUT_SIZE = 11;
+
+    public static final byte KEYFRAME = 1;
+    public static final byte DELTA = 2;
+    public static final byte INPUTS = 3;
+
+    public static final String REPLAY_EXTENSION = ".replay";
+    public static final String INDEX_EXTENSION = ".index";
+
+    private ReplayFormat() {
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.xpakx.webrtcgame.game.replay;
+
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotDecoder;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFrame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static io.github.xpakx.webrtcgame.game.replay.ReplayFormat.*;
+
+/**
+ * Playback of a recorded match. Seeking finds the closest preceding keyframe by binary search over
+ * the side index and reads forward from there, so only one keyframe interval of the file is touched.
+ */
+public final class ReplayReader implements Closeable {
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel file;
+    private final long size;
+    private final int[] keyframeTicks;
+    private final long[] keyframeOffsets;
+    private final int tickRate;
+    private final long seed;
+    private final long startedAt;
+
+    private ReplayReader(FileChannel file, int[] keyframeTicks, long[] keyframeOffsets) throws IOException {
+        this.file = file;
+        this.size = file.size();
+        this.keyframeTicks = keyframeTicks;
+        this.keyframeOffsets = keyframeOffsets;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        file.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        if (header.getShort() != VERSION) {
+            throw new IOException("Unsupported replay version");
+        }
+        this.tickRate = header.getShort();
+        this.seed = header.getLong();
+        this.startedAt = header.getLong();
+    }
+
+    /**
+     * Opens {@code <base>.replay} together with its {@code <base>.index}.
+     */
+    public static ReplayReader open(Path base) throws IOException {
+        Path directory = base.toAbsolutePath().getParent();
+        String name = base.getFileName().toString();
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(name + INDEX_EXTENSION)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int keyframes = index.remaining() / INDEX_ENTRY_SIZE;
+        int[] ticks = new int[keyframes];
+        long[] offsets = new long[keyframes];
+        for (int i = 0; i < keyframes; i++) {
+            ticks[i] = index.getInt();
+            offsets[i] = index.getLong();
+            // a recording that was never closed leaves the rest of the mapped index zeroed
+            if (offsets[i] == 0) {
+                keyframes = i;
+                break;
+            }
+        }
+        return new ReplayReader(FileChannel.open(directory.resolve(name + REPLAY_EXTENSION)),
+                Arrays.copyOf(ticks, keyframes), Arrays.copyOf(offsets, keyframes));
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public int getFirstTick() {
+        return keyframeTicks.length > 0 ? keyframeTicks[0] : 0;
+    }
+
+    /**
+     * @return cursor before the last keyframe at or before {@code tick}, or null if the recording starts later
+     */
+    public Cursor seek(int tick) {
+        int found = Arrays.binarySearch(keyframeTicks, tick);
+        int keyframe = found >= 0 ? found : -found - 2;
+        if (keyframe < 0) {
+            return null;
+        }
+        return new Cursor(keyframeOffsets[keyframe]);
+    }
+
+    /**
+     * @return state of the room at {@code tick}, or null if that tick wasn't recorded
+     */
+    public SnapshotFrame frameAt(int tick) throws IOException {
+        Cursor cursor = seek(tick);
+        if (cursor == null) {
+            return null;
+        }
+        SnapshotDecoder decoder = new SnapshotDecoder();
+        SnapshotFrame current = null;
+        SnapshotFrame spare = new SnapshotFrame(64);
+        while (cursor.next() && cursor.tick() <= tick) {
+            if (cursor.type() == INPUTS) {
+                continue;
+            }
+            decoder.decode(cursor.payload(), current, spare);
+            SnapshotFrame decoded = spare;
+            spare = current != null ? current : new SnapshotFrame(64);
+            current = decoded;
+        }
+        return current != null && current.tick() == tick ? current : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * Forward iterator over records. Payloads are views into the mapped file, valid until the next call to {@link #next()}.
+     */
+    public final class Cursor {
+        private long position;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private byte type;
+        private int tick;
+        private ByteBuffer payload;
+
+        private Cursor(long position) {
+            this.position = position;
+        }
+
+        public boolean next() throws IOException {
+            if (position + RECORD_HEADER_SIZE > size) {
+                return false;
+            }
+            ensureMapped(RECORD_HEADER_SIZE);
+            int offset = (int) (position - windowStart);
+            type = window.get(offset);
+            tick = window.getInt(offset + 1);
+            int length = window.getInt(offset + 5);
+            if (type == 0 || position + RECORD_HEADER_SIZE + length > size) {
+                return false;
+            }
+            ensureMapped(RECORD_HEADER_SIZE + length);
+            offset = (int) (position - windowStart) + RECORD_HEADER_SIZE;
+            payload = window.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+            position += RECORD_HEADER_SIZE + length;
+            return true;
+        }
+
+        /**
+         * One of {@link ReplayFormat#KEYFRAME}, {@link ReplayFormat#DELTA}, {@link ReplayFormat#INPUTS}.
+         */
+        public byte type() {
+            return type;
+        }
+
+        public int tick() {
+            return tick;
+        }
+
+        public ByteBuffer payload() {
+            return payload;
+        }
+
+        private void ensureMapped(int bytes) throws IOException {
+            if (window != null && position >= windowStart && position + bytes <= windowStart + window.capacity()) {
+                return;
+            }
+            windowStart = position;
+            long length = Math.min(size - position, Math.max(WINDOW_SIZE, bytes));
+            window = file.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.xpakx.webrtcgame.game.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static io.github.xpakx.webrtcgame.game.replay.ReplayFormat.*;
+
+/**
+ * Appends a room's snapshots and applied inputs to a replay file, see {@link ReplayFormat}.
+ * Records and keyframe index entries are copied into memory-mapped segments of both files, so recording costs
+ * a memory copy and the page cache takes care of writing it out; a new segment is mapped only when the current one
+ * is full, and the full one is unmapped then. Owned by the room's tick thread.
+ */
+public final class ReplayRecorder implements Closeable {
+    private static final long INDEX_SEGMENT_SIZE = 1024L * INDEX_ENTRY_SIZE;
+
+    private final FileChannel file;
+    private final FileChannel index;
+    private final long segmentSize;
+    private final int keyframeInterval;
+    private final ByteBuffer inputs;
+    private final Runnable onClose;
+    private final Segment records = new Segment();
+    private final Segment keyframes = new Segment();
+    private int inputCount;
+    private int inputsTick;
+
+    private ReplayRecorder(FileChannel file, FileChannel index, long segmentSize, int keyframeInterval,
+                           int maxInputsPerTick, Runnable onClose) {
+        this.file = file;
+        this.index = index;
+        this.segmentSize = segmentSize;
+        this.keyframeInterval = keyframeInterval;
+        this.inputs = ByteBuffer.allocate(maxInputsPerTick * INPUT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.onClose = onClose;
+    }
+
+    /**
+     * Creates {@code <base>.replay} and {@code <base>.index}, replacing existing files.
+     * @param segmentSize bytes mapped at once, must fit the largest snapshot
+     * @param onClose called once both files are complete
+     */
+    public static ReplayRecorder create(Path base, int tickRate, long seed, long segmentSize, int keyframeInterval,
+                                        int maxInputsPerTick, Runnable onClose) throws IOException {
+        Path directory = base.toAbsolutePath().getParent();
+        String name = base.getFileName().toString();
+        FileChannel file = FileChannel.open(directory.resolve(name + REPLAY_EXTENSION), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel index = FileChannel.open(directory.resolve(name + INDEX_EXTENSION), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ReplayRecorder recorder = new ReplayRecorder(file, index, segmentSize, keyframeInterval, maxInputsPerTick, onClose);
+        recorder.records.map(file, 0, segmentSize);
+        recorder.keyframes.map(index, 0, INDEX_SEGMENT_SIZE);
+        recorder.records.buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) tickRate)
+                .putLong(seed)
+                .putLong(System.currentTimeMillis());
+        return recorder;
+    }
+
+    public boolean isKeyframe(int tick) {
+        return tick == 1 || tick % keyframeInterval == 0;
+    }
+
+    /**
+     * Buffers an input applied during {@code tick}; inputs beyond the per-tick budget are not recorded.
+     */
+    public void input(int tick, int playerId, int sequence, byte moveX, byte moveZ, int buttons) {
+        if (inputsTick != tick) {
+            inputs.clear();
+            inputCount = 0;
+            inputsTick = tick;
+        }
+        if (inputs.remaining() < INPUT_SIZE) {
+            return;
+        }
+        inputs.putInt(playerId)
+                .putInt(sequence)
+                .put(moveX)
+                .put(moveZ)
+                .put((byte) buttons);
+        inputCount++;
+    }
+
+    /**
+     * Appends the tick's inputs and its encoded snapshot, a full one if {@code keyframe} is set.
+     */
+    public void snapshot(int tick, boolean keyframe, ByteBuffer payload) throws IOException {
+        if (inputsTick == tick && inputCount > 0) {
+            inputs.flip();
+            append(INPUTS, tick, inputs);
+            inputCount = 0;
+        }
+        if (keyframe) {
+            if (keyframes.buffer.remaining() < INDEX_ENTRY_SIZE) {
+                keyframes.map(index, keyframes.position(), INDEX_SEGMENT_SIZE);
+            }
+            keyframes.buffer.putInt(tick).putLong(records.position());
+        }
+        append(keyframe ? KEYFRAME : DELTA, tick, payload);
+    }
+
+    /**
+     * Trims both files to the recorded length and flushes them.
+     */
+    @Override
+    public void close() throws IOException {
+        long length = records.position();
+        long indexLength = keyframes.position();
+        try (file; index) {
+            records.force();
+            keyframes.force();
+            records.unmap();
+            keyframes.unmap();
+            file.truncate(length);
+            index.truncate(indexLength);
+        } finally {
+            onClose.run();
+        }
+    }
+
+    private void append(byte type, int tick, ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        if (records.buffer.remaining() < RECORD_HEADER_SIZE + length) {
+            records.map(file, records.position(), segmentSize);
+        }
+        records.buffer.put(type)
+                .putInt(tick)
+                .putInt(length)
+                .put(payload);
+    }
+
+    /**
+     * The mapped window of a file. Each window has its own arena, so closing it unmaps the window right away
+     * instead of whenever the buffer gets garbage collected.
+     */
+    private static final class Segment {
+        private Arena arena;
+        private MemorySegment mapped;
+        private ByteBuffer buffer;
+        private long start;
+
+        long position() {
+            return start + buffer.position();
+        }
+
+        void map(FileChannel channel, long start, long size) throws IOException {
+            unmap();
+            this.start = start;
+            // shared, as the room is created on another thread than the one that ticks it
+            arena = Arena.ofShared();
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, start, size, arena);
+            buffer = mapped.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void force() {
+            mapped.force();
+        }
+
+        // dirty pages stay in the page cache, so unmapping doesn't wait for them to be written
+        void unmap() {
+            if (arena == null) {
+                return;
+            }
+            arena.close();
+            arena = null;
+            mapped = null;
+        }
+    }
+}
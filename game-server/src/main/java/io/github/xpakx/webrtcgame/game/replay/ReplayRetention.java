@@ -0,0 +1,75 @@
+package io.github.xpakx.webrtcgame.game.replay;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.xpakx.webrtcgame.game.replay.ReplayFormat.*;
+
+/**
+ * Caps the replays kept in a directory by count and total size. Before a recording starts, the oldest finished
+ * replays are deleted until there is room for one more; replays still being recorded are never deleted.
+ */
+public final class ReplayRetention {
+    private final Path directory;
+    private final int maxReplays;
+    private final long maxBytes;
+    private final Set<String> recording = ConcurrentHashMap.newKeySet();
+
+    public ReplayRetention(Path directory, int maxReplays, long maxBytes) {
+        this.directory = directory;
+        this.maxReplays = maxReplays;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Makes room for a replay called {@code name} and returns the base path to record it to.
+     * Call {@link #finished(String)} once it's closed.
+     */
+    public synchronized Path start(String name) throws IOException {
+        Files.createDirectories(directory);
+        List<Replay> finished = new ArrayList<>();
+        int count = 0;
+        long bytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + REPLAY_EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String replayName = fileName.substring(0, fileName.length() - REPLAY_EXTENSION.length());
+                Path index = directory.resolve(replayName + INDEX_EXTENSION);
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long size = attributes.size() + (Files.exists(index) ? Files.size(index) : 0);
+                count++;
+                bytes += size;
+                if (!recording.contains(replayName)) {
+                    finished.add(new Replay(file, index, attributes.lastModifiedTime().toMillis(), size));
+                }
+            }
+        }
+        finished.sort(Comparator.comparingLong(Replay::modifiedAt));
+        for (Replay replay : finished) {
+            if (count < maxReplays && bytes <= maxBytes) {
+                break;
+            }
+            Files.deleteIfExists(replay.file());
+            Files.deleteIfExists(replay.index());
+            count--;
+            bytes -= replay.size();
+        }
+        recording.add(name);
+        return directory.resolve(name);
+    }
+
+    public void finished(String name) {
+        recording.remove(name);
+    }
+
+    private record Replay(Path file, Path index, long modifiedAt, long size) {
+    }
+}
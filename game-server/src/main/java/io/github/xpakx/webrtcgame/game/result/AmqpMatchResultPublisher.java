@@ -0,0 +1,93 @@
+package io.github.xpakx.webrtcgame.game.result;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends results as persistent JSON messages to main-server's durable {@code match.results} queue.
+ * Sending happens on a single background thread, so a slow or unreachable broker never stalls a tick;
+ * results that don't fit into its queue are dropped and counted.
+ */
+public class AmqpMatchResultPublisher implements MatchResultPublisher, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AmqpMatchResultPublisher.class);
+    static final String QUEUE = "match.results";
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final JsonMapper jsonMapper;
+    private final ThreadPoolExecutor sender;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public AmqpMatchResultPublisher(RabbitTemplate rabbitTemplate, JsonMapper jsonMapper, int queueCapacity,
+                                    MeterRegistry registry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.jsonMapper = jsonMapper;
+        this.sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                (task) -> {
+                    Thread thread = new Thread(task, "match-result-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.sent = Counter.builder("game.match.results")
+                .tag("outcome", "sent")
+                .register(registry);
+        this.failed = Counter.builder("game.match.results")
+                .tag("outcome", "failed")
+                .register(registry);
+        this.dropped = Counter.builder("game.match.results")
+                .tag("outcome", "dropped")
+                .register(registry);
+    }
+
+    @Override
+    public void publish(MatchResult result) {
+        try {
+            sender.execute(() -> send(result));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            logger.warn("Dropped result of match {}, sender queue is full", result.matchId());
+        }
+    }
+
+    /**
+     * Sends the results that are still queued, rooms are closed before this bean is destroyed.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        sender.shutdown();
+        if (!sender.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            logger.warn("{} match results weren't sent before shutdown", sender.shutdownNow().size());
+        }
+    }
+
+    private void send(MatchResult result) {
+        Message message = MessageBuilder.withBody(jsonMapper.writeValueAsBytes(result))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setMessageId(result.matchId().toString())
+                .build();
+        try {
+            rabbitTemplate.send("", QUEUE, message);
+            sent.increment();
+        } catch (AmqpException e) {
+            failed.increment();
+            logger.warn("Couldn't send result of match {}", result.matchId(), e);
+        }
+    }
+}
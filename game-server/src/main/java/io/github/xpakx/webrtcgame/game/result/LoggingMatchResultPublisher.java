@@ -0,0 +1,17 @@
+package io.github.xpakx.webrtcgame.game.result;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Used without a broker, results only end up in the log.
+ */
+public class LoggingMatchResultPublisher implements MatchResultPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingMatchResultPublisher.class);
+
+    @Override
+    public void publish(MatchResult result) {
+        logger.info("Match {} in room {} ended after {} ticks with {} players",
+                result.matchId(), result.room(), result.ticks(), result.players().size());
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.xpakx.webrtcgame.game.result;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a match, sent to main-server when its room closes. Timestamps are epoch milliseconds,
+ * ticks count from the room's first tick,
+ * players are named by their account's username. Must stay in sync with main-server's {@code MatchResult}.
+ */
+public record MatchResult(
+        UUID matchId,
+        String room,
+        long startedAt,
+        long endedAt,
+        int ticks,
+        List<Player> players
+) {
+    public record Player(String player, int joinedTick, int leftTick, int hp) {
+    }
+}
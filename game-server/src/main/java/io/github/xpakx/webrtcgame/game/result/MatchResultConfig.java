@@ -0,0 +1,40 @@
+package io.github.xpakx.webrtcgame.game.result;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+@Configuration
+public class MatchResultConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "memory", matchIfMissing = true)
+    public MatchResultPublisher loggingMatchResultPublisher() {
+        return new LoggingMatchResultPublisher();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "amqp")
+    static class AmqpMatchResultConfig {
+
+        // declared on both sides, so results published before main-server first starts aren't lost
+        @Bean
+        public Queue matchResultQueue() {
+            return new Queue(AmqpMatchResultPublisher.QUEUE);
+        }
+
+        @Bean
+        public MatchResultPublisher amqpMatchResultPublisher(
+                RabbitTemplate rabbitTemplate,
+                JsonMapper jsonMapper,
+                @Value("${game.results.queue-capacity:1024}") int queueCapacity,
+                MeterRegistry registry) {
+            return new AmqpMatchResultPublisher(rabbitTemplate, jsonMapper, queueCapacity, registry);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.xpakx.webrtcgame.game.result;
+
+/**
+ * Called from tick threads, so implementations must not block.
+ */
+public interface MatchResultPublisher {
+    void publish(MatchResult result);
+}
@@ -0,0 +1,90 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals for one connection. Written only by the room's tick thread, except for
+ * input rejections which happen on network threads; readable from anywhere.
+ */
+public final class ConnectionStats {
+    private volatile long snapshotsSent;
+    private volatile long entitiesSent;
+    private volatile long bytesSent;
+    private volatile long bytesSaved;
+    private volatile long entered;
+    private volatile long left;
+    private volatile long inputsApplied;
+    private volatile long inputsStale;
+    private final AtomicLong inputsRejected = new AtomicLong();
+
+    void recordSnapshot(int entities, int bytes, int referenceBytes) {
+        snapshotsSent++;
+        entitiesSent += entities;
+        bytesSent += bytes;
+        if (referenceBytes > bytes) {
+            bytesSaved += referenceBytes - bytes;
+        }
+    }
+
+    void recordInterest(int entered, int left) {
+        this.entered += entered;
+        this.left += left;
+    }
+
+    void recordInput(boolean applied) {
+        if (applied) {
+            inputsApplied++;
+        } else {
+            inputsStale++;
+        }
+    }
+
+    void recordRejectedInput() {
+        inputsRejected.incrementAndGet();
+    }
+
+    public long getSnapshotsSent() {
+        return snapshotsSent;
+    }
+
+    public long getEntitiesSent() {
+        return entitiesSent;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Estimated against a one-tick delta of the whole room, i.e. what the client would get without interest filtering.
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public long getEntered() {
+        return entered;
+    }
+
+    public long getLeft() {
+        return left;
+    }
+
+    public long getInputsApplied() {
+        return inputsApplied;
+    }
+
+    /**
+     * Inputs dropped on the tick thread because a newer one was already applied.
+     */
+    public long getInputsStale() {
+        return inputsStale;
+    }
+
+    /**
+     * Inputs dropped on arrival, as stale duplicates or for lack of ring space.
+     */
+    public long getInputsRejected() {
+        return inputsRejected.get();
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import io.github.xpakx.webrtcgame.game.input.InputHandler;
+import io.github.xpakx.webrtcgame.game.input.InputRing;
+import io.github.xpakx.webrtcgame.game.interest.InterestFilter;
+import io.github.xpakx.webrtcgame.game.replay.ReplayRecorder;
+import io.github.xpakx.webrtcgame.game.result.MatchResult;
+import io.github.xpakx.webrtcgame.game.result.MatchResultPublisher;
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import io.github.xpakx.webrtcgame.game.snapshot.BitWriter;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotEncoder;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFrame;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotHistory;
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Authoritative state of a single match. {@link #tick()} is always called
+ * from the same tick thread, connections can join and leave from any thread.
+ */
+public class Room {
+    private static final Logger logger = LoggerFactory.getLogger(Room.class);
+    // how often the unfiltered reference size behind ConnectionStats#getBytesSaved is re-measured
+    private static final int REFERENCE_SAMPLE_INTERVAL = 16;
+
+    @Getter
+    private final String id;
+    private final List<RoomClient> clients = new CopyOnWriteArrayList<>();
+    private final Map<Connection, RoomClient> clientsByConnection = new ConcurrentHashMap<>();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final InputRing<RoomClient> inputs;
+    private final InputHandler<RoomClient> inputHandler = this::applyInput;
+    private final int maxPendingInputs;
+    @Getter
+    private final Simulation simulation;
+    private final float tickSeconds;
+    private final int historySize;
+    private final SnapshotHistory history;
+    private final InterestFilter interest;
+    private final BitWriter snapshot;
+    private ReplayRecorder recorder;
+    private final MatchResultPublisher results;
+    private final UUID matchId = UUID.randomUUID();
+    private final long startedAt = System.currentTimeMillis();
+    private final List<MatchResult.Player> players = new ArrayList<>();
+    private volatile int tick;
+    private int referenceBytes;
+
+    /**
+     * @param recorder where to record the match, or null
+     * @param results receives the match result once the room is closed
+     */
+    public Room(String id, Simulation simulation, RoomSettings settings, ReplayRecorder recorder,
+                MatchResultPublisher results) {
+        this.id = id;
+        this.inputs = new InputRing<>(settings.inputCapacity());
+        this.maxPendingInputs = settings.maxPendingInputs();
+        this.simulation = simulation;
+        this.tickSeconds = settings.tickSeconds();
+        this.historySize = settings.snapshotHistory();
+        this.history = new SnapshotHistory(historySize, 64);
+        this.interest = new InterestFilter(settings.interestPolicy(), simulation.entities().capacity());
+        this.snapshot = new BitWriter(SnapshotFormat.maxEncodedSize(simulation.entities().capacity()));
+        this.recorder = recorder;
+        this.results = results;
+    }
+
+    /**
+     * @param username account the connection authenticated as, reported in the match result
+     */
+    public void join(Connection connection, String username) {
+        RoomClient client = new RoomClient(connection, username, historySize);
+        clientsByConnection.put(connection, client);
+        clients.add(client);
+        pending.add(() -> {
+            client.setPlayerSlot(simulation.addPlayer(0f, 0f));
+            client.setJoinedTick(tick);
+        });
+    }
+
+    public void leave(Connection connection) {
+        RoomClient client = clientsByConnection.remove(connection);
+        if (client == null) {
+            return;
+        }
+        clients.remove(client);
+        pending.add(() -> {
+            if (client.playerSlot() >= 0) {
+                finish(client);
+                simulation.removePlayer(client.playerSlot());
+                client.setPlayerSlot(-1);
+            }
+        });
+    }
+
+    /**
+     * Called from network threads. Inputs are applied at the start of the next tick.
+     * @return false if the input was stale or there was no room for it, the caller should drop the packet
+     */
+    public boolean offerInput(Connection connection, int sequence, byte moveX, byte moveZ, int buttons) {
+        RoomClient client = clientsByConnection.get(connection);
+        if (client == null) {
+            return false;
+        }
+        if (!client.inputSequence().tryOffer(sequence) || !client.reserveInput(maxPendingInputs)) {
+            client.stats().recordRejectedInput();
+            return false;
+        }
+        if (!inputs.offer(client, sequence, moveX, moveZ, buttons)) {
+            client.releaseInput();
+            client.stats().recordRejectedInput();
+            return false;
+        }
+        return true;
+    }
+
+    public void acknowledge(Connection connection, int ackedTick) {
+        RoomClient client = clientsByConnection.get(connection);
+        if (client != null && ackedTick <= tick) {
+            client.acknowledge(ackedTick);
+        }
+    }
+
+    public boolean isEmpty() {
+        return clients.isEmpty();
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public Map<String, ConnectionStats> getConnectionStats() {
+        Map<String, ConnectionStats> stats = new LinkedHashMap<>();
+        for (RoomClient client : clients) {
+            stats.put(client.connection().id(), client.stats());
+        }
+        return stats;
+    }
+
+    public void tick() {
+        int current = tick + 1;
+        runPending();
+        inputs.drain(inputHandler, inputs.capacity());
+        simulation.step(tickSeconds);
+        SnapshotFrame frame = history.record(current, simulation.entities());
+        tick = current;
+        if (recorder != null) {
+            record(frame);
+        } else if (current % REFERENCE_SAMPLE_INTERVAL == 1) {
+            referenceBytes = encode(frame, history.get(current - 1)).remaining();
+        }
+        broadcast(frame);
+    }
+
+    /**
+     * Publishes the match result and finishes the recording. Called by the tick thread after the room's last tick.
+     */
+    public void close() {
+        // the last player's leave is usually still pending, and on shutdown players may still be connected
+        runPending();
+        for (RoomClient client : clients) {
+            if (client.playerSlot() >= 0) {
+                finish(client);
+            }
+        }
+        if (!players.isEmpty()) {
+            results.publish(new MatchResult(matchId, id, startedAt, System.currentTimeMillis(), tick, List.copyOf(players)));
+            players.clear();
+        }
+        stopRecording();
+    }
+
+    private void runPending() {
+        Runnable command;
+        while ((command = pending.poll()) != null) {
+            command.run();
+        }
+    }
+
+    private void finish(RoomClient client) {
+        int hp = simulation.entities().hp(client.playerSlot());
+        players.add(new MatchResult.Player(client.username(), client.joinedTick(), tick, hp));
+    }
+
+    private void stopRecording() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            logger.warn("Couldn't finish replay of room {}", id, e);
+        }
+        recorder = null;
+    }
+
+    // the recorded delta against the previous tick doubles as the exact reference size for ConnectionStats
+    private void record(SnapshotFrame frame) {
+        SnapshotFrame previous = history.get(frame.tick() - 1);
+        boolean keyframe = previous == null || recorder.isKeyframe(frame.tick());
+        ByteBuffer payload = encode(frame, keyframe ? null : previous);
+        if (!keyframe) {
+            referenceBytes = payload.remaining();
+        }
+        try {
+            recorder.snapshot(frame.tick(), keyframe, payload);
+        } catch (IOException e) {
+            logger.warn("Stopped recording room {}", id, e);
+            stopRecording();
+        }
+    }
+
+    private void broadcast(SnapshotFrame frame) {
+        for (RoomClient client : clients) {
+            Connection connection = client.connection();
+            if (!connection.isOpen()) {
+                continue;
+            }
+            SnapshotFrame view = frame;
+            SnapshotHistory sent = history;
+            // clients without a player entity yet see the whole room
+            if (client.playerSlot() >= 0) {
+                sent = client.history();
+                SnapshotFrame previous = sent.get(frame.tick() - 1);
+                view = sent.next(frame.tick());
+                interest.filter(simulation, client.playerSlot(), frame, previous, view);
+                client.stats().recordInterest(interest.entered(), interest.left());
+            }
+            snapshot.reset();
+            int entities = SnapshotEncoder.encode(view, sent.get(client.ackedTick()), snapshot);
+            ByteBuffer payload = snapshot.flip();
+            client.stats().recordSnapshot(entities, payload.remaining(), referenceBytes);
+            connection.send(payload);
+        }
+    }
+
+    private void applyInput(RoomClient client, int sequence, byte moveX, byte moveZ, int buttons) {
+        client.releaseInput();
+        if (client.playerSlot() < 0) {
+            return;
+        }
+        boolean applied = client.inputSequence().tryApply(sequence);
+        client.stats().recordInput(applied);
+        if (applied) {
+            simulation.setPlayerDirection(client.playerSlot(), moveX / 127f, moveZ / 127f);
+            if (recorder != null) {
+                int playerId = simulation.entities().id(client.playerSlot());
+                recorder.input(tick + 1, playerId, sequence, moveX, moveZ, buttons);
+            }
+        }
+    }
+
+    private ByteBuffer encode(SnapshotFrame frame, SnapshotFrame baseline) {
+        snapshot.reset();
+        SnapshotEncoder.encode(frame, baseline, snapshot);
+        return snapshot.flip();
+    }
+}
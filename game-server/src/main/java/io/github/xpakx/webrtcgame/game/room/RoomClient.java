@@ -0,0 +1,91 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import io.github.xpakx.webrtcgame.game.input.InputSequence;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotHistory;
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A connection's membership in a room: its player entity, the frames sent to it
+ * and the newest one it acknowledged.
+ */
+final class RoomClient {
+    private final Connection connection;
+    private final String username;
+    private final SnapshotHistory history;
+    private final ConnectionStats stats = new ConnectionStats();
+    private final InputSequence inputSequence = new InputSequence();
+    private final AtomicInteger pendingInputs = new AtomicInteger();
+    private volatile int ackedTick;
+    private int playerSlot = -1;
+    private int joinedTick;
+
+    RoomClient(Connection connection, String username, int historySize) {
+        this.connection = connection;
+        this.username = username;
+        this.history = new SnapshotHistory(historySize, 64);
+    }
+
+    Connection connection() {
+        return connection;
+    }
+
+    String username() {
+        return username;
+    }
+
+    SnapshotHistory history() {
+        return history;
+    }
+
+    ConnectionStats stats() {
+        return stats;
+    }
+
+    InputSequence inputSequence() {
+        return inputSequence;
+    }
+
+    /**
+     * Takes one of the client's input credits, so a single flooding client can't fill the room's ring.
+     */
+    boolean reserveInput(int maxPending) {
+        if (pendingInputs.incrementAndGet() > maxPending) {
+            pendingInputs.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void releaseInput() {
+        pendingInputs.decrementAndGet();
+    }
+
+    // acks travel over an unordered channel, so an older one must not move the baseline back
+    void acknowledge(int tick) {
+        if (tick > ackedTick) {
+            ackedTick = tick;
+        }
+    }
+
+    int ackedTick() {
+        return ackedTick;
+    }
+
+    int playerSlot() {
+        return playerSlot;
+    }
+
+    void setPlayerSlot(int playerSlot) {
+        this.playerSlot = playerSlot;
+    }
+
+    int joinedTick() {
+        return joinedTick;
+    }
+
+    void setJoinedTick(int joinedTick) {
+        this.joinedTick = joinedTick;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import io.github.xpakx.webrtcgame.game.interest.InterestPolicy;
+import io.github.xpakx.webrtcgame.game.replay.ReplayRecorder;
+import io.github.xpakx.webrtcgame.game.replay.ReplayRetention;
+import io.github.xpakx.webrtcgame.game.result.MatchResultPublisher;
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class RoomFactory {
+    private static final Logger logger = LoggerFactory.getLogger(RoomFactory.class);
+
+    private final RoomSettings settings;
+    private final MatchResultPublisher results;
+    private final ReplayRetention replays;
+
+    @Value("${game.sim.max-entities:8192}")
+    private int maxEntities;
+    @Value("${game.sim.cell-size:4}")
+    private float cellSize;
+    @Value("${game.replay.enabled:false}")
+    private boolean replayEnabled;
+    @Value("${game.replay.keyframe-interval:300}")
+    private int keyframeInterval;
+    @Value("${game.replay.segment-size:16MB}")
+    private DataSize segmentSize;
+
+    public RoomFactory(
+            @Value("${game.tick-rate:60}") int tickRate,
+            @Value("${game.snapshot.history:32}") int snapshotHistory,
+            @Value("${game.interest.tier-radii:20,40,60}") float[] tierRadii,
+            @Value("${game.interest.tier-intervals:1,2,4}") int[] tierIntervals,
+            @Value("${game.input.ring-size:1024}") int inputRingSize,
+            @Value("${game.input.max-pending-per-client:32}") int maxPendingInputs,
+            @Value("${game.replay.directory:replays}") Path replayDirectory,
+            @Value("${game.replay.max-replays:100}") int maxReplays,
+            @Value("${game.replay.max-size:1GB}") DataSize maxReplaySize,
+            MatchResultPublisher results) {
+        this.settings = new RoomSettings(
+                tickRate,
+                snapshotHistory,
+                new InterestPolicy(tierRadii, tierIntervals),
+                inputRingSize,
+                maxPendingInputs
+        );
+        this.results = results;
+        this.replays = new ReplayRetention(replayDirectory, maxReplays, maxReplaySize.toBytes());
+    }
+
+    public Room create(String id) {
+        long seed = ThreadLocalRandom.current().nextLong();
+        Simulation simulation = new Simulation(maxEntities, cellSize, seed);
+        return new Room(id, simulation, settings, createRecorder(id, seed), results);
+    }
+
+    private ReplayRecorder createRecorder(String roomId, long seed) {
+        if (!replayEnabled) {
+            return null;
+        }
+        String name = roomId.replaceAll("[^A-Za-z0-9_-]", "_") + "-" + System.currentTimeMillis();
+        long segment = Math.max(segmentSize.toBytes(), 2L * SnapshotFormat.maxEncodedSize(maxEntities));
+        try {
+            return ReplayRecorder.create(replays.start(name), settings.tickRate(), seed,
+                    segment, keyframeInterval, settings.inputCapacity(), () -> replays.finished(name));
+        } catch (IOException e) {
+            replays.finished(name);
+            logger.warn("Room {} will not be recorded", roomId, e);
+            return null;
+        }
+    }
+}
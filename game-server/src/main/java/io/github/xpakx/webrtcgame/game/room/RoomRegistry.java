@@ -0,0 +1,65 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import io.github.xpakx.webrtcgame.game.tick.TickScheduler;
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates rooms on first join and stops ticking them when the last player leaves.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomRegistry {
+    private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+    private final TickScheduler scheduler;
+    private final RoomFactory factory;
+
+    public Room join(String roomId, Connection connection, String username) {
+        return rooms.compute(roomId, (id, room) -> {
+            if (room == null) {
+                room = factory.create(id);
+                scheduler.schedule(room);
+            }
+            room.join(connection, username);
+            return room;
+        });
+    }
+
+    public void leave(String roomId, Connection connection) {
+        rooms.computeIfPresent(roomId, (id, room) -> {
+            room.leave(connection);
+            if (room.isEmpty()) {
+                scheduler.unschedule(room);
+                return null;
+            }
+            return room;
+        });
+    }
+
+    public void acknowledge(String roomId, Connection connection, int tick) {
+        Room room = rooms.get(roomId);
+        if (room != null) {
+            room.acknowledge(connection, tick);
+        }
+    }
+
+    public boolean offerInput(String roomId, Connection connection, int sequence, byte moveX, byte moveZ, int buttons) {
+        Room room = rooms.get(roomId);
+        return room != null && room.offerInput(connection, sequence, moveX, moveZ, buttons);
+    }
+
+    public Map<String, Map<String, ConnectionStats>> connectionStats() {
+        Map<String, Map<String, ConnectionStats>> stats = new TreeMap<>();
+        rooms.forEach((id, room) -> stats.put(id, room.getConnectionStats()));
+        return stats;
+    }
+
+    public Room get(String roomId) {
+        return rooms.get(roomId);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import io.github.xpakx.webrtcgame.game.interest.InterestPolicy;
+
+public record RoomSettings(
+        int tickRate,
+        int snapshotHistory,
+        InterestPolicy interestPolicy,
+        int inputCapacity,
+        int maxPendingInputs
+) {
+    public float tickSeconds() {
+        return 1f / tickRate;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/rooms}: per-connection snapshot and interest counters of every active room.
+ */
+@Component
+@Endpoint(id = "rooms")
+@RequiredArgsConstructor
+public class RoomsEndpoint {
+    private final RoomRegistry rooms;
+
+    @ReadOperation
+    public Map<String, Map<String, ConnectionStats>> rooms() {
+        return rooms.connectionStats();
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.xpakx.webrtcgame.game.sim;
+
+/**
+ * Fixed capacity struct-of-arrays storage for entities of a single room.
+ * Each field lives in its own primitive array indexed by slot; freed slots are reused through
+ * a free list and live slots are kept densely packed in {@link #slotAt(int)} order, so the
+ * simulation loop walks only live entities and never allocates.
+ * Not thread-safe, owned by the room's tick thread.
+ */
+public final class EntityStore {
+    private final int capacity;
+
+    final float[] x;
+    final float[] z;
+    final float[] vx;
+    final float[] vz;
+    final float[] timer;
+    final int[] hp;
+    final byte[] type;
+    private final int[] ids;
+
+    private final int[] dense;
+    private final int[] denseIndex;
+    private int size;
+
+    private final int[] free;
+    private int freeCount;
+    private int nextId = 1;
+
+    public EntityStore(int capacity) {
+        this.capacity = capacity;
+        this.x = new float[capacity];
+        this.z = new float[capacity];
+        this.vx = new float[capacity];
+        this.vz = new float[capacity];
+        this.timer = new float[capacity];
+        this.hp = new int[capacity];
+        this.type = new byte[capacity];
+        this.ids = new int[capacity];
+        this.dense = new int[capacity];
+        this.denseIndex = new int[capacity];
+        this.free = new int[capacity];
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            free[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * @return slot of the new entity, or -1 if the store is full
+     */
+    public int spawn(EntityType entityType, float posX, float posZ, float velX, float velZ) {
+        if (freeCount == 0) {
+            return -1;
+        }
+        int slot = free[--freeCount];
+        x[slot] = posX;
+        z[slot] = posZ;
+        vx[slot] = velX;
+        vz[slot] = velZ;
+        timer[slot] = 0f;
+        hp[slot] = entityType.hp();
+        type[slot] = entityType.code();
+        ids[slot] = nextId++;
+        denseIndex[slot] = size;
+        dense[size++] = slot;
+        return slot;
+    }
+
+    public void despawn(int slot) {
+        if (ids[slot] == 0) {
+            return;
+        }
+        int index = denseIndex[slot];
+        int last = dense[--size];
+        dense[index] = last;
+        denseIndex[last] = index;
+        ids[slot] = 0;
+        free[freeCount++] = slot;
+    }
+
+    public boolean isAlive(int slot) {
+        return ids[slot] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int slotAt(int index) {
+        return dense[index];
+    }
+
+    /**
+     * Id visible to clients; unlike slots, ids are never reused.
+     */
+    public int id(int slot) {
+        return ids[slot];
+    }
+
+    public EntityType type(int slot) {
+        return EntityType.of(type[slot]);
+    }
+
+    public float x(int slot) {
+        return x[slot];
+    }
+
+    public float z(int slot) {
+        return z[slot];
+    }
+
+    public int hp(int slot) {
+        return hp[slot];
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.xpakx.webrtcgame.game.sim;
+
+/**
+ * Entity kinds simulated on the server, with the constants used by the frontend's enemy classes
+ * converted from per-frame (60 fps) to per-second units.
+ */
+public enum EntityType {
+    PLAYER(0.5f, 100, 12.0f),
+    GRUNT(0.5f, 1, 3.0f),
+    SHOOTER(0.7f, 2, 2.4f),
+    PROJECTILE(0.3f, 1, 30.0f);
+
+    static final float MAX_RADIUS = 0.7f;
+    private static final EntityType[] VALUES = values();
+
+    private final float radius;
+    private final int hp;
+    private final float speed;
+
+    EntityType(float radius, int hp, float speed) {
+        this.radius = radius;
+        this.hp = hp;
+        this.speed = speed;
+    }
+
+    public float radius() {
+        return radius;
+    }
+
+    public int hp() {
+        return hp;
+    }
+
+    public float speed() {
+        return speed;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static EntityType of(byte code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,261 @@
+package io.github.xpakx.webrtcgame.game.sim;
+
+import java.util.SplittableRandom;
+
+/**
+ * Server side counterpart of the frontend's {@code Game} loop: spawns grunts and shooters around players,
+ * moves enemies and enemy projectiles, and resolves their hits on players through the spatial hash.
+ * Not thread-safe, owned by the room's tick thread.
+ */
+public class Simulation {
+    public static final int MAX_PLAYERS = 16;
+    private static final float SPAWN_INTERVAL = 3.5f;
+    private static final float SPAWN_DISTANCE = 40f;
+    private static final float SHOOTER_KEEP_DISTANCE = 15f;
+    private static final float SHOOTER_RANGE = 25f;
+    private static final float SHOT_COOLDOWN = 2f;
+    private static final float PROJECTILE_TTL = 100f / EntityType.PROJECTILE.speed();
+    private static final int PROJECTILE_DAMAGE = 10;
+    private static final int GRUNT_DAMAGE = 5;
+
+    private final EntityStore entities;
+    private final SpatialHash grid;
+    private final SplittableRandom random;
+    private final int[] players = new int[MAX_PLAYERS];
+    private final int[] candidates;
+    private int playerCount;
+    private int level = 4;
+    private float spawnTimer;
+
+    public Simulation(int capacity, float cellSize, long seed) {
+        this.entities = new EntityStore(capacity);
+        this.grid = new SpatialHash(capacity, cellSize);
+        this.random = new SplittableRandom(seed);
+        this.candidates = new int[capacity];
+    }
+
+    public EntityStore entities() {
+        return entities;
+    }
+
+    public void setLevel(int level) {
+        this.level = Math.max(1, level);
+    }
+
+    /**
+     * @return slot of the player's entity, or -1 if the room is full
+     */
+    public int addPlayer(float x, float z) {
+        if (playerCount == MAX_PLAYERS) {
+            return -1;
+        }
+        int slot = entities.spawn(EntityType.PLAYER, x, z, 0f, 0f);
+        if (slot >= 0) {
+            players[playerCount++] = slot;
+            grid.insert(slot, x, z);
+        }
+        return slot;
+    }
+
+    public void removePlayer(int slot) {
+        for (int i = 0; i < playerCount; i++) {
+            if (players[i] == slot) {
+                players[i] = players[--playerCount];
+                despawn(slot);
+                return;
+            }
+        }
+    }
+
+    public void movePlayer(int slot, float x, float z) {
+        entities.x[slot] = x;
+        entities.z[slot] = z;
+        grid.move(slot, x, z);
+    }
+
+    /**
+     * Sets the direction a player keeps moving in until the next input, components in -1..1.
+     */
+    public void setPlayerDirection(int slot, float x, float z) {
+        float length = (float) Math.sqrt(x * x + z * z);
+        float scale = length > 1f ? EntityType.PLAYER.speed() / length : EntityType.PLAYER.speed();
+        entities.vx[slot] = x * scale;
+        entities.vz[slot] = z * scale;
+    }
+
+    /**
+     * Writes slots of entities that may lie within {@code radius} of the point into {@code out},
+     * candidates still need an exact distance check.
+     * @return number of candidates written
+     */
+    public int query(float x, float z, float radius, int[] out) {
+        return grid.query(x, z, radius, out);
+    }
+
+    /**
+     * Spawns a non-player entity directly, bypassing the spawn timer.
+     * @return slot of the entity, or -1 if the store is full
+     */
+    public int spawn(EntityType type, float x, float z, float vx, float vz) {
+        int slot = entities.spawn(type, x, z, vx, vz);
+        if (slot < 0) {
+            return slot;
+        }
+        if (type == EntityType.PROJECTILE) {
+            entities.timer[slot] = PROJECTILE_TTL;
+        }
+        grid.insert(slot, x, z);
+        return slot;
+    }
+
+    /**
+     * Removes every entity except players.
+     */
+    public void clear() {
+        for (int i = entities.size() - 1; i >= 0; i--) {
+            int slot = entities.slotAt(i);
+            if (entities.type[slot] != EntityType.PLAYER.code()) {
+                despawn(slot);
+            }
+        }
+    }
+
+    public void step(float dt) {
+        spawnEnemies(dt);
+        updateEntities(dt);
+        resolvePlayerHits();
+    }
+
+    private void spawnEnemies(float dt) {
+        spawnTimer += dt;
+        if (spawnTimer < SPAWN_INTERVAL / level) {
+            return;
+        }
+        spawnTimer = 0f;
+        if (playerCount == 0) {
+            return;
+        }
+        EntityType type = random.nextDouble() < 0.3 ? EntityType.SHOOTER : EntityType.GRUNT;
+        int target = players[random.nextInt(playerCount)];
+        double angle = random.nextDouble() * Math.PI * 2;
+        spawn(type,
+                entities.x[target] + (float) Math.sin(angle) * SPAWN_DISTANCE,
+                entities.z[target] + (float) Math.cos(angle) * SPAWN_DISTANCE,
+                0f, 0f);
+    }
+
+    // iterates backwards so despawning (swap with the last live entity) doesn't skip anyone
+    private void updateEntities(float dt) {
+        for (int i = entities.size() - 1; i >= 0; i--) {
+            int slot = entities.slotAt(i);
+            switch (EntityType.of(entities.type[slot])) {
+                case GRUNT -> chase(slot, EntityType.GRUNT.speed() * dt, 0f);
+                case SHOOTER -> updateShooter(slot, dt);
+                case PROJECTILE -> updateProjectile(slot, dt);
+                case PLAYER -> movePlayer(slot,
+                        entities.x[slot] + entities.vx[slot] * dt,
+                        entities.z[slot] + entities.vz[slot] * dt);
+            }
+        }
+    }
+
+    /**
+     * @return distance to the nearest player before moving, or -1 if there are no players
+     */
+    private float chase(int slot, float step, float keepDistance) {
+        int target = nearestPlayer(entities.x[slot], entities.z[slot]);
+        if (target < 0) {
+            return -1f;
+        }
+        float dx = entities.x[target] - entities.x[slot];
+        float dz = entities.z[target] - entities.z[slot];
+        float distance = (float) Math.sqrt(dx * dx + dz * dz);
+        if (distance > keepDistance && distance > 1e-4f) {
+            entities.x[slot] += dx / distance * step;
+            entities.z[slot] += dz / distance * step;
+            grid.move(slot, entities.x[slot], entities.z[slot]);
+        }
+        return distance;
+    }
+
+    private void updateShooter(int slot, float dt) {
+        float distance = chase(slot, EntityType.SHOOTER.speed() * dt, SHOOTER_KEEP_DISTANCE);
+        entities.timer[slot] -= dt;
+        if (distance < 0 || distance >= SHOOTER_RANGE || entities.timer[slot] > 0f) {
+            return;
+        }
+        int target = nearestPlayer(entities.x[slot], entities.z[slot]);
+        float dx = entities.x[target] - entities.x[slot];
+        float dz = entities.z[target] - entities.z[slot];
+        float length = Math.max((float) Math.sqrt(dx * dx + dz * dz), 1e-4f);
+        float speed = EntityType.PROJECTILE.speed();
+        spawn(EntityType.PROJECTILE, entities.x[slot], entities.z[slot], dx / length * speed, dz / length * speed);
+        entities.timer[slot] = SHOT_COOLDOWN;
+    }
+
+    private void updateProjectile(int slot, float dt) {
+        entities.timer[slot] -= dt;
+        if (entities.timer[slot] <= 0f) {
+            despawn(slot);
+            return;
+        }
+        entities.x[slot] += entities.vx[slot] * dt;
+        entities.z[slot] += entities.vz[slot] * dt;
+        grid.move(slot, entities.x[slot], entities.z[slot]);
+    }
+
+    private void resolvePlayerHits() {
+        float queryRadius = EntityType.PLAYER.radius() + EntityType.MAX_RADIUS;
+        for (int p = 0; p < playerCount; p++) {
+            int player = players[p];
+            float px = entities.x[player];
+            float pz = entities.z[player];
+            int count = grid.query(px, pz, queryRadius, candidates);
+            for (int i = 0; i < count; i++) {
+                int slot = candidates[i];
+                EntityType type = EntityType.of(entities.type[slot]);
+                if (type == EntityType.PLAYER) {
+                    continue;
+                }
+                float reach = EntityType.PLAYER.radius() + type.radius();
+                float dx = entities.x[slot] - px;
+                float dz = entities.z[slot] - pz;
+                if (dx * dx + dz * dz >= reach * reach) {
+                    continue;
+                }
+                if (type == EntityType.PROJECTILE) {
+                    damage(player, PROJECTILE_DAMAGE);
+                    despawn(slot);
+                } else if (type == EntityType.GRUNT) {
+                    damage(player, GRUNT_DAMAGE);
+                    despawn(slot);
+                }
+            }
+        }
+    }
+
+    private int nearestPlayer(float x, float z) {
+        int nearest = -1;
+        float best = Float.MAX_VALUE;
+        for (int i = 0; i < playerCount; i++) {
+            int slot = players[i];
+            float dx = entities.x[slot] - x;
+            float dz = entities.z[slot] - z;
+            float distance = dx * dx + dz * dz;
+            if (distance < best) {
+                best = distance;
+                nearest = slot;
+            }
+        }
+        return nearest;
+    }
+
+    private void damage(int player, int points) {
+        entities.hp[player] = Math.max(0, entities.hp[player] - points);
+    }
+
+    private void despawn(int slot) {
+        grid.remove(slot);
+        entities.despawn(slot);
+    }
+}
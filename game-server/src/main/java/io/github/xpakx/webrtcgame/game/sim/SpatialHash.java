@@ -0,0 +1,115 @@
+package io.github.xpakx.webrtcgame.game.sim;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over an unbounded plane, with cells hashed into a fixed bucket table.
+ * Entities are kept in intrusive doubly linked lists stored in per-slot arrays, so moving
+ * an entity is a no-op unless it crosses a cell boundary, and no part of it allocates.
+ * Buckets may hold entities from several cells, so queries return candidates for a narrow-phase check.
+ */
+final class SpatialHash {
+    private static final int NONE = -1;
+
+    private final float inverseCellSize;
+    private final int mask;
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] bucketOf;
+    private final int[] visited;
+    private int queryStamp;
+
+    SpatialHash(int capacity, float cellSize) {
+        this.inverseCellSize = 1f / cellSize;
+        int buckets = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        this.mask = buckets - 1;
+        this.head = new int[buckets];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.bucketOf = new int[capacity];
+        this.visited = new int[capacity];
+        Arrays.fill(head, NONE);
+        Arrays.fill(bucketOf, NONE);
+    }
+
+    void insert(int slot, float x, float z) {
+        link(slot, bucket(cell(x), cell(z)));
+    }
+
+    void move(int slot, float x, float z) {
+        int bucket = bucket(cell(x), cell(z));
+        if (bucket == bucketOf[slot]) {
+            return;
+        }
+        unlink(slot);
+        link(slot, bucket);
+    }
+
+    void remove(int slot) {
+        if (bucketOf[slot] != NONE) {
+            unlink(slot);
+            bucketOf[slot] = NONE;
+        }
+    }
+
+    /**
+     * Writes slots of entities that may lie within {@code radius} of the point into {@code out}.
+     * @return number of candidates written, capped at {@code out.length}
+     */
+    int query(float x, float z, float radius, int[] out) {
+        int stamp = ++queryStamp;
+        int minX = cell(x - radius);
+        int maxX = cell(x + radius);
+        int minZ = cell(z - radius);
+        int maxZ = cell(z + radius);
+        int count = 0;
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                for (int slot = head[bucket(cx, cz)]; slot != NONE; slot = next[slot]) {
+                    if (visited[slot] == stamp) {
+                        continue;
+                    }
+                    visited[slot] = stamp;
+                    if (count == out.length) {
+                        return count;
+                    }
+                    out[count++] = slot;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private int bucket(int cx, int cz) {
+        return ((cx * 73856093) ^ (cz * 19349663)) & mask;
+    }
+
+    private void link(int slot, int bucket) {
+        int first = head[bucket];
+        next[slot] = first;
+        prev[slot] = NONE;
+        if (first != NONE) {
+            prev[first] = slot;
+        }
+        head[bucket] = slot;
+        bucketOf[slot] = bucket;
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            head[bucketOf[slot]] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bits LSB first, the counterpart of {@link BitWriter}. Reading past the end yields zeros.
+ */
+public final class BitReader {
+    private ByteBuffer buffer;
+    private long scratch;
+    private int scratchBits;
+
+    public void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.scratch = 0;
+        this.scratchBits = 0;
+    }
+
+    /**
+     * Reads {@code count} bits, at most 32, as an unsigned value.
+     */
+    public int read(int count) {
+        while (scratchBits < count) {
+            long next = buffer.hasRemaining() ? buffer.get() & 0xFF : 0;
+            scratch |= next << scratchBits;
+            scratchBits += 8;
+        }
+        int value = (int) (scratch & (0xFFFFFFFFL >>> (32 - count)));
+        scratch >>>= count;
+        scratchBits -= count;
+        return value;
+    }
+
+    public int readSigned(int count) {
+        int shift = 32 - count;
+        return (read(count) << shift) >> shift;
+    }
+
+    public boolean readBit() {
+        return read(1) == 1;
+    }
+
+    public int readVarUint() {
+        int value = 0;
+        int shift = 0;
+        int group;
+        do {
+            group = read(8);
+            value |= (group & 0x7F) << shift;
+            shift += 7;
+        } while ((group & 0x80) != 0 && shift < 35);
+        return value;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Packs bits LSB first into a fixed, reusable byte array.
+ */
+public final class BitWriter {
+    private final byte[] bytes;
+    private final ByteBuffer view;
+    private long scratch;
+    private int scratchBits;
+    private int position;
+
+    public BitWriter(int capacity) {
+        this.bytes = new byte[capacity];
+        this.view = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public void reset() {
+        scratch = 0;
+        scratchBits = 0;
+        position = 0;
+    }
+
+    /**
+     * Writes the lowest {@code count} bits of {@code value}, {@code count} at most 32.
+     */
+    public void write(int value, int count) {
+        scratch |= (value & (0xFFFFFFFFL >>> (32 - count))) << scratchBits;
+        scratchBits += count;
+        while (scratchBits >= 8) {
+            bytes[position++] = (byte) scratch;
+            scratch >>>= 8;
+            scratchBits -= 8;
+        }
+    }
+
+    public void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    public void writeVarUint(int value) {
+        while ((value & ~0x7F) != 0) {
+            write((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        write(value, 8);
+    }
+
+    /**
+     * Pads the last byte with zeros and returns a view of the written bytes, valid until the next {@link #reset()}.
+     */
+    public ByteBuffer flip() {
+        if (scratchBits > 0) {
+            bytes[position++] = (byte) scratch;
+            scratch = 0;
+            scratchBits = 0;
+        }
+        view.clear().limit(position);
+        return view;
+    }
+
+    public int bitCount() {
+        return position * 8 + scratchBits;
+    }
+}
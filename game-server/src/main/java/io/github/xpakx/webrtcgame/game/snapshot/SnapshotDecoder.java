@@ -0,0 +1,102 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat.*;
+
+/**
+ * Java counterpart of the frontend decoder, used to rebuild frames from encoded snapshots.
+ * Keeps scratch state, so an instance must not be shared between threads.
+ */
+public final class SnapshotDecoder {
+    private final BitReader reader = new BitReader();
+    private int[] removed = new int[64];
+    private int removedCount;
+    private int removedCursor;
+
+    /**
+     * @return baseline tick the encoded snapshot refers to, 0 for a full snapshot
+     */
+    public static int baselineTick(ByteBuffer payload) {
+        return payload.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt(payload.position() + 4);
+    }
+
+    /**
+     * Decodes {@code payload} into {@code out}, which must be a different frame than {@code baseline}.
+     * @throws IllegalArgumentException if the payload is a delta against a frame other than {@code baseline}
+     */
+    public void decode(ByteBuffer payload, SnapshotFrame baseline, SnapshotFrame out) {
+        reader.reset(payload.duplicate());
+        int tick = reader.read(32);
+        int baselineTick = reader.read(32);
+        boolean full = baselineTick == 0;
+        if (!full && (baseline == null || baseline.tick() != baselineTick)) {
+            throw new IllegalArgumentException("Snapshot " + tick + " needs baseline " + baselineTick);
+        }
+        readRemoved();
+        out.begin(tick);
+        int baselineCount = full ? 0 : baseline.count();
+        int b = 0;
+        int updated = reader.readVarUint();
+        int id = 0;
+        for (int i = 0; i < updated; i++) {
+            id += reader.readVarUint();
+            while (b < baselineCount && baseline.ids[b] < id) {
+                copyUnlessRemoved(baseline, b++, out);
+            }
+            if (full || reader.readBit()) {
+                byte type = (byte) reader.read(TYPE_BITS);
+                short x = (short) reader.readSigned(POSITION_BITS);
+                short z = (short) reader.readSigned(POSITION_BITS);
+                out.add(id, type, x, z, reader.read(HP_BITS));
+                continue;
+            }
+            if (b == baselineCount || baseline.ids[b] != id) {
+                throw new IllegalArgumentException("Snapshot " + tick + " updates unknown entity " + id);
+            }
+            int mask = reader.read(3);
+            short x = (mask & MASK_X) != 0 ? readCoordinate(baseline.x[b]) : baseline.x[b];
+            short z = (mask & MASK_Z) != 0 ? readCoordinate(baseline.z[b]) : baseline.z[b];
+            int hp = (mask & MASK_HP) != 0 ? reader.read(HP_BITS) : baseline.hp[b];
+            out.add(id, baseline.types[b], x, z, hp);
+            b++;
+        }
+        while (b < baselineCount) {
+            copyUnlessRemoved(baseline, b++, out);
+        }
+    }
+
+    private void readRemoved() {
+        removedCount = reader.readVarUint();
+        removedCursor = 0;
+        if (removedCount > removed.length) {
+            removed = new int[Integer.highestOneBit(removedCount) << 1];
+        }
+        int id = 0;
+        for (int i = 0; i < removedCount; i++) {
+            id += reader.readVarUint();
+            removed[i] = id;
+        }
+    }
+
+    // both lists are sorted by id, so the removed cursor only moves forward
+    private void copyUnlessRemoved(SnapshotFrame baseline, int index, SnapshotFrame out) {
+        int id = baseline.ids[index];
+        while (removedCursor < removedCount && removed[removedCursor] < id) {
+            removedCursor++;
+        }
+        if (removedCursor < removedCount && removed[removedCursor] == id) {
+            return;
+        }
+        out.add(id, baseline.types[index], baseline.x[index], baseline.z[index], baseline.hp[index]);
+    }
+
+    private short readCoordinate(short base) {
+        if (!reader.readBit()) {
+            return (short) reader.readSigned(POSITION_BITS);
+        }
+        int zigzag = reader.read(SMALL_DELTA_BITS);
+        return (short) (base + ((zigzag >>> 1) ^ -(zigzag & 1)));
+    }
+}
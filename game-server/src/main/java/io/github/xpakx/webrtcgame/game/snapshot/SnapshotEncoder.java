@@ -0,0 +1,148 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import static io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat.*;
+
+/**
+ * Encodes a frame as a full snapshot or as a delta against an older frame the client already has,
+ * see {@link SnapshotFormat} for the layout.
+ */
+public final class SnapshotEncoder {
+    private static final int SMALL_DELTA_LIMIT = 1 << SMALL_DELTA_BITS;
+
+    private SnapshotEncoder() {
+    }
+
+    /**
+     * @param baseline frame acknowledged by the client, or null to send everything
+     * @return number of entities whose state was written
+     */
+    public static int encode(SnapshotFrame current, SnapshotFrame baseline, BitWriter out) {
+        out.write(current.tick(), 32);
+        if (baseline == null) {
+            out.write(0, 32);
+            encodeFull(current, out);
+            return current.count();
+        }
+        out.write(baseline.tick(), 32);
+        encodeRemoved(current, baseline, out);
+        return encodeUpdated(current, baseline, out);
+    }
+
+    private static void encodeFull(SnapshotFrame current, BitWriter out) {
+        out.writeVarUint(0);
+        out.writeVarUint(current.count());
+        int previousId = 0;
+        for (int i = 0; i < current.count(); i++) {
+            out.writeVarUint(current.ids[i] - previousId);
+            previousId = current.ids[i];
+            writeEntity(current, i, out);
+        }
+    }
+
+    private static void encodeRemoved(SnapshotFrame current, SnapshotFrame baseline, BitWriter out) {
+        int removed = 0;
+        int c = 0;
+        for (int b = 0; b < baseline.count(); b++) {
+            c = seek(current, c, baseline.ids[b]);
+            if (c == current.count() || current.ids[c] != baseline.ids[b]) {
+                removed++;
+            }
+        }
+        out.writeVarUint(removed);
+        if (removed == 0) {
+            return;
+        }
+        int previousId = 0;
+        c = 0;
+        for (int b = 0; b < baseline.count(); b++) {
+            int id = baseline.ids[b];
+            c = seek(current, c, id);
+            if (c == current.count() || current.ids[c] != id) {
+                out.writeVarUint(id - previousId);
+                previousId = id;
+            }
+        }
+    }
+
+    private static int encodeUpdated(SnapshotFrame current, SnapshotFrame baseline, BitWriter out) {
+        int updated = 0;
+        int b = 0;
+        for (int c = 0; c < current.count(); c++) {
+            b = seek(baseline, b, current.ids[c]);
+            if (b == baseline.count() || baseline.ids[b] != current.ids[c] || changes(current, c, baseline, b) != 0) {
+                updated++;
+            }
+        }
+        out.writeVarUint(updated);
+        int previousId = 0;
+        b = 0;
+        for (int c = 0; c < current.count(); c++) {
+            int id = current.ids[c];
+            b = seek(baseline, b, id);
+            boolean isNew = b == baseline.count() || baseline.ids[b] != id;
+            int mask = isNew ? 0 : changes(current, c, baseline, b);
+            if (!isNew && mask == 0) {
+                continue;
+            }
+            out.writeVarUint(id - previousId);
+            previousId = id;
+            out.writeBit(isNew);
+            if (isNew) {
+                writeEntity(current, c, out);
+                continue;
+            }
+            out.write(mask, 3);
+            if ((mask & MASK_X) != 0) {
+                writeCoordinate(current.x[c], baseline.x[b], out);
+            }
+            if ((mask & MASK_Z) != 0) {
+                writeCoordinate(current.z[c], baseline.z[b], out);
+            }
+            if ((mask & MASK_HP) != 0) {
+                out.write(current.hp[c], HP_BITS);
+            }
+        }
+        return updated;
+    }
+
+    private static int changes(SnapshotFrame current, int c, SnapshotFrame baseline, int b) {
+        int mask = 0;
+        if (current.x[c] != baseline.x[b]) {
+            mask |= MASK_X;
+        }
+        if (current.z[c] != baseline.z[b]) {
+            mask |= MASK_Z;
+        }
+        if (current.hp[c] != baseline.hp[b]) {
+            mask |= MASK_HP;
+        }
+        return mask;
+    }
+
+    private static void writeEntity(SnapshotFrame frame, int index, BitWriter out) {
+        out.write(frame.types[index], TYPE_BITS);
+        out.write(frame.x[index], POSITION_BITS);
+        out.write(frame.z[index], POSITION_BITS);
+        out.write(frame.hp[index], HP_BITS);
+    }
+
+    private static void writeCoordinate(short value, short base, BitWriter out) {
+        int delta = value - base;
+        int zigzag = (delta << 1) ^ (delta >> 31);
+        if (zigzag < SMALL_DELTA_LIMIT) {
+            out.writeBit(true);
+            out.write(zigzag, SMALL_DELTA_BITS);
+        } else {
+            out.writeBit(false);
+            out.write(value, POSITION_BITS);
+        }
+    }
+
+    // ids are sorted, so the cursor only moves forward
+    private static int seek(SnapshotFrame frame, int from, int id) {
+        while (from < frame.count() && frame.ids[from] < id) {
+            from++;
+        }
+        return from;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+/**
+ * Wire constants shared with {@code frontend/src/snapshot/snapshot-decoder.ts}; both sides must change together.
+ *
+ * <p>Snapshots are bit-packed LSB first, so the leading 32-bit fields read as little-endian integers:
+ * <pre>
+ * u32      tick
+ * u32      baseline tick, 0 for a full snapshot
+ * varuint  removed count, then for each removed entity: varuint id gap
+ * varuint  updated count, then for each updated entity: varuint id gap, followed by
+ *            delta only: 1 bit new entity
+ *            new entity: TYPE_BITS type, POSITION_BITS x, POSITION_BITS z, HP_BITS hp
+ *            otherwise:  3 bit mask (x, z, hp), each changed coordinate as 1 bit small flag and
+ *                        SMALL_DELTA_BITS zigzag delta or POSITION_BITS absolute value, hp as HP_BITS
+ * </pre>
+ * Id gaps are relative to the previous id in the same list, starting at 0. Varuints are 7-bit groups
+ * with a continuation bit. Positions are signed fixed point with {@link #POSITION_SCALE} steps per unit.
+ */
+public final class SnapshotFormat {
+    public static final int POSITION_SCALE = 32;
+    public static final int POSITION_BITS = 16;
+    public static final int SMALL_DELTA_BITS = 7;
+    public static final int TYPE_BITS = 3;
+    public static final int HP_BITS = 8;
+
+    public static final int MASK_X = 1;
+    public static final int MASK_Z = 2;
+    public static final int MASK_HP = 4;
+
+    /** Client to server: u8 message type, u32 little-endian tick of the newest snapshot it decoded. */
+    public static final byte ACK_MESSAGE = 1;
+
+    private static final int MAX_VARUINT_BITS = 40;
+    private static final int NEW_ENTITY_BITS = TYPE_BITS + 2 * POSITION_BITS + HP_BITS;
+    private static final int CHANGED_ENTITY_BITS = 3 + 2 * (1 + Math.max(SMALL_DELTA_BITS, POSITION_BITS)) + HP_BITS;
+    private static final int MAX_ENTITY_BITS = MAX_VARUINT_BITS + 1 + Math.max(NEW_ENTITY_BITS, CHANGED_ENTITY_BITS);
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Upper bound of an encoded snapshot when both the baseline and the current frame hold {@code entities}.
+     */
+    public static int maxEncodedSize(int entities) {
+        long bits = 2L * Integer.SIZE + 2L * MAX_VARUINT_BITS
+                + (long) entities * MAX_VARUINT_BITS
+                + (long) entities * MAX_ENTITY_BITS;
+        return (int) ((bits + 7) / 8);
+    }
+
+    public static short quantize(float coordinate) {
+        int value = Math.round(coordinate * POSITION_SCALE);
+        return (short) Math.clamp(value, Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+}
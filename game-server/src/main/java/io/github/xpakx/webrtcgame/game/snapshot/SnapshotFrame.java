@@ -0,0 +1,143 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import io.github.xpakx.webrtcgame.game.sim.EntityStore;
+
+import java.util.Arrays;
+
+/**
+ * Quantized state of every entity at one tick, sorted by id so two frames can be diffed in a single merge pass.
+ * Arrays only grow, so once a frame has seen the room's peak entity count recording into it doesn't allocate.
+ */
+public final class SnapshotFrame {
+    private int tick;
+    private int count;
+    int[] ids;
+    byte[] types;
+    short[] x;
+    short[] z;
+    int[] hp;
+    private int[] slots;
+    private long[] order;
+
+    public SnapshotFrame(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 16));
+    }
+
+    public void capture(int tick, EntityStore entities) {
+        this.tick = tick;
+        this.count = entities.size();
+        if (count > ids.length) {
+            allocate(Integer.highestOneBit(count) << 1);
+        }
+        for (int i = 0; i < count; i++) {
+            int slot = entities.slotAt(i);
+            order[i] = ((long) entities.id(slot) << 32) | slot;
+        }
+        Arrays.sort(order, 0, count);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) order[i];
+            slots[i] = slot;
+            ids[i] = (int) (order[i] >>> 32);
+            types[i] = entities.type(slot).code();
+            x[i] = SnapshotFormat.quantize(entities.x(slot));
+            z[i] = SnapshotFormat.quantize(entities.z(slot));
+            hp[i] = Math.clamp(entities.hp(slot), 0, (1 << SnapshotFormat.HP_BITS) - 1);
+        }
+    }
+
+    /**
+     * Starts a frame filled entry by entry with {@link #append}, in increasing id order.
+     */
+    public void begin(int tick) {
+        this.tick = tick;
+        this.count = 0;
+    }
+
+    /**
+     * Appends entry {@code index} of {@code source}; if {@code state} is a different frame,
+     * the position and hp are taken from its entry {@code stateIndex} instead.
+     */
+    public void append(SnapshotFrame source, int index, SnapshotFrame state, int stateIndex) {
+        if (count == ids.length) {
+            grow(count << 1);
+        }
+        ids[count] = source.ids[index];
+        types[count] = source.types[index];
+        slots[count] = source.slots[index];
+        x[count] = state.x[stateIndex];
+        z[count] = state.z[stateIndex];
+        hp[count] = state.hp[stateIndex];
+        count++;
+    }
+
+    void add(int id, byte type, short posX, short posZ, int health) {
+        if (count == ids.length) {
+            grow(count << 1);
+        }
+        ids[count] = id;
+        types[count] = type;
+        slots[count] = -1;
+        x[count] = posX;
+        z[count] = posZ;
+        hp[count] = health;
+        count++;
+    }
+
+    public int tick() {
+        return tick;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int id(int index) {
+        return ids[index];
+    }
+
+    public byte type(int index) {
+        return types[index];
+    }
+
+    /**
+     * Quantized, see {@link SnapshotFormat#POSITION_SCALE}.
+     */
+    public short x(int index) {
+        return x[index];
+    }
+
+    public short z(int index) {
+        return z[index];
+    }
+
+    public int hp(int index) {
+        return hp[index];
+    }
+
+    /**
+     * Entity store slot the entry was captured from, valid only during the tick it was recorded in.
+     */
+    public int slot(int index) {
+        return slots[index];
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        types = new byte[capacity];
+        x = new short[capacity];
+        z = new short[capacity];
+        hp = new int[capacity];
+        slots = new int[capacity];
+        order = new long[capacity];
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        x = Arrays.copyOf(x, capacity);
+        z = Arrays.copyOf(z, capacity);
+        hp = Arrays.copyOf(hp, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+}
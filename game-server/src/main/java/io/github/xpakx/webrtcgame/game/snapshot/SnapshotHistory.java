@@ -0,0 +1,46 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import io.github.xpakx.webrtcgame.game.sim.EntityStore;
+
+/**
+ * Ring of the most recent frames, used as delta baselines for client acknowledged ticks.
+ */
+public final class SnapshotHistory {
+    private final SnapshotFrame[] frames;
+    private final int mask;
+
+    public SnapshotHistory(int size, int initialEntities) {
+        int capacity = Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+        this.frames = new SnapshotFrame[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = new SnapshotFrame(initialEntities);
+        }
+    }
+
+    public SnapshotFrame record(int tick, EntityStore entities) {
+        SnapshotFrame frame = frames[tick & mask];
+        frame.capture(tick, entities);
+        return frame;
+    }
+
+    /**
+     * @return frame to be filled for {@code tick}, replacing the oldest one
+     */
+    public SnapshotFrame next(int tick) {
+        SnapshotFrame frame = frames[tick & mask];
+        frame.begin(tick);
+        return frame;
+    }
+
+    /**
+     * @return frame recorded at {@code tick}, or null if it was never recorded or is already overwritten
+     */
+    public SnapshotFrame get(int tick) {
+        if (tick <= 0) {
+            return null;
+        }
+        SnapshotFrame frame = frames[tick & mask];
+        return frame.tick() == tick ? frame : null;
+    }
+}
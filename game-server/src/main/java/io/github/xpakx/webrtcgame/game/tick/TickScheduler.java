@@ -0,0 +1,64 @@
+package io.github.xpakx.webrtcgame.game.tick;
+
+import io.github.xpakx.webrtcgame.game.room.Room;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreads rooms over a small, fixed set of platform threads, each ticking many rooms.
+ */
+@Component
+public class TickScheduler {
+    private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+
+    private final List<TickWorker> workers = new ArrayList<>();
+    private final ConcurrentHashMap<String, TickWorker> assignments = new ConcurrentHashMap<>();
+
+    public TickScheduler(
+            @Value("${game.tick-rate:60}") int tickRate,
+            @Value("${game.tick.threads:0}") int threads,
+            @Value("${game.tick.max-catch-up:5}") int maxCatchUpTicks,
+            MeterRegistry registry) {
+        int count = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        long periodNanos = 1_000_000_000L / tickRate;
+        for (int i = 0; i < count; i++) {
+            TickWorker worker = new TickWorker(periodNanos, maxCatchUpTicks, registry);
+            Thread thread = Thread.ofPlatform()
+                    .name("tick-worker-" + i)
+                    .daemon(true)
+                    .unstarted(worker);
+            worker.start(thread);
+            workers.add(worker);
+        }
+    }
+
+    public void schedule(Room room) {
+        TickWorker worker = workers.stream()
+                .min(Comparator.comparingInt(TickWorker::roomCount))
+                .orElseThrow();
+        assignments.put(room.getId(), worker);
+        worker.add(room);
+    }
+
+    public void unschedule(Room room) {
+        TickWorker worker = assignments.remove(room.getId());
+        if (worker != null) {
+            worker.remove(room);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        workers.forEach(TickWorker::stop);
+        for (TickWorker worker : workers) {
+            worker.awaitTermination(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.xpakx.webrtcgame.game.tick;
+
+import io.github.xpakx.webrtcgame.game.room.Room;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed timestep loop for a group of rooms. Each room's deadlines are computed from its start time
+ * rather than from when the previous tick finished, so sleep jitter doesn't accumulate into drift.
+ * A room that falls behind runs at most {@code maxCatchUpTicks} ticks in a row, the rest are skipped.
+ */
+class TickWorker implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(TickWorker.class);
+
+    private final long periodNanos;
+    private final int maxCatchUpTicks;
+    private final MeterRegistry registry;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger roomCount = new AtomicInteger();
+    private final List<ScheduledRoom> rooms = new ArrayList<>();
+    private volatile boolean running = true;
+    private Thread thread;
+
+    TickWorker(long periodNanos, int maxCatchUpTicks, MeterRegistry registry) {
+        this.periodNanos = periodNanos;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.registry = registry;
+    }
+
+    void start(Thread thread) {
+        this.thread = thread;
+        thread.start();
+    }
+
+    int roomCount() {
+        return roomCount.get();
+    }
+
+    void add(Room room) {
+        roomCount.incrementAndGet();
+        submit(() -> rooms.add(new ScheduledRoom(room, System.nanoTime())));
+    }
+
+    void remove(Room room) {
+        roomCount.decrementAndGet();
+        submit(() -> rooms.removeIf((scheduled) -> {
+            if (scheduled.room != room) {
+                return false;
+            }
+            registry.remove(scheduled.tickTimer);
+            registry.remove(scheduled.skippedTicks);
+            room.close();
+            return true;
+        }));
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    void awaitTermination(long millis) throws InterruptedException {
+        thread.join(millis);
+    }
+
+    private void submit(Runnable command) {
+        commands.add(command);
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+            long nextDeadline = System.nanoTime() + periodNanos;
+            for (int i = 0; i < rooms.size(); i++) {
+                ScheduledRoom room = rooms.get(i);
+                runDueTicks(room);
+                nextDeadline = Math.min(nextDeadline, room.nextTickAt);
+            }
+            long sleep = nextDeadline - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+        for (ScheduledRoom scheduled : rooms) {
+            scheduled.room.close();
+        }
+    }
+
+    private void runDueTicks(ScheduledRoom scheduled) {
+        long now = System.nanoTime();
+        int ticks = 0;
+        while (scheduled.nextTickAt <= now && ticks < maxCatchUpTicks) {
+            long start = System.nanoTime();
+            try {
+                scheduled.room.tick();
+            } catch (RuntimeException e) {
+                logger.error("Tick failed in room {}", scheduled.room.getId(), e);
+            }
+            now = System.nanoTime();
+            scheduled.tickTimer.record(now - start, TimeUnit.NANOSECONDS);
+            scheduled.nextTickAt += periodNanos;
+            ticks++;
+        }
+        if (scheduled.nextTickAt <= now) {
+            long missed = (now - scheduled.nextTickAt) / periodNanos + 1;
+            scheduled.nextTickAt += missed * periodNanos;
+            scheduled.skippedTicks.increment(missed);
+        }
+    }
+
+    private class ScheduledRoom {
+        private final Room room;
+        private final Timer tickTimer;
+        private final Counter skippedTicks;
+        private long nextTickAt;
+
+        ScheduledRoom(Room room, long startAt) {
+            this.room = room;
+            this.nextTickAt = startAt;
+            this.tickTimer = Timer.builder("game.room.tick.duration")
+                    .tag("room", room.getId())
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.skippedTicks = Counter.builder("game.room.ticks.skipped")
+                    .tag("room", room.getId())
+                    .register(registry);
+        }
+    }
+}
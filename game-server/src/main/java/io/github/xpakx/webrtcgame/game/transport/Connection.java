@@ -0,0 +1,20 @@
+package io.github.xpakx.webrtcgame.game.transport;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Player's link to a room, independent of the transport carrying it.
+ */
+public interface Connection {
+    String id();
+
+    boolean isOpen();
+
+    /**
+     * Called from the tick thread. The payload buffer is reused on the next tick,
+     * so implementations that send asynchronously must copy it before returning.
+     */
+    void send(ByteBuffer payload);
+
+    void close();
+}
@@ -0,0 +1,71 @@
+package io.github.xpakx.webrtcgame.game.transport;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes blocking writes off the tick thread. Payloads wait in a bounded queue and are written by at most
+ * one sender task at a time; when a slow client lets the queue fill up, its oldest snapshot is dropped.
+ * Snapshots are deltas against the newest acknowledged one, so the client can still decode whatever arrives.
+ */
+public final class QueuedConnection implements Connection {
+    private final Connection connection;
+    private final ArrayBlockingQueue<byte[]> outbound;
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final Executor executor;
+    private final Runnable drain = this::drain;
+    private final Runnable onDrop;
+
+    /**
+     * @param onDrop called on the tick thread for every payload dropped
+     */
+    public QueuedConnection(Connection connection, int capacity, Executor executor, Runnable onDrop) {
+        this.connection = connection;
+        this.outbound = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.executor = executor;
+        this.onDrop = onDrop;
+    }
+
+    @Override
+    public String id() {
+        return connection.id();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return connection.isOpen();
+    }
+
+    @Override
+    public void send(ByteBuffer payload) {
+        byte[] copy = new byte[payload.remaining()];
+        payload.get(copy);
+        while (!outbound.offer(copy)) {
+            if (outbound.poll() != null) {
+                onDrop.run();
+            }
+        }
+        if (sending.compareAndSet(false, true)) {
+            executor.execute(drain);
+        }
+    }
+
+    @Override
+    public void close() {
+        outbound.clear();
+        connection.close();
+    }
+
+    private void drain() {
+        do {
+            byte[] payload;
+            while (connection.isOpen() && (payload = outbound.poll()) != null) {
+                connection.send(ByteBuffer.wrap(payload));
+            }
+            sending.set(false);
+            // a payload offered after the last poll but before the flag was cleared has no sender yet
+        } while (connection.isOpen() && !outbound.isEmpty() && sending.compareAndSet(false, true));
+    }
+}
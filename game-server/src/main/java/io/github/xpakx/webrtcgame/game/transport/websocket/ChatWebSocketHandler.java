@@ -0,0 +1,112 @@
+package io.github.xpakx.webrtcgame.game.transport.websocket;
+
+import io.github.xpakx.webrtcgame.game.chat.ChatFormat;
+import io.github.xpakx.webrtcgame.game.chat.ChatMember;
+import io.github.xpakx.webrtcgame.game.chat.ChatRegistry;
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import io.github.xpakx.webrtcgame.verifier.TokenVerifier;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary WebSocket transport for room chat at {@code /ws/chat?room=<id>}, framed as described in {@link ChatFormat}.
+ * The access token travels in the first message rather than the URL, the same way a WebRTC data channel would carry it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatWebSocketHandler extends BinaryWebSocketHandler {
+    private static final String CONNECTION = "connection";
+    private static final String MEMBER = "member";
+    private static final String ROOM = "room";
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int BUFFER_SIZE_LIMIT = 64 * 1024;
+    private static final int MAX_TOKEN_LENGTH = 4096;
+    private static final byte[] UNAUTHORIZED = {ChatFormat.NOTICE_MESSAGE, ChatFormat.UNAUTHORIZED};
+
+    private final ChatRegistry chat;
+    private final TokenVerifier verifier;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // chat members have their own bounded queue and a single sender, so the buffer only absorbs notices
+        WebSocketSession concurrentSession = new ConcurrentWebSocketSessionDecorator(
+                session,
+                SEND_TIME_LIMIT_MS,
+                BUFFER_SIZE_LIMIT,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE
+        );
+        session.getAttributes().put(CONNECTION, new WebSocketConnection(concurrentSession));
+        String roomId = RoomIdParameter.from(session);
+        if (roomId == null) {
+            closeQuietly(session, CloseStatus.BAD_DATA);
+            return;
+        }
+        session.getAttributes().put(ROOM, roomId);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        ByteBuffer payload = message.getPayload().order(ByteOrder.LITTLE_ENDIAN);
+        if (payload.remaining() < 3) {
+            return;
+        }
+        Connection connection = (Connection) session.getAttributes().get(CONNECTION);
+        ChatMember member = (ChatMember) session.getAttributes().get(MEMBER);
+        String roomId = (String) session.getAttributes().get(ROOM);
+        if (roomId == null) {
+            return;
+        }
+        byte type = payload.get();
+        int length = payload.getShort() & 0xFFFF;
+        if (length != payload.remaining()) {
+            return;
+        }
+        if (type == ChatFormat.AUTH_MESSAGE && member == null) {
+            authenticate(session, connection, roomId, payload);
+        } else if (type == ChatFormat.SEND_MESSAGE && member != null) {
+            chat.post(roomId, member, payload);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        ChatMember member = (ChatMember) session.getAttributes().get(MEMBER);
+        String roomId = (String) session.getAttributes().get(ROOM);
+        if (member != null && roomId != null) {
+            chat.leave(roomId, member);
+        }
+    }
+
+    private void authenticate(WebSocketSession session, Connection connection, String roomId, ByteBuffer payload) {
+        String username;
+        try {
+            if (payload.remaining() > MAX_TOKEN_LENGTH) {
+                throw new JwtException("Token too long");
+            }
+            username = verifier.verify(StandardCharsets.US_ASCII.decode(payload).toString()).username();
+        } catch (JwtException | IllegalArgumentException e) {
+            connection.send(ByteBuffer.wrap(UNAUTHORIZED));
+            closeQuietly(session, CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        session.getAttributes().put(MEMBER, chat.join(roomId, connection, username));
+    }
+
+    private void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.xpakx.webrtcgame.game.transport.websocket;
+
+import io.github.xpakx.webrtcgame.game.chat.ChatFormat;
+import io.github.xpakx.webrtcgame.game.input.InputFormat;
+import io.github.xpakx.webrtcgame.game.room.RoomRegistry;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat;
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import io.github.xpakx.webrtcgame.game.transport.QueuedConnection;
+import io.github.xpakx.webrtcgame.verifier.TokenVerifier;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Binary WebSocket transport, mainly for running rooms locally without WebRTC.
+ * Clients connect to {@code /ws/game?room=<id>}, receive encoded snapshots and acknowledge them as described in
+ * {@link SnapshotFormat}. The first message must carry an access token framed like the chat's
+ * {@link ChatFormat#AUTH_MESSAGE}; the player joins the room as that account once it verifies.
+ */
+@Component
+public class GameWebSocketHandler extends BinaryWebSocketHandler {
+    private static final String CONNECTION = "connection";
+    private static final String ROOM = "room";
+    private static final String JOINED = "joined";
+    private static final int SEND_TIME_LIMIT_MS = 1000;
+    private static final int BUFFER_SIZE_LIMIT = 64 * 1024;
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    private final RoomRegistry rooms;
+    private final TokenVerifier verifier;
+    private final int outboundCapacity;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter droppedSnapshots;
+
+    public GameWebSocketHandler(
+            RoomRegistry rooms,
+            TokenVerifier verifier,
+            @Value("${game.snapshot.outbound-queue-size:4}") int outboundCapacity,
+            MeterRegistry registry) {
+        this.rooms = rooms;
+        this.verifier = verifier;
+        this.outboundCapacity = outboundCapacity;
+        this.droppedSnapshots = Counter.builder("game.snapshots.dropped")
+                .description("Snapshots dropped because the client's outbound queue was full")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdown();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // snapshots are written by the connection's own sender, the tick thread only queues them
+        WebSocketSession concurrentSession = new ConcurrentWebSocketSessionDecorator(
+                session,
+                SEND_TIME_LIMIT_MS,
+                BUFFER_SIZE_LIMIT,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE
+        );
+        Connection connection = new QueuedConnection(
+                new WebSocketConnection(concurrentSession),
+                outboundCapacity,
+                senders,
+                droppedSnapshots::increment
+        );
+        session.getAttributes().put(CONNECTION, connection);
+        String roomId = RoomIdParameter.from(session);
+        if (roomId == null) {
+            closeQuietly(session, CloseStatus.BAD_DATA);
+            return;
+        }
+        session.getAttributes().put(ROOM, roomId);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        ByteBuffer payload = message.getPayload().order(ByteOrder.LITTLE_ENDIAN);
+        Connection connection = (Connection) session.getAttributes().get(CONNECTION);
+        String roomId = (String) session.getAttributes().get(ROOM);
+        if (roomId == null) {
+            return;
+        }
+        if (!session.getAttributes().containsKey(JOINED)) {
+            authenticate(session, connection, roomId, payload);
+            return;
+        }
+        if (payload.remaining() < 5) {
+            return;
+        }
+        byte type = payload.get();
+        if (type == SnapshotFormat.ACK_MESSAGE) {
+            rooms.acknowledge(roomId, connection, payload.getInt());
+        } else if (type == InputFormat.INPUT_MESSAGE && payload.remaining() >= InputFormat.INPUT_MESSAGE_SIZE - 1) {
+            rooms.offerInput(roomId, connection, payload.getInt(), payload.get(), payload.get(), payload.get() & 0xFF);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = (Connection) session.getAttributes().get(CONNECTION);
+        String roomId = (String) session.getAttributes().get(ROOM);
+        if (session.getAttributes().containsKey(JOINED) && connection != null && roomId != null) {
+            rooms.leave(roomId, connection);
+        }
+    }
+
+    private void authenticate(WebSocketSession session, Connection connection, String roomId, ByteBuffer payload) {
+        String username;
+        try {
+            if (payload.remaining() < 3 || payload.get() != ChatFormat.AUTH_MESSAGE) {
+                throw new JwtException("Expected access token");
+            }
+            int length = payload.getShort() & 0xFFFF;
+            if (length != payload.remaining() || length > MAX_TOKEN_LENGTH) {
+                throw new JwtException("Malformed access token");
+            }
+            username = verifier.verify(StandardCharsets.US_ASCII.decode(payload).toString()).username();
+        } catch (JwtException | IllegalArgumentException e) {
+            closeQuietly(session, CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        session.getAttributes().put(JOINED, Boolean.TRUE);
+        rooms.join(roomId, connection, username);
+    }
+
+    private void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException ignored) {
+        }
+    }
+}
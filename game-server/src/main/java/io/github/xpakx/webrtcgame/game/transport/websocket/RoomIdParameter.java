@@ -0,0 +1,36 @@
+package io.github.xpakx.webrtcgame.game.transport.websocket;
+
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reads the {@code room} query parameter. Room ids end up in match results, whose room column holds 64 characters,
+ * and in replay file names, so anything longer or outside {@code [A-Za-z0-9_-]} is refused.
+ */
+final class RoomIdParameter {
+    static final String DEFAULT = "default";
+    static final int MAX_LENGTH = 64;
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9_-]{1," + MAX_LENGTH + "}");
+
+    private RoomIdParameter() {
+    }
+
+    /**
+     * @return room id, {@link #DEFAULT} if none was given, or null if the given one is invalid
+     */
+    static String from(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return DEFAULT;
+        }
+        String room = UriComponentsBuilder.fromUri(session.getUri())
+                .build()
+                .getQueryParams()
+                .getFirst("room");
+        if (room == null || room.isEmpty()) {
+            return DEFAULT;
+        }
+        return VALID.matcher(room).matches() ? room : null;
+    }
+}
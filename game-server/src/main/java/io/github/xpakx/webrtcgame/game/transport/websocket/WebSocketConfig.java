@@ -0,0 +1,27 @@
+package io.github.xpakx.webrtcgame.game.transport.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final GameWebSocketHandler gameHandler;
+    private final ChatWebSocketHandler chatHandler;
+
+    @Value("${frontend.url}")
+    private String frontend;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(gameHandler, "/ws/game")
+                .setAllowedOrigins(frontend);
+        registry.addHandler(chatHandler, "/ws/chat")
+                .setAllowedOrigins(frontend);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.xpakx.webrtcgame.game.transport.websocket;
+
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+class WebSocketConnection implements Connection {
+    private final WebSocketSession session;
+
+    WebSocketConnection(WebSocketSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public String id() {
+        return session.getId();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+
+    @Override
+    public void send(ByteBuffer payload) {
+        byte[] copy = new byte[payload.remaining()];
+        payload.get(copy);
+        try {
+            session.sendMessage(new BinaryMessage(copy));
+        } catch (IOException | IllegalStateException e) {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ignored) {
+        }
+    }
+}
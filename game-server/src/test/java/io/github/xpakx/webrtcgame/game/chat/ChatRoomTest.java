@@ -0,0 +1,142 @@
+package io.github.xpakx.webrtcgame.game.chat;
+
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRoomTest {
+    private final Counter dropped = new SimpleMeterRegistry().counter("game.chat.members.dropped");
+
+    @Test
+    void shouldSendMessagesPostedBetweenFlushesAsOneBatch() {
+        ChatRoom room = new ChatRoom("room", new ChatSettings(50, 8, 64, 16), Runnable::run, dropped);
+        RecordingConnection alice = new RecordingConnection();
+        RecordingConnection bob = new RecordingConnection();
+        ChatMember sender = room.join(alice, "alice");
+        room.join(bob, "bob");
+
+        room.post(sender, text("hi"));
+        room.post(sender, text("glhf"));
+        room.post(sender, text("żółw"));
+        assertThat(room.flush()).isEqualTo(3);
+        assertThat(room.flush()).isZero();
+
+        assertThat(bob.frames).hasSize(2);
+        assertThat(bob.frames.get(0)).containsExactly(ChatFormat.NOTICE_MESSAGE, ChatFormat.AUTHENTICATED);
+        assertThat(decode(bob.frames.get(1))).containsExactly("1 alice: hi", "2 alice: glhf", "3 alice: żółw");
+    }
+
+    @Test
+    void shouldReplayNewestMessagesToLateJoiners() {
+        ChatRoom room = new ChatRoom("room", new ChatSettings(2, 8, 64, 16), Runnable::run, dropped);
+        ChatMember sender = room.join(new RecordingConnection(), "alice");
+        for (String message : List.of("one", "two", "three")) {
+            room.post(sender, text(message));
+            room.flush();
+        }
+
+        RecordingConnection late = new RecordingConnection();
+        room.join(late, "bob");
+        room.post(sender, text("four"));
+        room.flush();
+
+        assertThat(late.frames).hasSize(3);
+        assertThat(decode(late.frames.get(1))).containsExactly("2 alice: two", "3 alice: three");
+        assertThat(decode(late.frames.get(2))).containsExactly("4 alice: four");
+    }
+
+    @Test
+    void shouldDisconnectMemberWhoseQueueIsFull() {
+        List<Runnable> stalled = new ArrayList<>();
+        ChatRoom room = new ChatRoom("room", new ChatSettings(50, 2, 64, 16), stalled::add, dropped);
+        RecordingConnection slow = new RecordingConnection();
+        ChatMember sender = room.join(slow, "alice");
+
+        room.post(sender, text("first"));
+        room.flush();
+        room.post(sender, text("second"));
+        room.flush();
+
+        assertThat(room.isEmpty()).isTrue();
+        assertThat(dropped.count()).isEqualTo(1);
+        stalled.forEach(Runnable::run);
+        assertThat(slow.frames).last().isEqualTo(new byte[]{ChatFormat.NOTICE_MESSAGE, ChatFormat.TOO_SLOW});
+        assertThat(slow.closed).isTrue();
+    }
+
+    @Test
+    void shouldRejectEmptyTooLongAndExcessMessages() {
+        ChatRoom room = new ChatRoom("room", new ChatSettings(50, 8, 4, 2), Runnable::run, dropped);
+        ChatMember sender = room.join(new RecordingConnection(), "alice");
+
+        assertThat(room.post(sender, text(""))).isFalse();
+        assertThat(room.post(sender, text("hello"))).isFalse();
+        assertThat(room.post(sender, text("hi"))).isTrue();
+        assertThat(room.post(sender, text("yo"))).isTrue();
+        assertThat(room.post(sender, text("ok"))).isFalse();
+        room.flush();
+        assertThat(room.post(sender, text("ok"))).isTrue();
+    }
+
+    private ByteBuffer text(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> decode(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(buffer.get()).isEqualTo(ChatFormat.BATCH_MESSAGE);
+        int count = buffer.getShort() & 0xFFFF;
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int sequence = buffer.getInt();
+            buffer.getLong();
+            String sender = string(buffer, buffer.get() & 0xFF);
+            String text = string(buffer, buffer.getShort() & 0xFFFF);
+            entries.add(sequence + " " + sender + ": " + text);
+        }
+        assertThat(buffer.hasRemaining()).isFalse();
+        return entries;
+    }
+
+    private String string(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class RecordingConnection implements Connection {
+        private final List<byte[]> frames = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public String id() {
+            return "connection";
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+
+        @Override
+        public void send(ByteBuffer payload) {
+            byte[] frame = new byte[payload.remaining()];
+            payload.get(frame);
+            frames.add(frame);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.xpakx.webrtcgame.game.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InputRingTest {
+    private static final int PRODUCERS = 16;
+    private static final int INPUTS_PER_PRODUCER = 50_000;
+    private static final long BACKOFF_NANOS = 10_000;
+
+    @Test
+    void shouldDeliverEveryInputOnceAndInProducerOrder() throws InterruptedException {
+        InputRing<Integer> ring = new InputRing<>(256);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            Integer producer = p;
+            producers.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                for (int sequence = 1; sequence <= INPUTS_PER_PRODUCER; sequence++) {
+                    while (!ring.offer(producer, sequence, (byte) 1, (byte) -1, sequence & 0xFF)) {
+                        LockSupport.parkNanos(BACKOFF_NANOS);
+                    }
+                }
+            }));
+        }
+
+        int[] lastSequence = new int[PRODUCERS];
+        AtomicInteger outOfOrder = new AtomicInteger();
+        AtomicInteger corrupted = new AtomicInteger();
+        InputHandler<Integer> handler = (producer, sequence, moveX, moveZ, buttons) -> {
+            if (sequence != lastSequence[producer] + 1) {
+                outOfOrder.incrementAndGet();
+            }
+            if (moveX != 1 || moveZ != -1 || buttons != (sequence & 0xFF)) {
+                corrupted.incrementAndGet();
+            }
+            lastSequence[producer] = sequence;
+        };
+        start.countDown();
+        long received = 0;
+        long expected = (long) PRODUCERS * INPUTS_PER_PRODUCER;
+        while (received < expected) {
+            int drained = ring.drain(handler, 64);
+            if (drained == 0) {
+                LockSupport.parkNanos(BACKOFF_NANOS);
+            }
+            received += drained;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertThat(outOfOrder).hasValue(0);
+        assertThat(corrupted).hasValue(0);
+        assertThat(lastSequence).containsOnly(INPUTS_PER_PRODUCER);
+        assertThat(ring.drain(handler, Integer.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void shouldRejectInsteadOfGrowingWhenFull() {
+        InputRing<String> ring = new InputRing<>(8);
+        for (int i = 1; i <= ring.capacity(); i++) {
+            assertThat(ring.offer("client", i, (byte) 0, (byte) 0, 0)).isTrue();
+        }
+
+        assertThat(ring.offer("client", 9, (byte) 0, (byte) 0, 0)).isFalse();
+        assertThat(ring.drain((source, sequence, x, z, buttons) -> { }, 1)).isEqualTo(1);
+        assertThat(ring.offer("client", 9, (byte) 0, (byte) 0, 0)).isTrue();
+        assertThat(ring.size()).isEqualTo(ring.capacity());
+    }
+
+    @Test
+    void shouldAcceptEachSequenceOnceAcrossProducerThreads() throws InterruptedException {
+        InputSequence inputSequence = new InputSequence();
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                for (int sequence = 1; sequence <= 10_000; sequence++) {
+                    if (inputSequence.tryOffer(sequence)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertThat(accepted.get()).isBetween(1, 10_000);
+        assertThat(inputSequence.tryOffer(10_000)).isFalse();
+        assertThat(inputSequence.tryOffer(10_001)).isTrue();
+    }
+
+    @Test
+    void shouldDropStaleAndDuplicateInputsAcrossWraparound() {
+        InputSequence inputSequence = new InputSequence();
+
+        assertThat(inputSequence.tryApply(Integer.MAX_VALUE)).isTrue();
+        assertThat(inputSequence.tryApply(Integer.MAX_VALUE)).isFalse();
+        assertThat(inputSequence.tryApply(Integer.MAX_VALUE - 1)).isFalse();
+        assertThat(inputSequence.tryApply(Integer.MIN_VALUE)).isTrue();
+        assertThat(inputSequence.tryApply(Integer.MAX_VALUE)).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
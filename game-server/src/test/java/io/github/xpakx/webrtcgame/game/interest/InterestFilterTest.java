@@ -0,0 +1,85 @@
+package io.github.xpakx.webrtcgame.game.interest;
+
+import io.github.xpakx.webrtcgame.game.sim.EntityType;
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFrame;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotHistory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InterestFilterTest {
+    private static final int FAR_INTERVAL = 4;
+
+    private final Simulation simulation = new Simulation(64, 4f, 1L);
+    private final InterestFilter filter = new InterestFilter(
+            new InterestPolicy(new float[]{10f, 40f}, new int[]{1, FAR_INTERVAL}), 64);
+    private final SnapshotHistory room = new SnapshotHistory(8, 16);
+    private final SnapshotHistory viewer = new SnapshotHistory(8, 16);
+    private final int player = simulation.addPlayer(0f, 0f);
+    private final int near = simulation.spawn(EntityType.GRUNT, 5f, 0f, 0f, 0f);
+    private final int far = simulation.spawn(EntityType.GRUNT, 30f, 0f, 0f, 0f);
+    private final int outside = simulation.spawn(EntityType.GRUNT, 100f, 0f, 0f, 0f);
+
+    @Test
+    void shouldRefreshSlowerTierOnlyWhenDue() {
+        SnapshotFrame first = filter(1);
+        assertThat(filter.entered()).isEqualTo(3);
+        assertThat(filter.left()).isZero();
+        assertThat(indexOf(first, outside)).isEqualTo(-1);
+
+        int farId = simulation.entities().id(far);
+        int refreshes = 0;
+        for (int tick = 2; tick < 2 + FAR_INTERVAL; tick++) {
+            simulation.movePlayer(near, 5f + tick, 0f);
+            simulation.movePlayer(far, 30f + tick, 0f);
+            SnapshotFrame out = filter(tick);
+
+            assertThat(filter.entered()).isZero();
+            assertThat(filter.left()).isZero();
+            assertThat(out.x(indexOf(out, near))).isEqualTo(SnapshotFormat.quantize(5f + tick));
+            short farX = out.x(indexOf(out, far));
+            if (InterestPolicy.isDue(tick, farId, FAR_INTERVAL)) {
+                refreshes++;
+                assertThat(farX).isEqualTo(SnapshotFormat.quantize(30f + tick));
+            } else {
+                SnapshotFrame previous = viewer.get(tick - 1);
+                assertThat(farX).isEqualTo(previous.x(indexOf(previous, far)));
+            }
+        }
+        assertThat(refreshes).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountEntitiesEnteringAndLeaving() {
+        filter(1);
+        simulation.movePlayer(far, 60f, 0f);
+        simulation.movePlayer(outside, 20f, 0f);
+        simulation.spawn(EntityType.SHOOTER, -8f, 0f, 0f, 0f);
+
+        SnapshotFrame out = filter(2);
+
+        assertThat(filter.entered()).isEqualTo(2);
+        assertThat(filter.left()).isEqualTo(1);
+        assertThat(indexOf(out, far)).isEqualTo(-1);
+        assertThat(out.count()).isEqualTo(4);
+    }
+
+    private SnapshotFrame filter(int tick) {
+        SnapshotFrame frame = room.record(tick, simulation.entities());
+        SnapshotFrame out = viewer.next(tick);
+        filter.filter(simulation, player, frame, viewer.get(tick - 1), out);
+        return out;
+    }
+
+    private int indexOf(SnapshotFrame frame, int slot) {
+        int id = simulation.entities().id(slot);
+        for (int i = 0; i < frame.count(); i++) {
+            if (frame.id(i) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
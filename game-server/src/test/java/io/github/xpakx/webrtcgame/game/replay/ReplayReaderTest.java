@@ -0,0 +1,72 @@
+package io.github.xpakx.webrtcgame.game.replay;
+
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import io.github.xpakx.webrtcgame.game.snapshot.BitWriter;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotEncoder;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFormat;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotFrame;
+import io.github.xpakx.webrtcgame.game.snapshot.SnapshotHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplayReaderTest {
+    private static final int CAPACITY = 64;
+    private static final int KEYFRAME_INTERVAL = 16;
+    private static final int TICKS = 40;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRebuildDeltaTicksBetweenKeyframes() throws IOException {
+        Simulation simulation = new Simulation(CAPACITY, 4f, 7L);
+        simulation.setLevel(40);
+        int player = simulation.addPlayer(0f, 0f);
+        SnapshotHistory live = new SnapshotHistory(TICKS, 16);
+        BitWriter writer = new BitWriter(SnapshotFormat.maxEncodedSize(CAPACITY));
+        // small segments, so the recording spans several mappings
+        long segmentSize = 2L * SnapshotFormat.maxEncodedSize(CAPACITY);
+        Path base = directory.resolve("room");
+
+        try (ReplayRecorder recorder = ReplayRecorder.create(base, 60, 7L, segmentSize, KEYFRAME_INTERVAL, 16, () -> { })) {
+            for (int tick = 1; tick <= TICKS; tick++) {
+                simulation.setPlayerDirection(player, tick % 2 == 0 ? 1f : 0f, 1f);
+                recorder.input(tick, simulation.entities().id(player), tick, (byte) 127, (byte) 127, 0);
+                simulation.step(1f / 60);
+                SnapshotFrame frame = live.record(tick, simulation.entities());
+                boolean keyframe = recorder.isKeyframe(tick);
+                writer.reset();
+                SnapshotEncoder.encode(frame, keyframe ? null : live.get(tick - 1), writer);
+                recorder.snapshot(tick, keyframe, writer.flip());
+            }
+        }
+
+        assertThat(live.get(TICKS).count()).isGreaterThan(1);
+        try (ReplayReader reader = ReplayReader.open(base)) {
+            assertThat(reader.getSeed()).isEqualTo(7L);
+            assertThat(reader.getFirstTick()).isEqualTo(1);
+            for (int tick : new int[]{1, 2, KEYFRAME_INTERVAL - 1, KEYFRAME_INTERVAL, 23, 2 * KEYFRAME_INTERVAL - 1, TICKS}) {
+                assertSameFrame(reader.frameAt(tick), live.get(tick));
+            }
+            assertThat(reader.frameAt(TICKS + 1)).isNull();
+        }
+    }
+
+    private static void assertSameFrame(SnapshotFrame actual, SnapshotFrame expected) {
+        assertThat(actual).as("frame %d", expected.tick()).isNotNull();
+        assertThat(actual.tick()).isEqualTo(expected.tick());
+        assertThat(actual.count()).as("entities at %d", expected.tick()).isEqualTo(expected.count());
+        for (int i = 0; i < expected.count(); i++) {
+            assertThat(actual.id(i)).isEqualTo(expected.id(i));
+            assertThat(actual.type(i)).isEqualTo(expected.type(i));
+            assertThat(actual.x(i)).isEqualTo(expected.x(i));
+            assertThat(actual.z(i)).isEqualTo(expected.z(i));
+            assertThat(actual.hp(i)).isEqualTo(expected.hp(i));
+        }
+    }
+}
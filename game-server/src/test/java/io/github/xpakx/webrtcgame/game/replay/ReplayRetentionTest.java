@@ -0,0 +1,54 @@
+package io.github.xpakx.webrtcgame.game.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplayRetentionTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldDeleteOldestFinishedReplaysBeyondCount() throws IOException {
+        ReplayRetention retention = new ReplayRetention(directory, 3, Long.MAX_VALUE);
+        replay("old", 1, 10);
+        replay("older", 0, 10);
+        replay("new", 2, 10);
+
+        assertThat(retention.start("next")).isEqualTo(directory.resolve("next"));
+
+        assertThat(directory.resolve("older.replay")).doesNotExist();
+        assertThat(directory.resolve("older.index")).doesNotExist();
+        assertThat(directory.resolve("old.replay")).exists();
+        assertThat(directory.resolve("new.replay")).exists();
+    }
+
+    @Test
+    void shouldKeepReplaysBeingRecordedOverSizeCap() throws IOException {
+        ReplayRetention retention = new ReplayRetention(directory, 10, 100);
+        retention.start("recording");
+        replay("recording", 0, 200);
+        replay("finished", 1, 10);
+
+        retention.start("next");
+        assertThat(directory.resolve("recording.replay")).exists();
+        assertThat(directory.resolve("finished.replay")).doesNotExist();
+
+        retention.finished("recording");
+        retention.start("another");
+        assertThat(directory.resolve("recording.replay")).doesNotExist();
+    }
+
+    private void replay(String name, int age, int size) throws IOException {
+        Path file = Files.write(directory.resolve(name + ReplayFormat.REPLAY_EXTENSION), new byte[size]);
+        Path index = Files.write(directory.resolve(name + ReplayFormat.INDEX_EXTENSION), new byte[0]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L * (age + 1)));
+        Files.setLastModifiedTime(index, FileTime.fromMillis(1_000_000L * (age + 1)));
+    }
+}
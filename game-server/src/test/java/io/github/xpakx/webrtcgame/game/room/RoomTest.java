@@ -0,0 +1,56 @@
+package io.github.xpakx.webrtcgame.game.room;
+
+import io.github.xpakx.webrtcgame.game.interest.InterestPolicy;
+import io.github.xpakx.webrtcgame.game.result.MatchResult;
+import io.github.xpakx.webrtcgame.game.sim.Simulation;
+import io.github.xpakx.webrtcgame.game.transport.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomTest {
+    private final List<MatchResult> results = new ArrayList<>();
+    private final Room room = new Room(
+            "room",
+            new Simulation(64, 4f, 1L),
+            new RoomSettings(60, 32, new InterestPolicy(new float[]{20f}, new int[]{1}), 64, 8),
+            null,
+            results::add
+    );
+
+    @Test
+    void shouldReportPlayersByUsername() {
+        Connection connection = new OpenConnection("session-1");
+        room.join(connection, "alice");
+        for (int i = 0; i < 10; i++) {
+            room.tick();
+        }
+        room.leave(connection);
+        room.tick();
+        room.close();
+
+        assertThat(results).hasSize(1);
+        MatchResult.Player player = results.getFirst().players().getFirst();
+        assertThat(player.player()).isEqualTo("alice");
+        assertThat(player.leftTick() - player.joinedTick()).isEqualTo(10);
+    }
+
+    private record OpenConnection(String id) implements Connection {
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void send(ByteBuffer payload) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.xpakx.webrtcgame.game.sim;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimulationTest {
+    @Test
+    void shouldReuseFreedSlotsButNotIds() {
+        EntityStore entities = new EntityStore(3);
+        int first = entities.spawn(EntityType.GRUNT, 0f, 0f, 0f, 0f);
+        int second = entities.spawn(EntityType.GRUNT, 1f, 0f, 0f, 0f);
+        int third = entities.spawn(EntityType.GRUNT, 2f, 0f, 0f, 0f);
+        assertThat(entities.spawn(EntityType.GRUNT, 3f, 0f, 0f, 0f)).isEqualTo(-1);
+
+        entities.despawn(second);
+        entities.despawn(second);
+        int reused = entities.spawn(EntityType.SHOOTER, 4f, 0f, 0f, 0f);
+
+        assertThat(reused).isEqualTo(second);
+        assertThat(entities.id(reused)).isEqualTo(4);
+        assertThat(entities.type(reused)).isEqualTo(EntityType.SHOOTER);
+        assertThat(entities.hp(reused)).isEqualTo(EntityType.SHOOTER.hp());
+        assertThat(entities.size()).isEqualTo(3);
+        assertThat(liveSlots(entities)).containsExactlyInAnyOrder(first, reused, third);
+    }
+
+    @Test
+    void shouldDespawnExpiredProjectilesWhileIterating() {
+        Simulation simulation = new Simulation(32, 4f, 1L);
+        EntityStore entities = simulation.entities();
+        Set<Integer> survivors = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            int slot = simulation.spawn(EntityType.PROJECTILE, i, 0f, 1f, 0f);
+            if (i % 2 == 0) {
+                entities.timer[slot] = 0.01f;
+            } else {
+                survivors.add(slot);
+            }
+        }
+
+        simulation.step(0.1f);
+
+        assertThat(liveSlots(entities)).containsExactlyInAnyOrderElementsOf(survivors);
+        for (int slot : survivors) {
+            // every survivor was visited exactly once despite the swaps
+            assertThat(entities.timer[slot]).isCloseTo(100f / EntityType.PROJECTILE.speed() - 0.1f, within());
+            assertThat(entities.x(slot) - (float) Math.floor(entities.x(slot))).isCloseTo(0.1f, within());
+        }
+        int[] candidates = new int[32];
+        int count = simulation.query(5f, 0f, 20f, candidates);
+        Set<Integer> indexed = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            indexed.add(candidates[i]);
+        }
+        assertThat(indexed).isEqualTo(survivors);
+    }
+
+    private static Offset<Float> within() {
+        return Offset.offset(1e-4f);
+    }
+
+    private static Set<Integer> liveSlots(EntityStore entities) {
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < entities.size(); i++) {
+            int slot = entities.slotAt(i);
+            assertThat(entities.isAlive(slot)).isTrue();
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.xpakx.webrtcgame.game.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpatialHashTest {
+    private final SpatialHash grid = new SpatialHash(64, 4f);
+    private final int[] out = new int[64];
+
+    @Test
+    void shouldFindNeighboursAcrossCellBoundaries() {
+        grid.insert(0, 3.9f, 0.1f);
+        grid.insert(1, 4.1f, -0.1f);
+        grid.insert(2, -0.1f, -0.1f);
+        grid.insert(3, 20f, 20f);
+
+        assertThat(query(4f, 0f, 0.5f)).contains(0, 1).doesNotContain(3);
+        assertThat(query(0f, 0f, 0.5f)).contains(0, 2).doesNotContain(3);
+    }
+
+    @Test
+    void shouldFollowEntityMovedIntoAnotherCell() {
+        grid.insert(0, 3.9f, 0f);
+        grid.insert(1, 3.5f, 0f);
+
+        grid.move(0, 8.5f, 0f);
+
+        assertThat(query(8.5f, 0f, 0.5f)).contains(0).doesNotContain(1);
+        assertThat(query(3.5f, 0f, 0.1f)).contains(1).doesNotContain(0);
+
+        grid.remove(0);
+        assertThat(query(8.5f, 0f, 0.5f)).doesNotContain(0);
+    }
+
+    @Test
+    void shouldReturnEachCandidateOnce() {
+        grid.insert(0, 1f, 1f);
+
+        assertThat(query(1f, 1f, 16f)).containsExactly(0);
+    }
+
+    private int[] query(float x, float z, float radius) {
+        return Arrays.copyOf(out, grid.query(x, z, radius, out));
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.xpakx.webrtcgame.game.snapshot;
+
+import io.github.xpakx.webrtcgame.game.sim.EntityStore;
+import io.github.xpakx.webrtcgame.game.sim.EntityType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotCodecTest {
+    private static final byte GRUNT = EntityType.GRUNT.code();
+
+    private final BitWriter writer = new BitWriter(SnapshotFormat.maxEncodedSize(64));
+    private final SnapshotDecoder decoder = new SnapshotDecoder();
+
+    @Test
+    void shouldReadBackWhatWasWritten() {
+        writer.write(0xDEADBEEF, 32);
+        writer.writeBit(true);
+        writer.write(5, 3);
+        writer.write(-3, 7);
+        writer.writeVarUint(0);
+        writer.writeVarUint(127);
+        writer.writeVarUint(128);
+        writer.writeVarUint(Integer.MAX_VALUE);
+        writer.writeVarUint(-1);
+        assertThat(writer.bitCount()).isEqualTo(32 + 1 + 3 + 7 + 8 + 8 + 16 + 40 + 40);
+
+        BitReader reader = new BitReader();
+        reader.reset(writer.flip());
+        assertThat(reader.read(32)).isEqualTo(0xDEADBEEF);
+        assertThat(reader.readBit()).isTrue();
+        assertThat(reader.read(3)).isEqualTo(5);
+        assertThat(reader.readSigned(7)).isEqualTo(-3);
+        assertThat(reader.readVarUint()).isZero();
+        assertThat(reader.readVarUint()).isEqualTo(127);
+        assertThat(reader.readVarUint()).isEqualTo(128);
+        assertThat(reader.readVarUint()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(reader.readVarUint()).isEqualTo(-1);
+        assertThat(reader.read(8)).isZero();
+    }
+
+    @Test
+    void shouldRoundTripFullSnapshotOfCapturedEntities() {
+        EntityStore entities = new EntityStore(16);
+        entities.spawn(EntityType.PLAYER, 1.5f, -2.25f, 0f, 0f);
+        int removed = entities.spawn(EntityType.GRUNT, 3f, 4f, 0f, 0f);
+        entities.spawn(EntityType.SHOOTER, -10f, 7.75f, 0f, 0f);
+        entities.despawn(removed);
+        SnapshotFrame frame = new SnapshotHistory(4, 16).record(1, entities);
+
+        ByteBuffer payload = encode(frame, null);
+        assertThat(SnapshotDecoder.baselineTick(payload)).isZero();
+        SnapshotFrame decoded = decode(payload, null);
+
+        assertSameFrame(decoded, frame);
+        assertThat(decoded.count()).isEqualTo(2);
+        assertThat(decoded.x(0)).isEqualTo((short) 48);
+        assertThat(decoded.z(0)).isEqualTo((short) -72);
+    }
+
+    @Test
+    void shouldSendOnlyChangesAgainstAcknowledgedBaseline() {
+        SnapshotFrame baseline = frame(1, new int[]{1, 2, 3}, new short[]{0, 100, 200}, new int[]{10, 10, 10});
+        // small move, move past the small delta range, hp change
+        SnapshotFrame current = frame(5, new int[]{1, 2, 3}, new short[]{3, 2000, 200}, new int[]{10, 10, 7});
+
+        ByteBuffer delta = encode(current, baseline);
+        int deltaBytes = delta.remaining();
+        assertThat(SnapshotDecoder.baselineTick(delta)).isEqualTo(1);
+        assertSameFrame(decode(delta, baseline), current);
+        assertThat(deltaBytes).isLessThan(encode(current, null).remaining());
+        assertThat(SnapshotEncoder.encode(current, baseline, reset())).isEqualTo(3);
+
+        ByteBuffer unchanged = encode(baseline, frame(0, new int[]{1, 2, 3}, new short[]{0, 100, 200}, new int[]{10, 10, 10}));
+        assertThat(unchanged.remaining()).isLessThan(deltaBytes);
+    }
+
+    @Test
+    void shouldAddAndRemoveEntitiesAgainstBaseline() {
+        SnapshotFrame baseline = frame(1, new int[]{1, 2, 3, 4}, new short[]{0, 1, 2, 3}, new int[]{1, 1, 1, 1});
+        SnapshotFrame current = frame(2, new int[]{1, 3, 5, 9}, new short[]{0, 2, 50, -50}, new int[]{1, 1, 2, 2});
+
+        SnapshotFrame decoded = decode(encode(current, baseline), baseline);
+
+        assertSameFrame(decoded, current);
+        assertThat(decoded.id(2)).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectDeltaAgainstWrongBaseline() {
+        SnapshotFrame baseline = frame(1, new int[]{1}, new short[]{0}, new int[]{1});
+        SnapshotFrame other = frame(2, new int[]{1}, new short[]{0}, new int[]{1});
+        ByteBuffer delta = encode(frame(3, new int[]{1}, new short[]{5}, new int[]{1}), baseline);
+
+        assertThatThrownBy(() -> decode(delta, other)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldFallBackToFullSnapshotWhenBaselineIsOverwritten() {
+        SnapshotHistory history = new SnapshotHistory(4, 16);
+        for (int tick = 1; tick <= 10; tick++) {
+            SnapshotFrame frame = history.next(tick);
+            frame.add(1, GRUNT, (short) tick, (short) 0, 1);
+        }
+        int ackedTick = 2;
+        assertThat(history.get(ackedTick)).isNull();
+        assertThat(history.get(7)).isNotNull();
+
+        ByteBuffer payload = encode(history.get(10), history.get(ackedTick));
+
+        assertThat(SnapshotDecoder.baselineTick(payload)).isZero();
+        assertSameFrame(decode(payload, null), history.get(10));
+    }
+
+    @Test
+    void shouldClampPositionsToQuantizedRange() {
+        assertThat(SnapshotFormat.quantize(1.5f)).isEqualTo((short) 48);
+        assertThat(SnapshotFormat.quantize(-1.5f)).isEqualTo((short) -48);
+        assertThat(SnapshotFormat.quantize(1e6f)).isEqualTo(Short.MAX_VALUE);
+        assertThat(SnapshotFormat.quantize(-1e6f)).isEqualTo(Short.MIN_VALUE);
+
+        SnapshotFrame baseline = new SnapshotFrame(4);
+        baseline.begin(1);
+        baseline.add(1, GRUNT, Short.MIN_VALUE, Short.MAX_VALUE, 255);
+        SnapshotFrame current = new SnapshotFrame(4);
+        current.begin(2);
+        current.add(1, GRUNT, Short.MAX_VALUE, Short.MIN_VALUE, 0);
+
+        assertSameFrame(decode(encode(baseline, null), null), baseline);
+        assertSameFrame(decode(encode(current, baseline), baseline), current);
+    }
+
+    @Test
+    void shouldFitWorstCaseSnapshotsInMaxEncodedSize() {
+        // id gaps of 2^28 take the longest varuint the encoder writes
+        int count = 7;
+        int[] ids = new int[count];
+        int[] shiftedIds = new int[count];
+        short[] low = new short[count];
+        short[] high = new short[count];
+        int[] noHp = new int[count];
+        int[] fullHp = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = (i + 1) << 28;
+            shiftedIds[i] = ids[i] + 1;
+            low[i] = Short.MIN_VALUE + 1;
+            high[i] = Short.MAX_VALUE;
+            fullHp[i] = 255;
+        }
+        SnapshotFrame baseline = frame(1, ids, low, noHp);
+        SnapshotFrame changed = frame(2, ids, high, fullHp);
+        SnapshotFrame replaced = frame(2, shiftedIds, high, fullHp);
+        BitWriter bounded = new BitWriter(SnapshotFormat.maxEncodedSize(count));
+
+        SnapshotEncoder.encode(changed, baseline, bounded);
+        // header, both counts, then per entity: id gap, new bit, mask, two absolute coordinates with flags, hp
+        assertThat(bounded.bitCount()).isEqualTo(64 + 8 + 8 + count * (40 + 1 + 3 + 2 * 17 + 8));
+        assertSameFrame(decode(copy(bounded.flip()), baseline), changed);
+
+        bounded.reset();
+        SnapshotEncoder.encode(replaced, baseline, bounded);
+        assertSameFrame(decode(copy(bounded.flip()), baseline), replaced);
+
+        bounded.reset();
+        SnapshotEncoder.encode(changed, null, bounded);
+        assertSameFrame(decode(copy(bounded.flip()), null), changed);
+    }
+
+    private BitWriter reset() {
+        writer.reset();
+        return writer;
+    }
+
+    // copied, as the writer's view is reused by the next encode
+    private ByteBuffer encode(SnapshotFrame frame, SnapshotFrame baseline) {
+        SnapshotEncoder.encode(frame, baseline, reset());
+        return copy(writer.flip());
+    }
+
+    private static ByteBuffer copy(ByteBuffer view) {
+        return ByteBuffer.allocate(view.remaining()).put(view).flip();
+    }
+
+    private SnapshotFrame decode(ByteBuffer payload, SnapshotFrame baseline) {
+        SnapshotFrame out = new SnapshotFrame(4);
+        decoder.decode(payload, baseline, out);
+        return out;
+    }
+
+    private static SnapshotFrame frame(int tick, int[] ids, short[] x, int[] hp) {
+        SnapshotFrame frame = new SnapshotFrame(ids.length);
+        frame.begin(tick);
+        for (int i = 0; i < ids.length; i++) {
+            frame.add(ids[i], GRUNT, x[i], (short) -x[i], hp[i]);
+        }
+        return frame;
+    }
+
+    private static void assertSameFrame(SnapshotFrame actual, SnapshotFrame expected) {
+        assertThat(actual.tick()).isEqualTo(expected.tick());
+        assertThat(actual.count()).isEqualTo(expected.count());
+        for (int i = 0; i < expected.count(); i++) {
+            assertThat(actual.id(i)).as("id at %d", i).isEqualTo(expected.id(i));
+            assertThat(actual.type(i)).as("type of %d", expected.id(i)).isEqualTo(expected.type(i));
+            assertThat(actual.x(i)).as("x of %d", expected.id(i)).isEqualTo(expected.x(i));
+            assertThat(actual.z(i)).as("z of %d", expected.id(i)).isEqualTo(expected.z(i));
+            assertThat(actual.hp(i)).as("hp of %d", expected.id(i)).isEqualTo(expected.hp(i));
+        }
+    }
+}
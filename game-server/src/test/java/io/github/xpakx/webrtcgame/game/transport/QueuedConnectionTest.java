@@ -0,0 +1,70 @@
+package io.github.xpakx.webrtcgame.game.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueuedConnectionTest {
+    @Test
+    void shouldDropOldestPayloadsWhileSenderIsStalled() {
+        List<Runnable> stalled = new ArrayList<>();
+        AtomicInteger dropped = new AtomicInteger();
+        RecordingConnection delegate = new RecordingConnection();
+        QueuedConnection connection = new QueuedConnection(delegate, 4, stalled::add, dropped::incrementAndGet);
+
+        ByteBuffer payload = ByteBuffer.allocate(1);
+        for (int i = 0; i < 6; i++) {
+            // the tick thread reuses its buffer, so the queue must hold copies
+            payload.clear().put((byte) i).flip();
+            connection.send(payload);
+        }
+        assertThat(delegate.sent).isEmpty();
+        assertThat(stalled).hasSize(1);
+        stalled.getFirst().run();
+
+        assertThat(dropped).hasValue(2);
+        assertThat(delegate.sent).containsExactly(2, 3, 4, 5);
+    }
+
+    @Test
+    void shouldStartNewSenderAfterQueueDrains() {
+        List<Runnable> tasks = new ArrayList<>();
+        RecordingConnection delegate = new RecordingConnection();
+        QueuedConnection connection = new QueuedConnection(delegate, 4, tasks::add, () -> {});
+
+        connection.send(ByteBuffer.wrap(new byte[]{1}));
+        tasks.removeFirst().run();
+        connection.send(ByteBuffer.wrap(new byte[]{2}));
+        tasks.removeFirst().run();
+
+        assertThat(delegate.sent).containsExactly(1, 2);
+    }
+
+    private static class RecordingConnection implements Connection {
+        private final List<Integer> sent = new ArrayList<>();
+
+        @Override
+        public String id() {
+            return "connection";
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void send(ByteBuffer payload) {
+            sent.add((int) payload.get());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
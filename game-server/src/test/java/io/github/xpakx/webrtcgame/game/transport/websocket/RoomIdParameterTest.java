@@ -0,0 +1,35 @@
+package io.github.xpakx.webrtcgame.game.transport.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomIdParameterTest {
+    @Test
+    void shouldDefaultMissingRoom() {
+        assertThat(RoomIdParameter.from(session("/ws/game"))).isEqualTo(RoomIdParameter.DEFAULT);
+        assertThat(RoomIdParameter.from(session("/ws/game?room="))).isEqualTo(RoomIdParameter.DEFAULT);
+    }
+
+    @Test
+    void shouldRefuseRoomsThatDoNotFitMatchResults() {
+        String longest = "r".repeat(RoomIdParameter.MAX_LENGTH);
+
+        assertThat(RoomIdParameter.from(session("/ws/game?room=arena_1-b"))).isEqualTo("arena_1-b");
+        assertThat(RoomIdParameter.from(session("/ws/game?room=" + longest))).isEqualTo(longest);
+        assertThat(RoomIdParameter.from(session("/ws/game?room=" + longest + "r"))).isNull();
+        assertThat(RoomIdParameter.from(session("/ws/game?room=../replays"))).isNull();
+        assertThat(RoomIdParameter.from(session("/ws/game?room=a%20b"))).isNull();
+    }
+
+    private static WebSocketSession session(String uri) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost" + uri));
+        return session;
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Inter-arrival times of the open model. Arrivals don't depend on responses,
+ * so a slow server can't slow the generator down and hide its own latency.
+ */
+public enum Arrivals {
+    /**
+     * Exponentially distributed gaps, i.e. independent users arriving at random.
+     */
+    POISSON {
+        @Override
+        public long nextGapNanos(double rate, RandomGenerator random) {
+            return (long) (-Math.log(1.0 - random.nextDouble()) / rate * 1_000_000_000L);
+        }
+    },
+    UNIFORM {
+        @Override
+        public long nextGapNanos(double rate, RandomGenerator random) {
+            return (long) (1_000_000_000L / rate);
+        }
+    };
+
+    public abstract long nextGapNanos(double rate, RandomGenerator random);
+
+    public static Arrivals of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Blocking client for the auth endpoints, meant to be called from virtual threads.
+ * Token responses are read with a pattern instead of a JSON library, as JWTs never contain characters that need escaping.
+ */
+public class AuthApiClient {
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern REFRESH_TOKEN = Pattern.compile("\"refreshToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client;
+    private final URI target;
+    private final Duration timeout;
+
+    public AuthApiClient(URI target, Duration timeout) {
+        this.target = target;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public Response register(Session session) throws IOException, InterruptedException {
+        String body = "{\"username\":\"" + session.username()
+                + "\",\"password\":\"" + session.password()
+                + "\",\"passwordRe\":\"" + session.password() + "\"}";
+        return tokens(session, post("/register", body));
+    }
+
+    public Response authenticate(Session session) throws IOException, InterruptedException {
+        String body = "{\"username\":\"" + session.username()
+                + "\",\"password\":\"" + session.password() + "\"}";
+        return tokens(session, post("/authenticate", body));
+    }
+
+    public Response refresh(Session session) throws IOException, InterruptedException {
+        String body = "{\"token\":\"" + session.refreshToken() + "\"}";
+        return tokens(session, post("/refresh", body));
+    }
+
+    public Response get(Session session, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(target.resolve(path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + session.accessToken())
+                .GET()
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        return new Response(response.statusCode(), retryAfter(response));
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(target.resolve(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Response tokens(Session session, HttpResponse<String> response) {
+        if (response.statusCode() / 100 == 2) {
+            Matcher access = ACCESS_TOKEN.matcher(response.body());
+            Matcher refresh = REFRESH_TOKEN.matcher(response.body());
+            if (access.find() && refresh.find()) {
+                session.update(new Session.Tokens(access.group(1), refresh.group(1)));
+            }
+        }
+        return new Response(response.statusCode(), retryAfter(response));
+    }
+
+    private long retryAfter(HttpResponse<?> response) {
+        return response.headers()
+                .firstValueAsLong("Retry-After")
+                .orElse(0);
+    }
+
+    public record Response(int status, long retryAfterSeconds) {
+        public boolean ok() {
+            return status / 100 == 2;
+        }
+
+        /**
+         * Server shed the request (rate limiter or full hashing queue) rather than failing it.
+         */
+        public boolean rejected() {
+            return status == 429 || status == 503;
+        }
+    }
+}
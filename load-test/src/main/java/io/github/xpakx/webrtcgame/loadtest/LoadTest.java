@@ -0,0 +1,117 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers a pool of accounts, then sweeps the configured arrival rates against main-server
+ * and reports corrected latency percentiles and the rate at which the server saturates.
+ */
+public class LoadTest {
+    private static final int REGISTRATION_ATTEMPTS = 20;
+    private static final long MIN_RETRY_MILLIS = 100;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        System.out.println("Load test " + options.label() + ": " + options);
+
+        AuthApiClient client = new AuthApiClient(options.target(), options.timeout());
+        SessionPool sessions = new SessionPool(prefix());
+        Workload workload = new Workload(client, sessions, options.password());
+
+        int registered = registerUsers(client, sessions, options);
+        System.out.println("Registered " + registered + " of " + options.users() + " accounts");
+        if (registered == 0) {
+            System.err.println("No account could be registered, is the server up at " + options.target() + "?");
+            System.exit(1);
+        }
+
+        OpenLoop loop = new OpenLoop(
+                workload,
+                options.mix(),
+                options.arrivals(),
+                options.maxInFlight(),
+                options.seed()
+        );
+        Report report = new Report(options, System.out);
+        for (double rate : options.rates()) {
+            StepResult step = loop.run(rate, options.warmup(), options.duration());
+            boolean saturated = report.add(step);
+            if (saturated && options.stopOnSaturation()) {
+                break;
+            }
+        }
+        report.finish();
+    }
+
+    /**
+     * Registration goes through the same password hashing the test measures, so it is throttled
+     * and retried whenever the server sheds load.
+     */
+    private static int registerUsers(AuthApiClient client, SessionPool sessions, LoadTestOptions options)
+            throws InterruptedException {
+        Semaphore permits = new Semaphore(options.setupConcurrency());
+        List<Future<Boolean>> results = new ArrayList<>(options.users());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.users(); i++) {
+                permits.acquire();
+                results.add(executor.submit(() -> {
+                    try {
+                        return register(client, sessions, options.password());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        int registered = 0;
+        for (Future<Boolean> result : results) {
+            if (result.state() == Future.State.SUCCESS && result.resultNow()) {
+                registered++;
+            }
+        }
+        return registered;
+    }
+
+    private static boolean register(AuthApiClient client, SessionPool sessions, String password) throws Exception {
+        Session session = new Session(sessions.nextUsername(), password);
+        for (int attempt = 0; attempt < REGISTRATION_ATTEMPTS; attempt++) {
+            AuthApiClient.Response response = client.register(session);
+            if (response.ok()) {
+                sessions.release(session);
+                return true;
+            }
+            if (!response.rejected()) {
+                return false;
+            }
+            Thread.sleep(Math.max(TimeUnit.SECONDS.toMillis(response.retryAfterSeconds()), MIN_RETRY_MILLIS));
+        }
+        return false;
+    }
+
+    /**
+     * Prefix unique per run, so repeated runs against the same database don't collide on usernames.
+     */
+    private static String prefix() {
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        String stamp = Long.toString(seconds % (36L * 36 * 36 * 36 * 36), 36);
+        return "lt" + "0".repeat(5 - stamp.length()) + stamp;
+    }
+}
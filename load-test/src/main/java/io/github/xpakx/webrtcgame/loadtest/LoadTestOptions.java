@@ -0,0 +1,131 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ */
+public record LoadTestOptions(
+        URI target,
+        List<Double> rates,
+        Duration duration,
+        Duration warmup,
+        OperationMix mix,
+        Arrivals arrivals,
+        int users,
+        int setupConcurrency,
+        int maxInFlight,
+        Duration timeout,
+        Duration slo,
+        double maxErrorRatio,
+        boolean stopOnSaturation,
+        String password,
+        long seed,
+        String out,
+        String label
+) {
+    public static final String USAGE = """
+            Options (all optional):
+              --target=http://localhost:8080        main-server base URL
+              --rates=10,20,40,80,160               arrival rates in requests per second, one step each
+              --duration=30s                        measured length of each step
+              --warmup=5s                           unmeasured load before each step
+              --mix=authenticate=40,refresh=25,get=30,register=5
+              --arrival=poisson                     poisson or uniform inter-arrival times
+              --users=200                           accounts registered before the first step
+              --setup-concurrency=16                parallel registrations during setup
+              --max-in-flight=5000                  requests over this are dropped and counted as errors
+              --timeout=10s                         connect and request timeout
+              --slo=500ms                           corrected p99 above this marks a step as saturated
+              --max-error-ratio=0.01                error ratio above this marks a step as saturated
+              --stop-on-saturation=true             skip remaining steps after the first saturated one
+              --password=load-test-pass             password of generated accounts
+              --seed=42                             seed for operation mix and arrivals
+              --out=target/load-test                results directory
+              --label=<timestamp>                   subdirectory for this run, e.g. the build under test
+            """;
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                URI.create(values.getOrDefault("target", "http://localhost:8080")),
+                Arrays.stream(values.getOrDefault("rates", "10,20,40,80,160").split(","))
+                        .map(String::trim)
+                        .map(Double::parseDouble)
+                        .toList(),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "5s")),
+                OperationMix.parse(values.getOrDefault("mix", "authenticate=40,refresh=25,get=30,register=5")),
+                Arrivals.of(values.getOrDefault("arrival", "poisson")),
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Integer.parseInt(values.getOrDefault("setup-concurrency", "16")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "5000")),
+                duration(values.getOrDefault("timeout", "10s")),
+                duration(values.getOrDefault("slo", "500ms")),
+                Double.parseDouble(values.getOrDefault("max-error-ratio", "0.01")),
+                Boolean.parseBoolean(values.getOrDefault("stop-on-saturation", "true")),
+                values.getOrDefault("password", "load-test-pass"),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.getOrDefault("out", "target/load-test"),
+                values.getOrDefault("label", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")))
+        );
+        values.keySet().removeAll(KNOWN);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rates.isEmpty() || options.rates.stream().anyMatch((rate) -> rate <= 0)) {
+            throw new IllegalArgumentException("Rates must be positive");
+        }
+        return options;
+    }
+
+    private static final List<String> KNOWN = List.of(
+            "target", "rates", "duration", "warmup", "mix", "arrival", "users", "setup-concurrency",
+            "max-in-flight", "timeout", "slo", "max-error-ratio", "stop-on-saturation", "password",
+            "seed", "out", "label"
+    );
+
+    static Duration duration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        return switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Invalid duration: " + value);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "target=" + target
+                + " rates=" + rates
+                + " duration=" + duration
+                + " warmup=" + warmup
+                + " mix=" + mix
+                + " arrival=" + arrivals
+                + " users=" + users
+                + " max-in-flight=" + maxInFlight
+                + " timeout=" + timeout
+                + " slo=" + slo
+                + " max-error-ratio=" + maxErrorRatio
+                + " seed=" + seed;
+    }
+}
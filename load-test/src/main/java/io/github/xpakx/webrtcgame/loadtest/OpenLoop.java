@@ -0,0 +1,95 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs one step at a fixed arrival rate. Every request has a start time fixed in advance
+ * and gets its own virtual thread, so a stalled request never delays the ones scheduled after it.
+ * Latency is taken from that scheduled start, which keeps coordinated omission out of the percentiles
+ * even when the scheduler itself falls behind.
+ */
+public class OpenLoop {
+    private final Workload workload;
+    private final OperationMix mix;
+    private final Arrivals arrivals;
+    private final Semaphore inFlight;
+    private final SplittableRandom random;
+
+    public OpenLoop(Workload workload, OperationMix mix, Arrivals arrivals, int maxInFlight, long seed) {
+        this.workload = workload;
+        this.mix = mix;
+        this.arrivals = arrivals;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.random = new SplittableRandom(seed);
+    }
+
+    public StepResult run(double rate, Duration warmup, Duration duration) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        OperationStats discarded = new OperationStats();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long maxLag = 0;
+        long intended = start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (intended < end) {
+                long lag = waitUntil(intended);
+                Operation operation = mix.next(random);
+                boolean measured = intended >= measureFrom;
+                OperationStats target = measured ? stats.get(operation) : discarded;
+                if (measured) {
+                    maxLag = Math.max(maxLag, lag);
+                }
+                if (!inFlight.tryAcquire()) {
+                    target.dropped();
+                } else {
+                    target.issued();
+                    long scheduled = intended;
+                    executor.execute(() -> {
+                        try {
+                            long sent = System.nanoTime();
+                            Workload.Outcome outcome = workload.execute(operation);
+                            target.record(outcome, scheduled, sent, System.nanoTime());
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                intended += arrivals.nextGapNanos(rate, random);
+            }
+        }
+        long drained = System.nanoTime();
+
+        Map<Operation, OperationStats.Snapshot> snapshots = new EnumMap<>(Operation.class);
+        stats.forEach((operation, operationStats) -> snapshots.put(operation, operationStats.snapshot()));
+        return new StepResult(
+                rate,
+                Duration.ofNanos(end - measureFrom),
+                Duration.ofNanos(Math.max(drained, end) - measureFrom),
+                Duration.ofNanos(maxLag),
+                snapshots
+        );
+    }
+
+    /**
+     * @return how late the scheduler was for the given time, in nanoseconds
+     */
+    private long waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+        return -remaining;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.util.Locale;
+
+public enum Operation {
+    REGISTER,
+    AUTHENTICATE,
+    REFRESH,
+    GET;
+
+    public static Operation of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of a single operation within a step, recorded in microseconds.
+ * Corrected latency is measured from the scheduled start, service time from the moment the request was sent;
+ * the gap between them is time spent queued behind earlier requests.
+ */
+public class OperationStats {
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder corrected = new Recorder(HIGHEST_TRACKABLE, SIGNIFICANT_DIGITS);
+    private final Recorder service = new Recorder(HIGHEST_TRACKABLE, SIGNIFICANT_DIGITS);
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public void issued() {
+        issued.increment();
+    }
+
+    public void dropped() {
+        issued.increment();
+        dropped.increment();
+    }
+
+    public void record(Workload.Outcome outcome, long intendedNanos, long sentNanos, long completedNanos) {
+        switch (outcome) {
+            case OK -> {
+                ok.increment();
+                corrected.recordValue(micros(completedNanos - intendedNanos));
+                service.recordValue(micros(completedNanos - sentNanos));
+            }
+            case REJECTED -> rejected.increment();
+            case FAILED -> failed.increment();
+            case NO_SESSION -> dropped.increment();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(
+                corrected.getIntervalHistogram(),
+                service.getIntervalHistogram(),
+                issued.sum(),
+                ok.sum(),
+                rejected.sum(),
+                failed.sum(),
+                dropped.sum()
+        );
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(Math.max(nanos / 1000, 1), HIGHEST_TRACKABLE);
+    }
+
+    public record Snapshot(
+            Histogram corrected,
+            Histogram service,
+            long issued,
+            long ok,
+            long rejected,
+            long failed,
+            long dropped
+    ) {
+        public long errors() {
+            return rejected + failed + dropped;
+        }
+
+        public Snapshot merge(Snapshot other) {
+            Histogram mergedCorrected = corrected.copy();
+            mergedCorrected.add(other.corrected);
+            Histogram mergedService = service.copy();
+            mergedService.add(other.service);
+            return new Snapshot(
+                    mergedCorrected,
+                    mergedService,
+                    issued + other.issued,
+                    ok + other.ok,
+                    rejected + other.rejected,
+                    failed + other.failed,
+                    dropped + other.dropped
+            );
+        }
+    }
+}
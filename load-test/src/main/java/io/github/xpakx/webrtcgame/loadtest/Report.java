@@ -0,0 +1,146 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints step results and writes them under {@code <out>/<label>}: a {@code summary.csv} with one row per
+ * step and operation, and {@code .hgrm} percentile distributions that can be plotted side by side
+ * with the results of another build.
+ */
+public class Report {
+    /**
+     * Below this fraction of the offered rate the server is not keeping up.
+     */
+    private static final double THROUGHPUT_TOLERANCE = 0.9;
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String HEADER = "%-8s %-12s %8s %8s %8s %9s %9s %9s %9s %9s %11s%n";
+    private static final String ROW = "%-8s %-12s %8d %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %11.1f%n";
+
+    private final LoadTestOptions options;
+    private final Path directory;
+    private final PrintStream console;
+    private final List<String> csv = new ArrayList<>();
+    private StepResult lastSustained;
+    private StepResult firstSaturated;
+
+    public Report(LoadTestOptions options, PrintStream console) {
+        this.options = options;
+        this.directory = Path.of(options.out(), options.label());
+        this.console = console;
+        csv.add("label,rate,operation,issued,ok,rejected,failed,dropped,offered_rps,achieved_rps,"
+                + "p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p99_ms,scheduler_lag_ms,saturated");
+    }
+
+    /**
+     * @return whether the step saturated the server
+     */
+    public boolean add(StepResult step) {
+        String reason = saturation(step);
+        console.printf(Locale.ROOT, "%nStep %.1f req/s: offered %.1f/s, achieved %.1f/s, errors %.2f%%, scheduler lag %d ms%s%n",
+                step.rate(), step.offeredRate(), step.achievedRate(), step.errorRatio() * 100,
+                step.maxLag().toMillis(), reason == null ? "" : " -> SATURATED (" + reason + ")");
+        console.printf(HEADER, "rate", "operation", "ok", "errors", "dropped",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        for (Map.Entry<Operation, OperationStats.Snapshot> entry : step.operations().entrySet()) {
+            if (entry.getValue().issued() > 0) {
+                add(step, entry.getKey().label(), entry.getValue(), reason != null);
+            }
+        }
+        add(step, "all", step.total(), reason != null);
+
+        if (reason == null) {
+            lastSustained = step;
+        } else if (firstSaturated == null) {
+            firstSaturated = step;
+        }
+        return reason != null;
+    }
+
+    private void add(StepResult step, String operation, OperationStats.Snapshot stats, boolean saturated) {
+        Histogram corrected = stats.corrected();
+        console.printf(Locale.ROOT, ROW, format(step.rate()), operation, stats.ok(), stats.rejected() + stats.failed(),
+                stats.dropped(), millis(corrected, 50), millis(corrected, 90), millis(corrected, 99),
+                millis(corrected, 99.9), corrected.getMaxValue() / MICROS_PER_MILLI, millis(stats.service(), 99));
+        csv.add(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%d,%d,%.2f,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%b",
+                options.label(), format(step.rate()), operation, stats.issued(), stats.ok(), stats.rejected(),
+                stats.failed(), stats.dropped(), step.offeredRate(), step.achievedRate(),
+                millis(corrected, 50), millis(corrected, 90), millis(corrected, 99), millis(corrected, 99.9),
+                corrected.getMaxValue() / MICROS_PER_MILLI, millis(stats.service(), 99),
+                step.maxLag().toMillis(), saturated));
+        write(format(step.rate()) + "rps-" + operation + ".hgrm", corrected);
+        write(format(step.rate()) + "rps-" + operation + "-service.hgrm", stats.service());
+    }
+
+    /**
+     * @return why the step counts as saturated, or null when the server kept up
+     */
+    private String saturation(StepResult step) {
+        OperationStats.Snapshot total = step.total();
+        if (total.ok() == 0) {
+            return "no successful requests";
+        }
+        double p99 = millis(total.corrected(), 99);
+        if (p99 > options.slo().toMillis()) {
+            return String.format(Locale.ROOT, "p99 %.1f ms over %d ms", p99, options.slo().toMillis());
+        }
+        if (step.errorRatio() > options.maxErrorRatio()) {
+            return String.format(Locale.ROOT, "error ratio %.2f%%", step.errorRatio() * 100);
+        }
+        if (step.achievedRate() < step.offeredRate() * THROUGHPUT_TOLERANCE) {
+            return String.format(Locale.ROOT, "achieved %.1f of %.1f req/s", step.achievedRate(), step.offeredRate());
+        }
+        return null;
+    }
+
+    public void finish() {
+        console.println();
+        if (lastSustained != null) {
+            console.printf(Locale.ROOT, "Highest sustained rate: %.1f req/s (p99 %.1f ms)%n",
+                    lastSustained.rate(), millis(lastSustained.total().corrected(), 99));
+        } else {
+            console.println("No step was sustained, start the sweep at a lower rate");
+        }
+        if (firstSaturated != null) {
+            console.printf(Locale.ROOT, "Saturation point: %.1f req/s%n", firstSaturated.rate());
+        } else {
+            console.println("Saturation point not reached, extend the sweep with higher rates");
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("summary.csv"), csv);
+            Files.writeString(directory.resolve("options.txt"), options + System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        console.println("Results written to " + directory.toAbsolutePath());
+    }
+
+    private void write(String file, Histogram histogram) {
+        try {
+            Files.createDirectories(directory);
+            try (PrintStream stream = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+                histogram.outputPercentileDistribution(stream, MICROS_PER_MILLI);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static String format(double rate) {
+        return rate == Math.rint(rate) ? Long.toString((long) rate) : Double.toString(rate);
+    }
+}
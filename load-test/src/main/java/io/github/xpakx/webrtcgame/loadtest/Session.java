@@ -0,0 +1,41 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+/**
+ * A registered user with its latest token pair.
+ * Refresh tokens are single-use on the server, so a session is only ever handed to one request at a time.
+ */
+public class Session {
+    private final String username;
+    private final String password;
+    private volatile String accessToken;
+    private volatile String refreshToken;
+
+    public Session(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    public String accessToken() {
+        return accessToken;
+    }
+
+    public String refreshToken() {
+        return refreshToken;
+    }
+
+    public void update(Tokens tokens) {
+        this.accessToken = tokens.accessToken();
+        this.refreshToken = tokens.refreshToken();
+    }
+
+    public record Tokens(String accessToken, String refreshToken) {
+    }
+}
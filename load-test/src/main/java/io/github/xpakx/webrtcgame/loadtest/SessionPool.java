@@ -0,0 +1,36 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idle sessions waiting for their next request.
+ */
+public class SessionPool {
+    private final ConcurrentLinkedQueue<Session> idle = new ConcurrentLinkedQueue<>();
+    private final String prefix;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SessionPool(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Usernames are limited to 15 characters by the server, so the run prefix and counter are kept short.
+     */
+    public String nextUsername() {
+        return prefix + Long.toString(sequence.incrementAndGet(), 36);
+    }
+
+    public Session borrow() {
+        return idle.poll();
+    }
+
+    public void release(Session session) {
+        idle.offer(session);
+    }
+
+    public int idle() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts main-server with the given command several times and measures, from process start,
+ * the first HTTP response of any kind and the first successful {@code /authenticate}.
+ * The account is registered on the first run and reused by the following ones.
+ * <pre>
+ * StartupBenchmark --runs=5 --label=aot -- docker run --rm --network host webrtcgame
+ * </pre>
+ */
+public class StartupBenchmark {
+    private static final String USAGE = """
+            Usage: StartupBenchmark [options] -- <command starting main-server>
+              --target=http://localhost:8080        main-server base URL
+              --runs=5                              number of starts
+              --timeout=180s                        give up on a start after this long
+              --poll-interval=20ms                  delay between attempts while the server is down
+              --username=startupbench               account used for /authenticate
+              --password=load-test-pass
+              --out=target/load-test                results directory
+              --label=<timestamp>                   subdirectory for this run
+            """;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String arg : Arrays.copyOfRange(args, 0, separator)) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                System.err.println("Unrecognized argument: " + arg);
+                System.err.print(USAGE);
+                System.exit(2);
+            }
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        URI target = URI.create(values.getOrDefault("target", "http://localhost:8080"));
+        int runs = Integer.parseInt(values.getOrDefault("runs", "5"));
+        Duration timeout = LoadTestOptions.duration(values.getOrDefault("timeout", "180s"));
+        Duration pollInterval = LoadTestOptions.duration(values.getOrDefault("poll-interval", "20ms"));
+        Session session = new Session(
+                values.getOrDefault("username", "startupbench"),
+                values.getOrDefault("password", "load-test-pass")
+        );
+        String label = values.getOrDefault("label", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Path directory = Path.of(values.getOrDefault("out", "target/load-test"), label);
+        Files.createDirectories(directory);
+
+        AuthApiClient client = new AuthApiClient(target, REQUEST_TIMEOUT);
+        List<String> csv = new ArrayList<>();
+        csv.add("label,run,first_response_ms,first_authenticate_ms");
+        List<Long> firstResponses = new ArrayList<>();
+        List<Long> firstLogins = new ArrayList<>();
+        System.out.println("Startup benchmark " + label + ": " + String.join(" ", command));
+        for (int run = 1; run <= runs; run++) {
+            File log = directory.resolve("startup-" + run + ".log").toFile();
+            Timing timing = measure(command, log, client, session, timeout, pollInterval);
+            if (timing == null) {
+                System.err.println("Run " + run + ": no successful /authenticate within " + timeout + ", see " + log);
+                System.exit(1);
+            }
+            firstResponses.add(timing.firstResponseMillis());
+            firstLogins.add(timing.firstLoginMillis());
+            csv.add(label + "," + run + "," + timing.firstResponseMillis() + "," + timing.firstLoginMillis());
+            System.out.printf("Run %d: first response %d ms, first /authenticate %d ms%n",
+                    run, timing.firstResponseMillis(), timing.firstLoginMillis());
+        }
+        System.out.println();
+        System.out.println("first response     " + summary(firstResponses));
+        System.out.println("first /authenticate " + summary(firstLogins));
+        Files.write(directory.resolve("startup.csv"), csv);
+        System.out.println("Results written to " + directory.toAbsolutePath());
+    }
+
+    private static Timing measure(List<String> command, File log, AuthApiClient client, Session session,
+                                  Duration timeout, Duration pollInterval) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            long firstResponse = -1;
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                AuthApiClient.Response response;
+                try {
+                    response = client.authenticate(session);
+                } catch (IOException e) {
+                    Thread.sleep(pollInterval);
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (firstResponse < 0) {
+                    firstResponse = now;
+                }
+                if (response.ok()) {
+                    return new Timing(millis(firstResponse - start), millis(now - start));
+                }
+                if (response.status() == 401) {
+                    // account doesn't exist yet, later runs reuse it
+                    client.register(session);
+                } else {
+                    Thread.sleep(pollInterval);
+                }
+            }
+            return null;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String summary(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return String.format(Locale.ROOT, "min %d ms, median %d ms, max %d ms",
+                sorted.getFirst(), sorted.get(sorted.size() / 2), sorted.getLast());
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private record Timing(long firstResponseMillis, long firstLoginMillis) {
+    }
+}
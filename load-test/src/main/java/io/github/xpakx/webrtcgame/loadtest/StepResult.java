@@ -0,0 +1,46 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of one step.
+ *
+ * @param window   time between the end of warmup and the end of scheduling
+ * @param elapsed  time between the end of warmup and the last response, longer than {@code window}
+ *                 when the server built up a backlog
+ * @param maxLag   how far the scheduler fell behind its own schedule, a large value means the generator
+ *                 and not the server was the bottleneck
+ */
+public record StepResult(
+        double rate,
+        Duration window,
+        Duration elapsed,
+        Duration maxLag,
+        Map<Operation, OperationStats.Snapshot> operations
+) {
+    public OperationStats.Snapshot total() {
+        OperationStats.Snapshot total = null;
+        for (OperationStats.Snapshot snapshot : operations.values()) {
+            total = total == null ? snapshot : total.merge(snapshot);
+        }
+        return total;
+    }
+
+    public double offeredRate() {
+        return total().issued() / seconds(window);
+    }
+
+    public double achievedRate() {
+        return total().ok() / seconds(elapsed);
+    }
+
+    public double errorRatio() {
+        OperationStats.Snapshot total = total();
+        return total.issued() == 0 ? 0.0 : (double) total.errors() / total.issued();
+    }
+
+    private static double seconds(Duration duration) {
+        return Math.max(duration.toNanos(), 1) / 1e9;
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.xpakx.webrtcgame.loadtest;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maps an operation to the requests a real client would send.
+ */
+public class Workload {
+    private static final int LEADERBOARD_PAGES = 5;
+
+    private final AuthApiClient client;
+    private final SessionPool sessions;
+    private final String password;
+
+    public Workload(AuthApiClient client, SessionPool sessions, String password) {
+        this.client = client;
+        this.sessions = sessions;
+        this.password = password;
+    }
+
+    public Outcome execute(Operation operation) {
+        try {
+            if (operation == Operation.REGISTER) {
+                Session session = new Session(sessions.nextUsername(), password);
+                AuthApiClient.Response response = client.register(session);
+                if (response.ok()) {
+                    sessions.release(session);
+                }
+                return Outcome.of(response);
+            }
+            Session session = sessions.borrow();
+            if (session == null) {
+                return Outcome.NO_SESSION;
+            }
+            try {
+                return Outcome.of(switch (operation) {
+                    case AUTHENTICATE -> client.authenticate(session);
+                    case REFRESH -> client.refresh(session);
+                    case GET -> client.get(session, leaderboardPage());
+                    case REGISTER -> throw new IllegalStateException();
+                });
+            } finally {
+                sessions.release(session);
+            }
+        } catch (IOException e) {
+            return Outcome.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.FAILED;
+        }
+    }
+
+    private String leaderboardPage() {
+        return "/leaderboard?page=" + ThreadLocalRandom.current().nextInt(LEADERBOARD_PAGES);
+    }
+
+    public enum Outcome {
+        OK,
+        /**
+         * Shed by the server with 429 or 503.
+         */
+        REJECTED,
+        FAILED,
+        /**
+         * Every session was busy, so nothing was sent.
+         */
+        NO_SESSION;
+
+        static Outcome of(AuthApiClient.Response response) {
+            if (response.ok()) {
+                return OK;
+            }
+            return response.rejected() ? REJECTED : FAILED;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.xpakx.webrtcgame.error;
+
+import ch.qos.logback.classic.Logger;
+import io.github.xpakx.webrtcgame.jwt.JwtAuthenticationEntryPoint;
+import io.github.xpakx.webrtcgame.user.AccountService;
+import io.github.xpakx.webrtcgame.user.AuthController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Cost of a rejected login through MVC exception handling and of a 401 from the entry point,
+ * run with {@code -prof gc} to see allocations per rejected request. Password checking is stubbed out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 6, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectedRequestBenchmark {
+    private static final byte[] LOGIN = "{\"username\":\"benchmark\",\"password\":\"wrong\"}".getBytes();
+
+    private MockMvc mvc;
+    private JwtAuthenticationEntryPoint entryPoint;
+    private MockHttpServletRequest request;
+    private InsufficientAuthenticationException authException;
+
+    @Setup
+    public void setup() {
+        // without a logback configuration everything is logged at DEBUG, which would dominate the numbers
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        AuthenticationManager rejectAll = (authentication) -> {
+            throw new BadCredentialsException("Bad credentials");
+        };
+        AccountService service = new AccountService(null, null, null, null, rejectAll, null, new SimpleMeterRegistry());
+        ErrorBodies errorBodies = new ErrorBodies(JsonMapper.builder().build());
+        mvc = MockMvcBuilders.standaloneSetup(new AuthController(service))
+                .setControllerAdvice(new GlobalExceptionHandler(errorBodies))
+                .build();
+        entryPoint = new JwtAuthenticationEntryPoint(errorBodies);
+        request = new MockHttpServletRequest("GET", "/leaderboard");
+        authException = new InsufficientAuthenticationException("Full authentication is required");
+    }
+
+    @Benchmark
+    public int rejectedLogin() throws Exception {
+        return mvc.perform(post("/authenticate").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+
+    @Benchmark
+    public int unauthenticated() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        entryPoint.commence(request, response, authException);
+        return response.getContentLength();
+    }
+}
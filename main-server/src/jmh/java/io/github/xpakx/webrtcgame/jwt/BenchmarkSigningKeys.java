@@ -0,0 +1,22 @@
+package io.github.xpakx.webrtcgame.jwt;
+
+import io.github.xpakx.webrtcgame.jwt.keys.SigningKeys;
+import io.jsonwebtoken.Jwts;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+class BenchmarkSigningKeys implements SigningKeys {
+    private static final String KID = "benchmark";
+    private final KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+
+    @Override
+    public ActiveKey activeKey() {
+        return new ActiveKey(KID, keyPair.getPrivate());
+    }
+
+    @Override
+    public PublicKey publicKey(String kid) {
+        return KID.equals(kid) ? keyPair.getPublic() : null;
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.xpakx.webrtcgame.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+    static final String SECRET = "0ddf5597e02d981f8803c4cc11f015a4e52679d706edb29b595d9e466def5bcf95273a3053ab5d97ee893c23e4023b912daefaade316406a33b7685d4d223dfa";
+
+    private JwtUtils jwtUtils;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils(SECRET, new BenchmarkSigningKeys(), new ClaimsCache(10_000), new SimpleMeterRegistry());
+        userDetails = new User("benchmark", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtUtils.generateRefreshToken("benchmark", 0);
+    }
+
+    @Benchmark
+    public Claims getAllClaimsFromToken() {
+        return jwtUtils.getAllClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public Claims getVerifiedClaims() {
+        return jwtUtils.getVerifiedClaims(token);
+    }
+}
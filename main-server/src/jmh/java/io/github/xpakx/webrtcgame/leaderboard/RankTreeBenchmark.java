@@ -0,0 +1,88 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard queries at one million players. {@code linearRank} counts better scores over plain arrays,
+ * as a lower bound of what an {@code ORDER BY score OFFSET} query has to do for each rank lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RankTreeBenchmark {
+    private static final int PLAYERS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int RADIUS = 10;
+
+    private RankTree tree;
+    private long[] scores;
+    private long[] pageIds;
+    private long[] pageScores;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        random = new SplittableRandom(42);
+        tree = new RankTree(PLAYERS);
+        scores = new long[PLAYERS + 1];
+        for (int id = 1; id <= PLAYERS; id++) {
+            scores[id] = score();
+            tree.put(id, scores[id]);
+        }
+        pageIds = new long[Math.max(PAGE_SIZE, 2 * RADIUS + 1)];
+        pageScores = new long[pageIds.length];
+    }
+
+    @Benchmark
+    public int rank() {
+        return tree.rank(randomId());
+    }
+
+    @Benchmark
+    public int topPage() {
+        return tree.range(0, PAGE_SIZE, pageIds, pageScores);
+    }
+
+    @Benchmark
+    public int aroundMe() {
+        int rank = tree.rank(randomId());
+        int from = Math.max(0, rank - RADIUS);
+        return tree.range(from, rank - from + RADIUS + 1, pageIds, pageScores);
+    }
+
+    @Benchmark
+    public int update() {
+        int id = randomId();
+        scores[id] += random.nextInt(1, 600);
+        tree.put(id, scores[id]);
+        return id;
+    }
+
+    @Benchmark
+    public int linearRank() {
+        int id = randomId();
+        long score = scores[id];
+        int rank = 0;
+        for (int other = 1; other <= PLAYERS; other++) {
+            if (scores[other] > score || (scores[other] == score && other < id)) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    private int randomId() {
+        return random.nextInt(1, PLAYERS + 1);
+    }
+
+    // most players have played a few matches, few have played a lot
+    private long score() {
+        return (long) (-Math.log(1 - random.nextDouble()) * 20_000);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.xpakx.webrtcgame.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead the rate limiter adds to a request when several request threads share the table.
+ * Most keys are seen once, as with clients rotating addresses, with a few hot ones that hit their limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TokenBucketTableBenchmark {
+    private TokenBucketTable table;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+
+        long key() {
+            return random.nextInt(8) == 0 ? random.nextInt(16) : random.nextLong();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        table = new TokenBucketTable(new RateLimit(30, Duration.ofMinutes(1)), 65536);
+    }
+
+    @Benchmark
+    public long tryAcquire(Client client) {
+        return table.tryAcquire(client.key(), System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.xpakx.webrtcgame.user;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    private UserService userService;
+    private Account account;
+
+    @Setup
+    public void setup() {
+        userService = new UserService(null, null);
+        account = new Account();
+        account.setId(1L);
+        account.setUsername("benchmark");
+        account.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2V6b9j9bYy5y5v5z5y5y5y5");
+        account.setRoles(Role.USER.mask() | Role.MODERATOR.mask());
+    }
+
+    @Benchmark
+    public UserDetails userAccountToUserDetails() {
+        return userService.userAccountToUserDetails(account);
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.xpakx.webrtcgame.error;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized {@link ErrorResponse} bodies without field errors, kept per status and message.
+ * Almost all failures use a handful of fixed messages, so after warmup an error response costs a map lookup.
+ * Messages with user input in them could grow the cache without limit, so past {@code MAX_CACHED}
+ * bodies are serialized on every call instead.
+ */
+@Component
+public class ErrorBodies {
+    private static final int MAX_CACHED = 256;
+
+    private final JsonMapper jsonMapper;
+    private final Map<HttpStatus, ConcurrentHashMap<String, byte[]>> bodies = new EnumMap<>(HttpStatus.class);
+
+    public ErrorBodies(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        for (HttpStatus status : HttpStatus.values()) {
+            bodies.put(status, new ConcurrentHashMap<>());
+        }
+    }
+
+    public byte[] of(HttpStatus status, String message) {
+        ConcurrentHashMap<String, byte[]> byMessage = bodies.get(status);
+        String key = message != null ? message : "";
+        byte[] body = byMessage.get(key);
+        if (body != null) {
+            return body;
+        }
+        body = serialize(status, message);
+        if (byMessage.size() < MAX_CACHED) {
+            byMessage.putIfAbsent(key, body);
+        }
+        return body;
+    }
+
+    private byte[] serialize(HttpStatus status, String message) {
+        return jsonMapper.writeValueAsBytes(new ErrorResponse(
+                message,
+                status.getReasonPhrase(),
+                status.value(),
+                null
+        ));
+    }
+}
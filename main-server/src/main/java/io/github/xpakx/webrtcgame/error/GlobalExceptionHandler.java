@@ -7,6 +7,7 @@ import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,33 +21,59 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Bodies without field errors are written as pre-serialized bytes from {@link ErrorBodies},
+ * so failed logins and other expected rejections skip JSON serialization.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    private static final ClassValue<HttpStatus> STATUSES = new ClassValue<>() {
+        @Override
+        protected HttpStatus computeValue(Class<?> type) {
+            ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(type, ResponseStatus.class);
+            return status != null ? status.code() : HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+    };
+
+    private final ErrorBodies errorBodies;
+
+    public GlobalExceptionHandler(ErrorBodies errorBodies) {
+        this.errorBodies = errorBodies;
+    }
 
     @ExceptionHandler(RuntimeException.class)
     protected ResponseEntity<Object> handleException(RuntimeException ex, WebRequest request) {
-        HttpStatus status = getStatus(ex);
+        HttpStatus status = STATUSES.get(ex.getClass());
         return handleExceptionInternal(
                 ex,
                 constructErrorBody(ex, status),
-                new HttpHeaders(),
+                jsonHeaders(),
                 status,
                 request
         );
     }
 
-    private ErrorResponse constructErrorBody(RuntimeException ex, HttpStatus status) {
-        return new ErrorResponse(
-                ex.getMessage(),
-                status.getReasonPhrase(),
-                status.value(),
-                null
-        );
+    private byte[] constructErrorBody(RuntimeException ex, HttpStatus status) {
+        return errorBodies.of(status, ex.getMessage());
+    }
+
+    private HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
     }
 
-    private HttpStatus getStatus(RuntimeException ex) {
-        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(ex.getClass(), ResponseStatus.class);
-        return status != null ? status.code() : HttpStatus.INTERNAL_SERVER_ERROR;
+    @ExceptionHandler(ServiceOverloadedException.class)
+    protected ResponseEntity<Object> handleServiceOverloadedException(ServiceOverloadedException ex, WebRequest request) {
+        HttpHeaders headers = jsonHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return handleExceptionInternal(
+                ex,
+                constructErrorBody(ex, HttpStatus.SERVICE_UNAVAILABLE),
+                headers,
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request
+        );
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -105,7 +132,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(
                 ex,
                 constructErrorBody(ex, HttpStatus.FORBIDDEN),
-                new HttpHeaders(),
+                jsonHeaders(),
                 HttpStatus.FORBIDDEN,
                 request
         );
@@ -116,7 +143,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(
                 ex,
                 constructErrorBody(ex, HttpStatus.FORBIDDEN),
-                new HttpHeaders(),
+                jsonHeaders(),
                 HttpStatus.FORBIDDEN,
                 request
         );
@@ -0,0 +1,55 @@
+package io.github.xpakx.webrtcgame.hashing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt work factor for the current hardware: the highest strength
+ * whose single hash still fits into the target latency, but never below the configured minimum.
+ */
+public class BCryptCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCalibrator.class);
+    private static final int MAX_STRENGTH = 31;
+    private static final int SAMPLES = 2;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private final Duration targetLatency;
+    private final int minStrength;
+
+    public BCryptCalibrator(Duration targetLatency, int minStrength) {
+        this.targetLatency = targetLatency;
+        this.minStrength = minStrength;
+    }
+
+    public int calibrate() {
+        int strength = minStrength;
+        long targetNanos = targetLatency.toNanos();
+        long nanos = measure(strength);
+        while (strength < MAX_STRENGTH) {
+            // every step doubles the cost, so the next strength can be estimated before trying it
+            if (nanos * 2 > targetNanos) {
+                break;
+            }
+            strength++;
+            nanos = measure(strength);
+        }
+        logger.info("BCrypt strength calibrated to {} ({} ms per hash, target {} ms)",
+                strength, nanos / 1_000_000, targetLatency.toMillis());
+        return strength;
+    }
+
+    private long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.xpakx.webrtcgame.hashing;
+
+import io.github.xpakx.webrtcgame.error.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of platform threads for CPU-bound password hashing, kept apart from request threads.
+ * Tasks that don't fit into the wait queue are rejected immediately with {@link ServiceOverloadedException}.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(
+            @Value("${hashing.pool-size:0}") int poolSize,
+            @Value("${hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${hashing.retry-after:1}") long retryAfterSeconds,
+            MeterRegistry registry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.encodeTimer = Timer.builder("auth.hashing.duration")
+                .tag("operation", "encode")
+                .register(registry);
+        this.matchTimer = Timer.builder("auth.hashing.duration")
+                .tag("operation", "matches")
+                .register(registry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .register(registry);
+        Gauge.builder("auth.hashing.queue.depth", executor, (e) -> e.getQueue().size())
+                .register(registry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    public String encode(Supplier<String> task) {
+        return execute(task, encodeTimer);
+    }
+
+    public boolean matches(Supplier<Boolean> task) {
+        return execute(task, matchTimer);
+    }
+
+    private <T> T execute(Supplier<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Server is busy, try again later!", retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package io.github.xpakx.webrtcgame.jwt;
 
+import io.github.xpakx.webrtcgame.error.ErrorBodies;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
@@ -11,18 +13,19 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
+    private final byte[] body;
+
+    public JwtAuthenticationEntryPoint(ErrorBodies errorBodies) {
+        this.body = errorBodies.of(HttpStatus.UNAUTHORIZED, "You are unauthorized!");
+    }
+
     @Override
     public void commence(HttpServletRequest request,
                          HttpServletResponse response,
                          AuthenticationException authException) throws IOException {
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json;charset=UTF-8");
-        String errorMsg = """
-                {
-                    "error" : %d,
-                    "status": "%s",
-                    "message": "%s"
-                }""".formatted(HttpStatus.UNAUTHORIZED.value(), HttpStatus.UNAUTHORIZED.getReasonPhrase(), "You are unauthorized!");
-        response.getWriter().write(errorMsg);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
     }
-}
\ No newline at end of file
+}
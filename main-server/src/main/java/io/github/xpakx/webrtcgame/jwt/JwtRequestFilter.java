@@ -1,18 +1,20 @@
 package io.github.xpakx.webrtcgame.jwt;
 
+import io.github.xpakx.webrtcgame.user.Role;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -26,10 +28,28 @@ import java.util.Collections;
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
     private final JwtUtils jwt;
+    private final Counter expired;
+    private final Counter unsupported;
+    private final Counter malformed;
+    private final Counter missingHeader;
+    private final Counter refreshToken;
+
+    public JwtRequestFilter(JwtUtils jwt, MeterRegistry registry) {
+        this.jwt = jwt;
+        this.expired = failures("expired", registry);
+        this.unsupported = failures("unsupported", registry);
+        this.malformed = failures("malformed", registry);
+        this.missingHeader = failures("missing_header", registry);
+        this.refreshToken = failures("refresh_token", registry);
+    }
 
+    private static Counter failures(String reason, MeterRegistry registry) {
+        return Counter.builder("auth.token.failures")
+                .tag("reason", reason)
+                .register(registry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -37,35 +57,33 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             authenticateUser(request);
             logger.debug("User authenticated");
         } catch(ExpiredJwtException ex) {
-            logger.warn("JWT token is expired");
+            expired.increment();
         } catch(UnsupportedJwtException ex) {
-            logger.warn("JWT token is unsupported");
+            unsupported.increment();
         } catch(MalformedJwtException ex) {
-            logger.warn("JWT token is malformed");
+            malformed.increment();
         }
         filterChain.doFilter(request, response);
     }
 
     private void authenticateUser(HttpServletRequest request) {
         if(this.isAuthMissing(request)) {
-            logger.warn("Authorization header is missing in request");
+            missingHeader.increment();
             return;
         }
 
         final String token = this.getAuthHeader(request).substring(7);
-        logger.debug("Token is "+ token);
 
-        if(jwt.isInvalid(token)) {
-            logger.warn("Authorization token is invalid");
+        Claims claims = jwt.getVerifiedClaims(token);
+        logger.debug("Claims received from token");
+        // refresh tokens are signed by the same service, but may only be exchanged at /refresh
+        if (claims != null && Boolean.TRUE.equals(claims.get("refresh", Boolean.class))) {
+            refreshToken.increment();
             return;
         }
 
-        Claims claims = jwt.getAllClaimsFromToken(token);
-        logger.debug("Claims received from token");
-
         if(claims != null && claims.getSubject() != null && !isUserAlreadyAuthenticated()) {
             UserDetails userDetails = createUserDetails(claims);
-            logger.debug("UserDetails object for user " + userDetails.getUsername() + " created");
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
             authToken
@@ -84,11 +102,11 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         return new User(claims.getSubject(), "", getAuthoritiesFromClaims(claims));
     }
 
-    private List<SimpleGrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
+    private List<GrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
         Object roles = claims.get("roles");
         if (roles instanceof List<?>) {
             return ((List<?>) roles).stream()
-                    .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                    .map(role -> Role.authority(String.valueOf(role)))
                     .toList();
         }
         return Collections.emptyList();
@@ -106,6 +124,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
-        return path.equals("/authenticate") || path.equals("/register") || path.equals("/refresh");
+        return path.equals("/authenticate") || path.equals("/register") || path.equals("/refresh")
+                || path.equals("/tokens/revoke") || path.equals("/.well-known/jwks.json")
+                || path.equals("/actuator/health") || path.equals("/actuator/prometheus");
     }
 }
\ No newline at end of file
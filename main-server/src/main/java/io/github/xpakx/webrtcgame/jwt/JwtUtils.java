@@ -1,9 +1,16 @@
 package io.github.xpakx.webrtcgame.jwt;
 
+import io.github.xpakx.webrtcgame.jwt.revocation.TokenRevocationService;
+import io.github.xpakx.webrtcgame.jwt.keys.SigningKeys;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,8 +18,12 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -21,12 +32,34 @@ public class JwtUtils {
     public static final long JWT_TOKEN_VALIDITY = 10 * 60;
     public static final long JWT_REFRESH_TOKEN_VALIDITY = 30 * 24 * 60 * 60;
 
+    /**
+     * Signs refresh tokens, which are only ever verified by this service.
+     * Access tokens are signed with rotating ES256 keys published as JWKS, so game nodes can verify them locally.
+     */
     private final SecretKey key;
+    private final SigningKeys signingKeys;
     private final JwtParser parser;
+    private final ClaimsCache claimsCache;
+    private final Timer validTokens;
+    private final Timer invalidTokens;
 
-    public JwtUtils(@Value("${jwt.secret}") String secret) {
+    public JwtUtils(
+            @Value("${jwt.secret}") String secret,
+            SigningKeys signingKeys,
+            ClaimsCache claimsCache,
+            MeterRegistry registry) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        this.parser = Jwts.parser().verifyWith(key).build();
+        this.signingKeys = signingKeys;
+        this.parser = Jwts.parser().keyLocator(new TokenKeyLocator()).build();
+        this.claimsCache = claimsCache;
+        this.validTokens = Timer.builder("auth.token.verification")
+                .description("Parsing and signature verification of tokens, cache hits excluded")
+                .tag("outcome", "valid")
+                .register(registry);
+        this.invalidTokens = Timer.builder("auth.token.verification")
+                .description("Parsing and signature verification of tokens, cache hits excluded")
+                .tag("outcome", "invalid")
+                .register(registry);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -35,19 +68,23 @@ public class JwtUtils {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
+        SigningKeys.ActiveKey signingKey = signingKeys.activeKey();
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .subject(userDetails.getUsername())
                 .claim("roles", roles)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY * 1000))
-                .signWith(key)
+                .signWith(signingKey.privateKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
-    public String generateRefreshToken(String username) {
+    public String generateRefreshToken(String username, int generation) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .claim("refresh", true)
+                .claim(TokenRevocationService.GENERATION_CLAIM, generation)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + JWT_REFRESH_TOKEN_VALIDITY * 1000))
                 .signWith(key)
@@ -55,11 +92,27 @@ public class JwtUtils {
     }
 
     public Claims getAllClaimsFromToken(String token) {
-        return parser.parseSignedClaims(token).getPayload();
+        long start = System.nanoTime();
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            validTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            invalidTokens.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Verifies signature and expiration of the token once and caches resulting claims until the token expires.
+     * Throws the same {@link io.jsonwebtoken.JwtException} subclasses as the parser on invalid tokens.
+     */
+    public Claims getVerifiedClaims(String token) {
+        return claimsCache.get(token, this::getAllClaimsFromToken);
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
+        final Claims claims = getVerifiedClaims(token);
         return claimsResolver.apply(claims);
     }
 
@@ -83,4 +136,19 @@ public class JwtUtils {
     public boolean isInvalid(String token) {
         return this.isTokenExpired(token);
     }
-}
\ No newline at end of file
+
+    private class TokenKeyLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                return key;
+            }
+            PublicKey publicKey = signingKeys.publicKey(kid);
+            if (publicKey == null) {
+                throw new UnsupportedJwtException("Unknown signing key " + kid);
+            }
+            return publicKey;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.xpakx.webrtcgame.jwt.keys;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    private final SigningKeyService signingKeyService;
+
+    @Value("${jwt.keys.jwks-max-age:5m}")
+    private Duration maxAge;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    public ResponseEntity<byte[]> jwks(WebRequest request) {
+        String eTag = signingKeyService.jwksETag();
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(304)
+                    .cacheControl(cacheControl)
+                    .eTag(eTag)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .contentType(MediaType.parseMediaType("application/jwk-set+json"))
+                .body(signingKeyService.jwks());
+    }
+}
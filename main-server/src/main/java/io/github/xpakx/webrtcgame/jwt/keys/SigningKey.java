@@ -0,0 +1,47 @@
+package io.github.xpakx.webrtcgame.jwt.keys;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "signing_key")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SigningKey {
+    @Id
+    @EqualsAndHashCode.Include
+    private String kid;
+
+    @Column(nullable = false)
+    private String algorithm;
+
+    /**
+     * X.509 encoded public key.
+     */
+    @Column(nullable = false)
+    private byte[] publicKey;
+
+    /**
+     * PKCS#8 encoded private key, encrypted with a key derived from {@code jwt.secret}.
+     */
+    @Column(nullable = false)
+    private byte[] privateKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Set when a newer key takes over signing; the key still verifies tokens until {@code expiresAt}.
+     */
+    private Instant retiredAt;
+
+    private Instant expiresAt;
+}
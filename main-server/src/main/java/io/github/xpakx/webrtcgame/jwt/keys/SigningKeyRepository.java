@@ -0,0 +1,41 @@
+package io.github.xpakx.webrtcgame.jwt.keys;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+    @Query("SELECT k FROM SigningKey k WHERE k.expiresAt IS NULL OR k.expiresAt > :now ORDER BY k.createdAt DESC")
+    List<SigningKey> findUsable(@Param("now") Instant now);
+
+    /**
+     * Marks the key as replaced; returns 0 if another node has already retired it.
+     */
+    @Modifying
+    @Query("UPDATE SigningKey k SET k.retiredAt = :now, k.expiresAt = :expiresAt WHERE k.kid = :kid AND k.retiredAt IS NULL")
+    int retire(@Param("kid") String kid, @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Inserts a new active key unless there already is one; returns 0 if another node got there first.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO signing_key (kid, algorithm, public_key, private_key, created_at)
+            VALUES (:kid, :algorithm, :publicKey, :privateKey, :createdAt)
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int insertActive(
+            @Param("kid") String kid,
+            @Param("algorithm") String algorithm,
+            @Param("publicKey") byte[] publicKey,
+            @Param("privateKey") byte[] privateKey,
+            @Param("createdAt") Instant createdAt
+    );
+
+    @Modifying
+    @Query("DELETE FROM SigningKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,237 @@
+package io.github.xpakx.webrtcgame.jwt.keys;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * ES256 keys for access tokens, shared by all nodes through the {@code signing_key} table.
+ * The newest key signs; retired keys keep verifying until tokens signed with them
+ * and JWKS copies cached by game nodes are gone. Rotation is done by whichever node notices first.
+ * Keys are loaded when the context starts rather than when the bean is created, so a refresh-only
+ * training run of the image never needs the database.
+ */
+@Service
+public class SigningKeyService implements SigningKeys, SmartLifecycle {
+    private static final String ALGORITHM = "ES256";
+    private static final int IV_LENGTH = 12;
+
+    private final SigningKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final SecretKeySpec encryptionKey;
+    private final Duration rotationInterval;
+    private final Duration overlap;
+    private final long unknownKidReloadNanos;
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile boolean running;
+    private volatile long lastReload = System.nanoTime();
+    private volatile KeySet keys = new KeySet(null, Map.of(), "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8), "\"empty\"");
+
+    public SigningKeyService(
+            SigningKeyRepository repository,
+            TransactionTemplate transactionTemplate,
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.keys.rotation-interval:24h}") Duration rotationInterval,
+            @Value("${jwt.keys.overlap:1h}") Duration overlap,
+            @Value("${jwt.keys.unknown-kid-reload-interval:5s}") Duration unknownKidReloadInterval) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.encryptionKey = new SecretKeySpec(sha256(secret.getBytes(StandardCharsets.UTF_8)), "AES");
+        this.rotationInterval = rotationInterval;
+        this.overlap = overlap;
+        this.unknownKidReloadNanos = unknownKidReloadInterval.toNanos();
+    }
+
+    @Override
+    public void start() {
+        refresh();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // before the web server starts accepting requests
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public ActiveKey activeKey() {
+        return keys.active();
+    }
+
+    @Override
+    public PublicKey publicKey(String kid) {
+        PublicKey key = keys.publicKeys().get(kid);
+        return key != null ? key : reloadFor(kid);
+    }
+
+    /**
+     * A key rotated in by another node signs tokens before the scheduled refresh sees it here.
+     * Garbage kids would otherwise turn into a query each, so reloads are spaced out.
+     */
+    private synchronized PublicKey reloadFor(String kid) {
+        PublicKey key = keys.publicKeys().get(kid);
+        if (key != null || System.nanoTime() - lastReload < unknownKidReloadNanos) {
+            return key;
+        }
+        keys = buildKeySet(repository.findUsable(Instant.now()));
+        lastReload = System.nanoTime();
+        return keys.publicKeys().get(kid);
+    }
+
+    /**
+     * JWK Set of all keys that can still verify tokens, serialized once per key change.
+     */
+    public byte[] jwks() {
+        return keys.jwks();
+    }
+
+    public String jwksETag() {
+        return keys.eTag();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys.refresh-interval:60000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        List<SigningKey> usable = repository.findUsable(now);
+        SigningKey active = usable.stream()
+                .filter((key) -> key.getRetiredAt() == null)
+                .findFirst()
+                .orElse(null);
+        if (active == null || active.getCreatedAt().plus(rotationInterval).isBefore(now)) {
+            rotate(active, now);
+            usable = repository.findUsable(now);
+        }
+        keys = buildKeySet(usable);
+        lastReload = System.nanoTime();
+        transactionTemplate.executeWithoutResult((status) -> repository.deleteExpired(now));
+    }
+
+    private void rotate(SigningKey current, Instant now) {
+        transactionTemplate.executeWithoutResult((status) -> {
+            if (current != null && repository.retire(current.getKid(), now, now.plus(overlap)) == 0) {
+                return;
+            }
+            // with no key yet, nodes starting together race here; the unique index lets only one insert win
+            KeyPair pair = Jwts.SIG.ES256.keyPair().build();
+            repository.insertActive(
+                    UUID.randomUUID().toString(),
+                    ALGORITHM,
+                    pair.getPublic().getEncoded(),
+                    encrypt(pair.getPrivate().getEncoded()),
+                    now
+            );
+        });
+    }
+
+    private KeySet buildKeySet(List<SigningKey> usable) {
+        Map<String, PublicKey> publicKeys = usable.stream()
+                .collect(Collectors.toUnmodifiableMap(SigningKey::getKid, this::toPublicKey));
+        ActiveKey active = usable.stream()
+                .filter((key) -> key.getRetiredAt() == null)
+                .findFirst()
+                .map((key) -> new ActiveKey(key.getKid(), toPrivateKey(key)))
+                .orElseThrow(() -> new IllegalStateException("No active signing key"));
+        String json = usable.stream()
+                .map((key) -> toJwk(key.getKid(), publicKeys.get(key.getKid())))
+                .map(Jwks::json)
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        byte[] jwks = json.getBytes(StandardCharsets.UTF_8);
+        return new KeySet(active, publicKeys, jwks, "\"" + HexFormat.of().formatHex(sha256(jwks)) + "\"");
+    }
+
+    private PublicJwk<?> toJwk(String kid, PublicKey key) {
+        return Jwks.builder()
+                .key((ECPublicKey) key)
+                .id(kid)
+                .algorithm(ALGORITHM)
+                .publicKeyUse("sig")
+                .build();
+    }
+
+    private PublicKey toPublicKey(SigningKey key) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(key.getPublicKey()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode public key " + key.getKid(), e);
+        }
+    }
+
+    private PrivateKey toPrivateKey(SigningKey key) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(decrypt(key.getPrivateKey())));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode private key " + key.getKid(), e);
+        }
+    }
+
+    private byte[] encrypt(byte[] plain) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(128, iv));
+            byte[] encrypted = cipher.doFinal(plain);
+            return ByteBuffer.allocate(IV_LENGTH + encrypted.length)
+                    .put(iv)
+                    .put(encrypted)
+                    .array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt signing key", e);
+        }
+    }
+
+    private byte[] decrypt(byte[] encrypted) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(128, encrypted, 0, IV_LENGTH));
+            return cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decrypt signing key", e);
+        }
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record KeySet(ActiveKey active, Map<String, PublicKey> publicKeys, byte[] jwks, String eTag) {
+    }
+}
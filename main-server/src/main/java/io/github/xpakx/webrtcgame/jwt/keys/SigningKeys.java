@@ -0,0 +1,16 @@
+package io.github.xpakx.webrtcgame.jwt.keys;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+public interface SigningKeys {
+    ActiveKey activeKey();
+
+    /**
+     * @return verification key with given id, null if it is unknown or expired
+     */
+    PublicKey publicKey(String kid);
+
+    record ActiveKey(String kid, PrivateKey privateKey) {
+    }
+}
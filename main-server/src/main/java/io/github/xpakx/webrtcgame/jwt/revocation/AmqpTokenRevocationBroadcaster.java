@@ -0,0 +1,48 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@RequiredArgsConstructor
+public class AmqpTokenRevocationBroadcaster implements TokenRevocationBroadcaster {
+    static final String EXCHANGE = "token.revocation";
+    private static final String GENERATION = "generation";
+    private static final String REVOKED_TOKEN = "revoked";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publishGeneration(String username, int generation) {
+        rabbitTemplate.convertAndSend(EXCHANGE, GENERATION, generation + ":" + username);
+    }
+
+    @Override
+    public void publishRevokedToken(long tokenHash, long expiresAtEpochSecond) {
+        rabbitTemplate.convertAndSend(EXCHANGE, REVOKED_TOKEN, tokenHash + ":" + expiresAtEpochSecond);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @RabbitListener(queues = "#{tokenRevocationQueue.name}")
+    public void onMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        String first = body.substring(0, separator);
+        String second = body.substring(separator + 1);
+        if (GENERATION.equals(message.getMessageProperties().getReceivedRoutingKey())) {
+            listeners.forEach((listener) -> listener.onGeneration(second, Integer.parseInt(first)));
+        } else {
+            listeners.forEach((listener) -> listener.onRevokedToken(Long.parseLong(first), Long.parseLong(second)));
+        }
+    }
+}
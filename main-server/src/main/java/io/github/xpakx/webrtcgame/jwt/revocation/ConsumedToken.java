@@ -0,0 +1,4 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+public record ConsumedToken(long tokenHash, long expiresAtEpochSecond) {
+}
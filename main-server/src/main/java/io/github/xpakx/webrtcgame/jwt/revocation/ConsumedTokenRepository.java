@@ -0,0 +1,46 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Durable record of consumed refresh token ids, written behind by {@link TokenRevocationService}
+ * and read back only at startup.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConsumedTokenRepository {
+    private static final String INSERT = """
+            INSERT INTO consumed_refresh_token (token_hash, expires_at)
+            VALUES (?, to_timestamp(?))
+            ON CONFLICT (token_hash) DO NOTHING""";
+    private static final String FIND_UNEXPIRED = """
+            SELECT token_hash, extract(epoch FROM expires_at)::bigint
+            FROM consumed_refresh_token WHERE expires_at >= to_timestamp(?)""";
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM consumed_refresh_token WHERE expires_at < to_timestamp(?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<ConsumedToken> tokens) {
+        jdbcTemplate.batchUpdate(INSERT, tokens, tokens.size(), (statement, token) -> {
+            statement.setLong(1, token.tokenHash());
+            statement.setLong(2, token.expiresAtEpochSecond());
+        });
+    }
+
+    public List<ConsumedToken> findUnexpired(long nowEpochSecond) {
+        return jdbcTemplate.query(
+                FIND_UNEXPIRED,
+                (rows, index) -> new ConsumedToken(rows.getLong(1), rows.getLong(2)),
+                nowEpochSecond
+        );
+    }
+
+    public int deleteExpired(long nowEpochSecond) {
+        return jdbcTemplate.update(DELETE_EXPIRED, nowEpochSecond);
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class InMemoryTokenRevocationBroadcaster implements TokenRevocationBroadcaster {
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publishGeneration(String username, int generation) {
+        listeners.forEach((listener) -> listener.onGeneration(username, generation));
+    }
+
+    @Override
+    public void publishRevokedToken(long tokenHash, long expiresAtEpochSecond) {
+        listeners.forEach((listener) -> listener.onRevokedToken(tokenHash, expiresAtEpochSecond));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
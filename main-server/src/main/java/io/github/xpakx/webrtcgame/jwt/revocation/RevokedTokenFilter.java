@@ -0,0 +1,89 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set of revoked token ids, hashed to 64 bits and grouped into buckets by token expiration.
+ * A bucket is dropped as a whole once every token in it has expired, as expired tokens are rejected anyway.
+ */
+public class RevokedTokenFilter {
+    private final long bucketSeconds;
+    private final ConcurrentHashMap<Long, LongSet> buckets = new ConcurrentHashMap<>();
+
+    public RevokedTokenFilter(long bucketSeconds) {
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    /**
+     * @return false if the token was already revoked
+     */
+    public boolean add(long tokenHash, long expiresAtEpochSecond) {
+        return buckets
+                .computeIfAbsent(expiresAtEpochSecond / bucketSeconds, (bucket) -> new LongSet())
+                .add(tokenHash);
+    }
+
+    public boolean contains(long tokenHash, long expiresAtEpochSecond) {
+        LongSet bucket = buckets.get(expiresAtEpochSecond / bucketSeconds);
+        return bucket != null && bucket.contains(tokenHash);
+    }
+
+    public void evictExpired(long nowEpochSecond) {
+        buckets.keySet().removeIf((bucket) -> (bucket + 1) * bucketSeconds <= nowEpochSecond);
+    }
+
+    public long size() {
+        return buckets.values().stream()
+                .mapToLong(LongSet::size)
+                .sum();
+    }
+
+    /**
+     * Open addressing set of longs, zero marks an empty slot.
+     */
+    private static class LongSet {
+        private long[] slots = new long[16];
+        private int size;
+
+        synchronized boolean add(long value) {
+            long key = value == 0 ? 1 : value;
+            if ((size + 1) * 2 > slots.length) {
+                resize();
+            }
+            int index = indexOf(slots, key);
+            if (slots[index] == key) {
+                return false;
+            }
+            slots[index] = key;
+            size++;
+            return true;
+        }
+
+        synchronized boolean contains(long value) {
+            long key = value == 0 ? 1 : value;
+            return slots[indexOf(slots, key)] == key;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void resize() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            Arrays.stream(old)
+                    .filter((key) -> key != 0)
+                    .forEach((key) -> slots[indexOf(slots, key)] = key);
+        }
+
+        private static int indexOf(long[] table, long key) {
+            int mask = table.length - 1;
+            int index = (int) (key ^ (key >>> 32)) & mask;
+            while (table[index] != 0 && table[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+/**
+ * Keeps revocation state of all nodes in sync; events are delivered to the sending node as well.
+ */
+public interface TokenRevocationBroadcaster {
+    void publishGeneration(String username, int generation);
+
+    void publishRevokedToken(long tokenHash, long expiresAtEpochSecond);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+        void onGeneration(String username, int generation);
+
+        void onRevokedToken(long tokenHash, long expiresAtEpochSecond);
+    }
+}
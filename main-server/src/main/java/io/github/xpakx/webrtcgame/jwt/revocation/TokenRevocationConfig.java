@@ -0,0 +1,46 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "memory", matchIfMissing = true)
+    public TokenRevocationBroadcaster inMemoryTokenRevocationBroadcaster() {
+        return new InMemoryTokenRevocationBroadcaster();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "amqp")
+    static class AmqpRevocationConfig {
+
+        @Bean
+        public FanoutExchange tokenRevocationExchange() {
+            return new FanoutExchange(AmqpTokenRevocationBroadcaster.EXCHANGE);
+        }
+
+        @Bean
+        public Queue tokenRevocationQueue() {
+            return new AnonymousQueue();
+        }
+
+        @Bean
+        public Binding tokenRevocationBinding(Queue tokenRevocationQueue, FanoutExchange tokenRevocationExchange) {
+            return BindingBuilder.bind(tokenRevocationQueue).to(tokenRevocationExchange);
+        }
+
+        @Bean
+        public TokenRevocationBroadcaster amqpTokenRevocationBroadcaster(RabbitTemplate rabbitTemplate) {
+            return new AmqpTokenRevocationBroadcaster(rabbitTemplate);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+import io.github.xpakx.webrtcgame.user.AccountRepository;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Decides whether a refresh token may still be used.
+ * Logging out everywhere bumps the account's token generation, so every refresh token
+ * with a lower {@code gen} claim is rejected; single tokens are revoked by id.
+ * Only accounts with a non-zero generation are kept in memory, loaded before the web server starts.
+ * Reuse is decided by the in-memory filter and the broadcast alone, so a refresh never waits for the database.
+ * Consumed ids are written behind in batches and loaded back at startup, so a token can't be reused
+ * after a restart; an id consumed within the last flush interval before a crash is the exception.
+ */
+@Service
+public class TokenRevocationService implements TokenRevocationBroadcaster.Listener, SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    public static final String GENERATION_CLAIM = "gen";
+
+    private final ConcurrentHashMap<String, Integer> generations = new ConcurrentHashMap<>();
+    private final RevokedTokenFilter revokedTokens;
+    private final TokenRevocationBroadcaster broadcaster;
+    private final AccountRepository accountRepository;
+    private final ConsumedTokenRepository consumedTokens;
+    private final ConcurrentLinkedQueue<ConsumedToken> unsaved = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+
+    public TokenRevocationService(
+            @Value("${jwt.revocation.bucket-seconds:3600}") long bucketSeconds,
+            TokenRevocationBroadcaster broadcaster,
+            AccountRepository accountRepository,
+            ConsumedTokenRepository consumedTokens) {
+        this.revokedTokens = new RevokedTokenFilter(bucketSeconds);
+        this.broadcaster = broadcaster;
+        this.accountRepository = accountRepository;
+        this.consumedTokens = consumedTokens;
+        broadcaster.subscribe(this);
+    }
+
+    @Override
+    public void start() {
+        accountRepository.findRevokedTokenGenerations()
+                .forEach((account) -> onGeneration(account.getUsername(), account.getTokenGeneration()));
+        consumedTokens.findUnexpired(Instant.now().getEpochSecond())
+                .forEach((token) -> revokedTokens.add(token.tokenHash(), token.expiresAtEpochSecond()));
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public int currentGeneration(String username) {
+        return generations.getOrDefault(key(username), 0);
+    }
+
+    /**
+     * Revokes the token so that it can be used only once.
+     * @return false if the token had already been revoked here or by a broadcast, including a concurrent
+     * call with the same token, or if it has no id and so couldn't be revoked
+     */
+    public boolean consume(Claims claims) {
+        if (claims.getId() == null || generationOf(claims) < currentGeneration(claims.getSubject())) {
+            return false;
+        }
+        long hash = hash(claims.getId());
+        long expiration = expirationOf(claims);
+        if (!revokedTokens.add(hash, expiration)) {
+            return false;
+        }
+        unsaved.add(new ConsumedToken(hash, expiration));
+        broadcaster.publishRevokedToken(hash, expiration);
+        return true;
+    }
+
+    /**
+     * @return false if there is no such account
+     */
+    public boolean revokeAll(String username) {
+        Integer generation = accountRepository.incrementTokenGeneration(username).orElse(null);
+        if (generation == null) {
+            return false;
+        }
+        onGeneration(username, generation);
+        broadcaster.publishGeneration(username, generation);
+        return true;
+    }
+
+    @Override
+    public void onGeneration(String username, int generation) {
+        generations.merge(key(username), generation, Math::max);
+    }
+
+    @Override
+    public void onRevokedToken(long tokenHash, long expiresAtEpochSecond) {
+        revokedTokens.add(tokenHash, expiresAtEpochSecond);
+    }
+
+    /**
+     * Writes ids consumed since the last flush; on failure they are kept for the next one.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.flush-interval:1000}")
+    public void flush() {
+        List<ConsumedToken> batch = new ArrayList<>();
+        ConsumedToken token;
+        while ((token = unsaved.poll()) != null) {
+            batch.add(token);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            consumedTokens.insertAll(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Couldn't store {} consumed refresh tokens, retrying", batch.size(), e);
+            unsaved.addAll(batch);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval:60000}")
+    public void evictExpired() {
+        long now = Instant.now().getEpochSecond();
+        revokedTokens.evictExpired(now);
+        consumedTokens.deleteExpired(now);
+    }
+
+    private int generationOf(Claims claims) {
+        Integer generation = claims.get(GENERATION_CLAIM, Integer.class);
+        return generation != null ? generation : 0;
+    }
+
+    private long expirationOf(Claims claims) {
+        return claims.getExpiration().toInstant().getEpochSecond();
+    }
+
+    private long hash(String tokenId) {
+        try {
+            UUID uuid = UUID.fromString(tokenId);
+            return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        } catch (IllegalArgumentException e) {
+            return tokenId.hashCode() * 0x9E3779B97F4A7C15L;
+        }
+    }
+
+    private String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
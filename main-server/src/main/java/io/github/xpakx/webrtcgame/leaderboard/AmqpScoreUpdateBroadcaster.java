@@ -0,0 +1,51 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sends a whole batch of updates as one message of comma separated {@code id:score} pairs.
+ */
+@RequiredArgsConstructor
+public class AmqpScoreUpdateBroadcaster implements ScoreUpdateBroadcaster {
+    static final String EXCHANGE = "leaderboard.scores";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(long[] accountIds, long[] scores) {
+        StringBuilder body = new StringBuilder(accountIds.length * 16);
+        for (int i = 0; i < accountIds.length; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(accountIds[i]).append(':').append(scores[i]);
+        }
+        rabbitTemplate.convertAndSend(EXCHANGE, "", body.toString());
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @RabbitListener(queues = "#{scoreUpdateQueue.name}")
+    public void onMessage(Message message) {
+        String[] entries = new String(message.getBody(), StandardCharsets.UTF_8).split(",");
+        long[] accountIds = new long[entries.length];
+        long[] scores = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            int separator = entries[i].indexOf(':');
+            accountIds[i] = Long.parseLong(entries[i].substring(0, separator));
+            scores[i] = Long.parseLong(entries[i].substring(separator + 1));
+        }
+        listeners.forEach((listener) -> listener.onScores(accountIds, scores));
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class InMemoryScoreUpdateBroadcaster implements ScoreUpdateBroadcaster {
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(long[] accountIds, long[] scores) {
+        listeners.forEach((listener) -> listener.onScores(accountIds, scores));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,263 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import io.github.xpakx.webrtcgame.error.ServiceOverloadedException;
+import io.github.xpakx.webrtcgame.leaderboard.dto.LeaderboardEntry;
+import io.github.xpakx.webrtcgame.leaderboard.dto.LeaderboardPage;
+import io.github.xpakx.webrtcgame.leaderboard.error.NotRankedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking of all accounts with a score, held in a {@link RankTree} so that top pages, the rank of an account
+ * and the window around it don't need {@code ORDER BY score OFFSET} queries. Loaded from the database
+ * in the background once the server is up, so logins don't wait for it, and kept current by score updates
+ * from match ingestion. Reads fail with 503 until loading is done.
+ * Serialized top pages are cached until an update moves an entry within their range, or a new entry changes the total.
+ */
+@Service
+public class Leaderboard implements ScoreUpdateBroadcaster.Listener, SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(Leaderboard.class);
+    private static final String LOAD_SCORES = "SELECT id, score FROM account WHERE score > 0";
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final long RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(1);
+    private static final long LOADING_RETRY_AFTER = 1;
+
+    private final RankTree tree;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicReferenceArray<byte[]> cachedPages;
+    private final int pageSize;
+    private final int maxRadius;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private volatile boolean running;
+    private volatile boolean loaded;
+
+    public Leaderboard(
+            @Value("${leaderboard.expected-size:100000}") int expectedSize,
+            @Value("${leaderboard.page-size:50}") int pageSize,
+            @Value("${leaderboard.cached-pages:20}") int cachedPages,
+            @Value("${leaderboard.max-radius:50}") int maxRadius,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            JsonMapper jsonMapper,
+            ScoreUpdateBroadcaster broadcaster,
+            MeterRegistry registry) {
+        this.tree = new RankTree(expectedSize);
+        this.pageSize = pageSize;
+        this.cachedPages = new AtomicReferenceArray<>(cachedPages);
+        this.maxRadius = maxRadius;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.cacheHits = Counter.builder("leaderboard.page.cache")
+                .tag("result", "hit")
+                .register(registry);
+        this.cacheMisses = Counter.builder("leaderboard.page.cache")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("leaderboard.size", this, Leaderboard::size)
+                .register(registry);
+        broadcaster.subscribe(this);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread.ofVirtual()
+                .name("leaderboard-load")
+                .start(this::loadUntilDone);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void loadUntilDone() {
+        while (running && !loaded) {
+            try {
+                load();
+                loaded = true;
+            } catch (RuntimeException e) {
+                logger.warn("Loading leaderboard failed, retrying", e);
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // a cursor only streams inside a transaction, otherwise the driver fetches every row at once
+    void load() {
+        lock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult((status) -> jdbcTemplate.query(
+                    (connection) -> {
+                        PreparedStatement statement = connection.prepareStatement(LOAD_SCORES);
+                        statement.setFetchSize(LOAD_FETCH_SIZE);
+                        return statement;
+                    },
+                    (RowCallbackHandler) (row) -> tree.put(row.getLong(1), row.getLong(2))
+            ));
+            invalidatePages(0, Integer.MAX_VALUE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return page of the ranking serialized as {@link LeaderboardPage}
+     */
+    public byte[] page(int page) {
+        checkLoaded();
+        boolean cacheable = page < cachedPages.length();
+        if (cacheable) {
+            byte[] cached = cachedPages.get(page);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+        }
+        cacheMisses.increment();
+        lock.readLock().lock();
+        try {
+            List<LeaderboardEntry> entries = range((long) page * pageSize, pageSize);
+            byte[] body = jsonMapper.writeValueAsBytes(new LeaderboardPage(page, pageSize, tree.size(), entries));
+            // stored under the read lock, so an update can't slip in between reading and caching
+            if (cacheable) {
+                cachedPages.set(page, body);
+            }
+            return body;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LeaderboardEntry entry(long accountId) {
+        checkLoaded();
+        lock.readLock().lock();
+        try {
+            int rank = rankOf(accountId);
+            return new LeaderboardEntry(rank + 1, accountId, tree.score(accountId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code radius} entries ranked above the account, the account, and up to {@code radius} below it
+     */
+    public List<LeaderboardEntry> around(long accountId, int radius) {
+        checkLoaded();
+        int window = Math.clamp(radius, 0, maxRadius);
+        lock.readLock().lock();
+        try {
+            int rank = rankOf(accountId);
+            int from = Math.max(0, rank - window);
+            return range(from, rank - from + window + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onScores(long[] accountIds, long[] scores) {
+        int lowest = Integer.MAX_VALUE;
+        int highest = -1;
+        lock.writeLock().lock();
+        try {
+            int size = tree.size();
+            for (int i = 0; i < accountIds.length; i++) {
+                int before = tree.rank(accountIds[i]);
+                tree.put(accountIds[i], scores[i]);
+                int after = tree.rank(accountIds[i]);
+                // a new entry shifts everyone below it, a moved one only those it passed
+                lowest = Math.min(lowest, before < 0 ? after : Math.min(before, after));
+                highest = Math.max(highest, before < 0 ? tree.size() - 1 : Math.max(before, after));
+            }
+            // every cached page embeds the total, so a new entry makes all of them stale
+            if (tree.size() != size) {
+                lowest = 0;
+                highest = Integer.MAX_VALUE;
+            }
+            invalidatePages(lowest, highest);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkLoaded() {
+        if (!loaded) {
+            throw new ServiceOverloadedException("Leaderboard is still loading", LOADING_RETRY_AFTER);
+        }
+    }
+
+    private int rankOf(long accountId) {
+        int rank = tree.rank(accountId);
+        if (rank < 0) {
+            throw new NotRankedException("Account is not ranked yet");
+        }
+        return rank;
+    }
+
+    private List<LeaderboardEntry> range(long from, int count) {
+        if (from >= tree.size()) {
+            return List.of();
+        }
+        long[] ids = new long[count];
+        long[] scores = new long[count];
+        int written = tree.range((int) from, count, ids, scores);
+        List<LeaderboardEntry> entries = new ArrayList<>(written);
+        for (int i = 0; i < written; i++) {
+            entries.add(new LeaderboardEntry(from + i + 1, ids[i], scores[i]));
+        }
+        return entries;
+    }
+
+    private void invalidatePages(int lowest, int highest) {
+        if (highest < lowest) {
+            return;
+        }
+        int first = lowest / pageSize;
+        int last = Math.min(highest / pageSize, cachedPages.length() - 1);
+        for (int page = first; page <= last; page++) {
+            cachedPages.set(page, null);
+        }
+    }
+}
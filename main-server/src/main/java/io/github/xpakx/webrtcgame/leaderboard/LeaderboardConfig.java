@@ -0,0 +1,46 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LeaderboardConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "memory", matchIfMissing = true)
+    public ScoreUpdateBroadcaster inMemoryScoreUpdateBroadcaster() {
+        return new InMemoryScoreUpdateBroadcaster();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "amqp")
+    static class AmqpScoreUpdateConfig {
+
+        @Bean
+        public FanoutExchange scoreUpdateExchange() {
+            return new FanoutExchange(AmqpScoreUpdateBroadcaster.EXCHANGE);
+        }
+
+        @Bean
+        public Queue scoreUpdateQueue() {
+            return new AnonymousQueue();
+        }
+
+        @Bean
+        public Binding scoreUpdateBinding(Queue scoreUpdateQueue, FanoutExchange scoreUpdateExchange) {
+            return BindingBuilder.bind(scoreUpdateQueue).to(scoreUpdateExchange);
+        }
+
+        @Bean
+        public ScoreUpdateBroadcaster amqpScoreUpdateBroadcaster(RabbitTemplate rabbitTemplate) {
+            return new AmqpScoreUpdateBroadcaster(rabbitTemplate);
+        }
+    }
+}
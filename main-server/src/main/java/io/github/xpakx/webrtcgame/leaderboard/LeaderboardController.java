@@ -0,0 +1,42 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import io.github.xpakx.webrtcgame.leaderboard.dto.LeaderboardEntry;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Validated
+@RequestMapping("/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+    private final Leaderboard leaderboard;
+
+    @GetMapping
+    public ResponseEntity<byte[]> getPage(@RequestParam(defaultValue = "0") @Min(0) int page) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(leaderboard.page(page));
+    }
+
+    @GetMapping("/accounts/{accountId}")
+    public ResponseEntity<LeaderboardEntry> getEntry(@PathVariable long accountId) {
+        return ResponseEntity.ok(leaderboard.entry(accountId));
+    }
+
+    @GetMapping("/accounts/{accountId}/around")
+    public ResponseEntity<List<LeaderboardEntry>> getAround(
+            @PathVariable long accountId,
+            @RequestParam(defaultValue = "5") @Min(0) int radius) {
+        return ResponseEntity.ok(leaderboard.around(accountId, radius));
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from long to int with linear probing, without boxing. Removal shifts
+ * following entries back instead of leaving tombstones. {@link Long#MIN_VALUE} can't be a key.
+ */
+final class LongIntMap {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int missing;
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap(int expectedSize, int missing) {
+        this.missing = missing;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int get(long key) {
+        int index = indexOf(keys, key);
+        return keys[index] == key ? values[index] : missing;
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int index = indexOf(keys, key);
+        if (keys[index] == EMPTY) {
+            keys[index] = key;
+            size++;
+        }
+        values[index] = value;
+    }
+
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int hole = indexOf(keys, key);
+        if (keys[hole] == EMPTY) {
+            return;
+        }
+        int index = hole;
+        while (true) {
+            index = (index + 1) & mask;
+            if (keys[index] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[index]) & mask;
+            // an entry can fill the hole only if the hole lies between its home slot and its current slot
+            boolean movable = hole <= index
+                    ? home <= hole || home > index
+                    : home <= hole && home > index;
+            if (movable) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(keys, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int indexOf(long[] table, long key) {
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (table[index] != EMPTY && table[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic treap of accounts ordered by score, highest first, ties broken by lower account id.
+ * Every node stores the size of its subtree, so both the position of an account and the account
+ * at a position are found in O(log n). Nodes live in parallel arrays to keep a million entries
+ * compact and free of per-entry objects. Not thread-safe.
+ */
+public final class RankTree {
+    private static final int NIL = 0;
+
+    private final LongIntMap nodes;
+    private final SplittableRandom random = new SplittableRandom();
+    private long[] ids;
+    private long[] scores;
+    private int[] left;
+    private int[] right;
+    private int[] sizes;
+    private int[] priorities;
+    private int root = NIL;
+    private int next = 1;
+    // removed nodes, linked through left[]
+    private int free = NIL;
+    private int splitLeft;
+    private int splitRight;
+
+    public RankTree(int expectedSize) {
+        int capacity = Math.max(16, expectedSize + 1);
+        this.nodes = new LongIntMap(expectedSize, NIL);
+        this.ids = new long[capacity];
+        this.scores = new long[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.sizes = new int[capacity];
+        this.priorities = new int[capacity];
+    }
+
+    public int size() {
+        return sizes[root];
+    }
+
+    public boolean contains(long id) {
+        return nodes.get(id) != NIL;
+    }
+
+    /**
+     * @return score of the account, only meaningful if {@link #contains(long)}
+     */
+    public long score(long id) {
+        return scores[nodes.get(id)];
+    }
+
+    public void put(long id, long score) {
+        int node = nodes.get(id);
+        if (node != NIL) {
+            if (scores[node] == score) {
+                return;
+            }
+            root = remove(root, node);
+        } else {
+            node = allocate();
+            ids[node] = id;
+            nodes.put(id, node);
+        }
+        scores[node] = score;
+        left[node] = NIL;
+        right[node] = NIL;
+        sizes[node] = 1;
+        priorities[node] = random.nextInt();
+        split(root, score, id);
+        root = merge(merge(splitLeft, node), splitRight);
+    }
+
+    public void remove(long id) {
+        int node = nodes.get(id);
+        if (node == NIL) {
+            return;
+        }
+        root = remove(root, node);
+        nodes.remove(id);
+        left[node] = free;
+        free = node;
+    }
+
+    /**
+     * @return zero-based position of the account, or -1 if it isn't ranked
+     */
+    public int rank(long id) {
+        int node = nodes.get(id);
+        if (node == NIL) {
+            return -1;
+        }
+        long score = scores[node];
+        int rank = 0;
+        int current = root;
+        while (current != node) {
+            if (before(current, score, id)) {
+                rank += sizes[left[current]] + 1;
+                current = right[current];
+            } else {
+                current = left[current];
+            }
+        }
+        return rank + sizes[left[node]];
+    }
+
+    /**
+     * Copies accounts at positions {@code from} to {@code from + count - 1} into the arrays, in rank order.
+     * @return number of accounts copied, fewer than {@code count} at the end of the ranking
+     */
+    public int range(int from, int count, long[] idsOut, long[] scoresOut) {
+        if (from < 0 || from >= size() || count <= 0) {
+            return 0;
+        }
+        // path to the first node, holding the nodes still to be visited after their left subtree
+        int[] stack = new int[64];
+        int depth = 0;
+        int current = root;
+        int position = from;
+        while (current != NIL) {
+            int leftSize = sizes[left[current]];
+            if (position < leftSize) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = current;
+                current = left[current];
+            } else if (position == leftSize) {
+                break;
+            } else {
+                position -= leftSize + 1;
+                current = right[current];
+            }
+        }
+        int written = 0;
+        while (written < count && current != NIL) {
+            idsOut[written] = ids[current];
+            scoresOut[written] = scores[current];
+            written++;
+            current = right[current];
+            while (current != NIL && left[current] != NIL) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = current;
+                current = left[current];
+            }
+            if (current == NIL && depth > 0) {
+                current = stack[--depth];
+            }
+        }
+        return written;
+    }
+
+    private boolean before(int node, long score, long id) {
+        return scores[node] > score || (scores[node] == score && ids[node] < id);
+    }
+
+    /**
+     * Splits the subtree into nodes ordered before the key ({@link #splitLeft}) and the rest ({@link #splitRight}).
+     */
+    private void split(int node, long score, long id) {
+        if (node == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (before(node, score, id)) {
+            split(right[node], score, id);
+            right[node] = splitLeft;
+            splitLeft = node;
+        } else {
+            split(left[node], score, id);
+            left[node] = splitRight;
+            splitRight = node;
+        }
+        sizes[node] = sizes[left[node]] + sizes[right[node]] + 1;
+    }
+
+    // every node of first is ordered before every node of second
+    private int merge(int first, int second) {
+        if (first == NIL) {
+            return second;
+        }
+        if (second == NIL) {
+            return first;
+        }
+        if (priorities[first] > priorities[second]) {
+            right[first] = merge(right[first], second);
+            sizes[first] = sizes[left[first]] + sizes[right[first]] + 1;
+            return first;
+        }
+        left[second] = merge(first, left[second]);
+        sizes[second] = sizes[left[second]] + sizes[right[second]] + 1;
+        return second;
+    }
+
+    private int remove(int subtree, int node) {
+        if (subtree == node) {
+            return merge(left[node], right[node]);
+        }
+        if (before(node, scores[subtree], ids[subtree])) {
+            left[subtree] = remove(left[subtree], node);
+        } else {
+            right[subtree] = remove(right[subtree], node);
+        }
+        sizes[subtree]--;
+        return subtree;
+    }
+
+    private int allocate() {
+        if (free != NIL) {
+            int node = free;
+            free = left[node];
+            return node;
+        }
+        if (next == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+        }
+        return next++;
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+/**
+ * Keeps leaderboards of all nodes in sync with stored scores; updates are delivered to the sending node as well.
+ */
+public interface ScoreUpdateBroadcaster {
+    /**
+     * @param scores new total score of the account at the same index
+     */
+    void publish(long[] accountIds, long[] scores);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+        void onScores(long[] accountIds, long[] scores);
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.xpakx.webrtcgame.leaderboard.dto;
+
+/**
+ * @param rank one-based position in the ranking
+ */
+public record LeaderboardEntry(long rank, long accountId, long score) {
+}
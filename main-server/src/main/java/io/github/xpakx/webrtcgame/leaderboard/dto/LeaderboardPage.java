@@ -0,0 +1,6 @@
+package io.github.xpakx.webrtcgame.leaderboard.dto;
+
+import java.util.List;
+
+public record LeaderboardPage(int page, int size, long total, List<LeaderboardEntry> entries) {
+}
@@ -0,0 +1,11 @@
+package io.github.xpakx.webrtcgame.leaderboard.error;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class NotRankedException extends RuntimeException {
+    public NotRankedException(String message) {
+        super(message);
+    }
+}
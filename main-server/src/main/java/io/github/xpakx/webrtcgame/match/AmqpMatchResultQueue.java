@@ -0,0 +1,69 @@
+package io.github.xpakx.webrtcgame.match;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Results are sent as JSON to a durable queue shared by all main-server nodes and consumed in batches.
+ * A batch that fails to be stored is requeued as a whole, unless the database refused its content:
+ * such a batch would fail again on every redelivery, so it is dead-lettered to {@link #DEAD_LETTERS} instead.
+ * Messages that can't be parsed or stored are moved there one by one before the batch is written.
+ */
+@RequiredArgsConstructor
+public class AmqpMatchResultQueue implements MatchResultQueue {
+    private static final Logger logger = LoggerFactory.getLogger(AmqpMatchResultQueue.class);
+    static final String QUEUE = "match.results";
+    static final String DEAD_LETTERS = "match.results.dead";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final JsonMapper jsonMapper;
+    private final MatchResultIngestor ingestor;
+
+    @Override
+    public void publish(MatchResult result) {
+        Message message = MessageBuilder.withBody(jsonMapper.writeValueAsBytes(result))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setMessageId(result.matchId().toString())
+                .build();
+        rabbitTemplate.send("", QUEUE, message);
+    }
+
+    @RabbitListener(queues = QUEUE, containerFactory = "matchResultContainerFactory")
+    public void onResults(List<Message> messages) {
+        List<MatchResult> results = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            MatchResult result;
+            try {
+                result = jsonMapper.readValue(message.getBody(), MatchResult.class);
+            } catch (JacksonException e) {
+                logger.warn("Dead-lettering malformed match result {}", message.getMessageProperties().getMessageId(), e);
+                rabbitTemplate.send("", DEAD_LETTERS, message);
+                continue;
+            }
+            if (!result.isStorable()) {
+                logger.warn("Dead-lettering match result {} that can't be stored", message.getMessageProperties().getMessageId());
+                rabbitTemplate.send("", DEAD_LETTERS, message);
+                continue;
+            }
+            results.add(result);
+        }
+        try {
+            ingestor.ingest(results);
+        } catch (DataIntegrityViolationException e) {
+            throw new AmqpRejectAndDontRequeueException("Match results refused by the database", e);
+        }
+    }
+}
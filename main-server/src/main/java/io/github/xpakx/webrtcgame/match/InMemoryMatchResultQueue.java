@@ -0,0 +1,129 @@
+package io.github.xpakx.webrtcgame.match;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Stands in for the broker in a single process: results are written by one thread in batches
+ * of up to {@code batchSize}, waiting at most {@code linger} for a batch to fill up.
+ * A failed batch is retried as a whole, the same as a redelivery from the broker, up to {@code maxAttempts} times.
+ * After that its results are written one at a time, so a result that can never be stored is dropped on its own
+ * instead of holding up the queue.
+ */
+public class InMemoryMatchResultQueue implements MatchResultQueue, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryMatchResultQueue.class);
+    private static final long POLL_INTERVAL_MS = 100;
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final BlockingQueue<MatchResult> queue;
+    private final Consumer<List<MatchResult>> sink;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int maxAttempts;
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    public InMemoryMatchResultQueue(
+            Consumer<List<MatchResult>> sink,
+            int capacity,
+            int batchSize,
+            Duration linger,
+            int maxAttempts) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.consumer = new Thread(this::run, "match-results");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void publish(MatchResult result) {
+        if (!running || !queue.offer(result)) {
+            throw new IllegalStateException("Match result queue is full");
+        }
+    }
+
+    /**
+     * Stops accepting results and waits until the queued ones are written.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.join();
+    }
+
+    private void run() {
+        List<MatchResult> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(List<MatchResult> batch) throws InterruptedException {
+        MatchResult first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long left = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || left <= 0) {
+                return;
+            }
+            MatchResult next = queue.poll(left, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void deliver(List<MatchResult> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.accept(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    logger.error("Dropping {} match results on shutdown", batch.size(), e);
+                    return;
+                }
+                if (attempt == maxAttempts) {
+                    logger.warn("Couldn't store {} match results, writing them one by one", batch.size(), e);
+                    break;
+                }
+                logger.warn("Couldn't store {} match results, retrying", batch.size(), e);
+                LockSupport.parkNanos(RETRY_DELAY_NANOS);
+            }
+        }
+        for (MatchResult result : batch) {
+            try {
+                sink.accept(List.of(result));
+            } catch (RuntimeException e) {
+                logger.error("Dropping match result {}", result.matchId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.xpakx.webrtcgame.match;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a finished match as published by a game node, timestamps in epoch milliseconds.
+ * {@code matchId} is generated once per match and makes redelivered results detectable.
+ */
+public record MatchResult(
+        UUID matchId,
+        String room,
+        long startedAt,
+        long endedAt,
+        int ticks,
+        List<Player> players
+) {
+    public static final int MAX_ROOM_LENGTH = 64;
+    public static final int MAX_PLAYER_LENGTH = 255;
+
+    /**
+     * Checks the result against the columns of match_result and match_result_player,
+     * as one result that can't be stored would fail the whole batch it is written in.
+     */
+    public boolean isStorable() {
+        if (matchId == null || room == null || room.isEmpty() || room.length() > MAX_ROOM_LENGTH) {
+            return false;
+        }
+        if (players == null) {
+            return true;
+        }
+        return players.size() <= Short.MAX_VALUE && players.stream().allMatch((player) -> player != null
+                && player.player() != null
+                && player.player().length() <= MAX_PLAYER_LENGTH);
+    }
+
+    public record Player(String player, int joinedTick, int leftTick, int hp) {
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.xpakx.webrtcgame.match;
+
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+@Configuration
+public class MatchResultConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "memory", matchIfMissing = true)
+    public MatchResultQueue inMemoryMatchResultQueue(
+            MatchResultIngestor ingestor,
+            @Value("${match.results.queue-capacity:10000}") int capacity,
+            @Value("${match.results.batch-size:500}") int batchSize,
+            @Value("${match.results.linger:200ms}") Duration linger,
+            @Value("${match.results.max-attempts:5}") int maxAttempts) {
+        return new InMemoryMatchResultQueue(ingestor::ingest, capacity, batchSize, linger, maxAttempts);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "amqp")
+    static class AmqpMatchResultConfig {
+
+        @Bean
+        public Queue matchResultQueue() {
+            return QueueBuilder.durable(AmqpMatchResultQueue.QUEUE)
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(AmqpMatchResultQueue.DEAD_LETTERS)
+                    .build();
+        }
+
+        @Bean
+        public Queue matchResultDeadLetterQueue() {
+            return new Queue(AmqpMatchResultQueue.DEAD_LETTERS);
+        }
+
+        // prefetch has to cover a whole batch, otherwise batches never fill up
+        @Bean
+        public SimpleRabbitListenerContainerFactory matchResultContainerFactory(
+                SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                ConnectionFactory connectionFactory,
+                @Value("${match.results.batch-size:500}") int batchSize,
+                @Value("${match.results.linger:200ms}") Duration linger) {
+            SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+            configurer.configure(factory, connectionFactory);
+            factory.setBatchListener(true);
+            factory.setConsumerBatchEnabled(true);
+            factory.setBatchSize(batchSize);
+            factory.setPrefetchCount(batchSize);
+            factory.setBatchReceiveTimeout(linger.toMillis());
+            return factory;
+        }
+
+        @Bean
+        public MatchResultQueue amqpMatchResultQueue(
+                RabbitTemplate rabbitTemplate,
+                JsonMapper jsonMapper,
+                MatchResultIngestor ingestor) {
+            return new AmqpMatchResultQueue(rabbitTemplate, jsonMapper, ingestor);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.xpakx.webrtcgame.match;
+
+import io.github.xpakx.webrtcgame.leaderboard.ScoreUpdateBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores match results a batch at a time: one transaction with one multi-row insert for matches
+ * and one for their players, each passing the whole batch as arrays to {@code unnest}.
+ * The match id is the idempotency key, so a redelivered result is skipped together with its players.
+ * Results that don't fit the tables are dropped up front, see {@link MatchResult#isStorable()}.
+ * Players of newly stored matches that are accounts get the ticks they played added to their score.
+ */
+@Service
+public class MatchResultIngestor {
+    private static final Logger logger = LoggerFactory.getLogger(MatchResultIngestor.class);
+    private static final String INSERT_MATCHES = """
+            INSERT INTO match_result (match_id, room, started_at, ended_at, ticks)
+            SELECT id, room, to_timestamp(started / 1000.0), to_timestamp(ended / 1000.0), ticks
+            FROM unnest(?::uuid[], ?::varchar[], ?::bigint[], ?::bigint[], ?::int[]) AS m(id, room, started, ended, ticks)
+            ON CONFLICT (match_id) DO NOTHING
+            RETURNING match_id""";
+    private static final String INSERT_PLAYERS = """
+            INSERT INTO match_result_player (match_id, slot, player, joined_tick, left_tick, hp)
+            SELECT * FROM unnest(?::uuid[], ?::smallint[], ?::varchar[], ?::int[], ?::int[], ?::int[])""";
+    // grouped first, as UPDATE ... FROM applies only one of several rows matching the same account
+    private static final String ADD_SCORES = """
+            UPDATE account a SET score = a.score + p.points
+            FROM (
+                SELECT LOWER(player) AS username, SUM(points) AS points
+                FROM unnest(?::varchar[], ?::bigint[]) AS u(player, points)
+                GROUP BY LOWER(player)
+            ) p
+            WHERE LOWER(a.username) = p.username
+            RETURNING a.id, a.score""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScoreUpdateBroadcaster scoreUpdates;
+    private final DistributionSummary batchSize;
+    private final Timer batchDuration;
+    private final Timer ingestLag;
+    private final Counter stored;
+    private final Counter duplicates;
+    private final Counter rejected;
+
+    public MatchResultIngestor(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ScoreUpdateBroadcaster scoreUpdates,
+            MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.scoreUpdates = scoreUpdates;
+        this.batchSize = DistributionSummary.builder("match.results.batch.size")
+                .register(registry);
+        this.batchDuration = Timer.builder("match.results.batch.duration")
+                .register(registry);
+        this.ingestLag = Timer.builder("match.results.ingest.lag")
+                .description("Time from the end of a match until its result is stored")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.stored = Counter.builder("match.results.ingested")
+                .tag("outcome", "stored")
+                .register(registry);
+        this.duplicates = Counter.builder("match.results.ingested")
+                .tag("outcome", "duplicate")
+                .register(registry);
+        this.rejected = Counter.builder("match.results.ingested")
+                .tag("outcome", "rejected")
+                .register(registry);
+    }
+
+    /**
+     * Either the whole batch is stored or none of it, so on failure the batch can simply be delivered again.
+     * @return number of results that weren't stored before
+     */
+    public int ingest(List<MatchResult> results) {
+        if (results.isEmpty()) {
+            return 0;
+        }
+        // a result redelivered within the same batch would insert its players twice
+        Map<UUID, MatchResult> unique = new LinkedHashMap<>();
+        int invalid = 0;
+        for (MatchResult result : results) {
+            if (result.isStorable()) {
+                unique.putIfAbsent(result.matchId(), result);
+            } else {
+                logger.warn("Dropping match result {} that can't be stored", result.matchId());
+                invalid++;
+            }
+        }
+        rejected.increment(invalid);
+        List<MatchResult> batch = new ArrayList<>(unique.values());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        StoredBatch written = batchDuration.record(() -> transactionTemplate.execute((status) ->
+                jdbcTemplate.execute((ConnectionCallback<StoredBatch>) (connection) -> insert(connection, batch))
+        ));
+        Set<UUID> inserted = written.matches();
+        if (written.accountIds().length > 0) {
+            scoreUpdates.publish(written.accountIds(), written.scores());
+        }
+        long now = System.currentTimeMillis();
+        for (MatchResult result : batch) {
+            if (inserted.contains(result.matchId())) {
+                ingestLag.record(Math.max(0, now - result.endedAt()), TimeUnit.MILLISECONDS);
+            }
+        }
+        batchSize.record(results.size());
+        stored.increment(inserted.size());
+        duplicates.increment(results.size() - invalid - inserted.size());
+        return inserted.size();
+    }
+
+    private StoredBatch insert(Connection connection, List<MatchResult> batch) throws SQLException {
+        Set<UUID> inserted = insertMatches(connection, batch);
+        if (inserted.isEmpty()) {
+            return new StoredBatch(inserted, new long[0], new long[0]);
+        }
+        insertPlayers(connection, batch, inserted);
+        return addScores(connection, batch, inserted);
+    }
+
+    private Set<UUID> insertMatches(Connection connection, List<MatchResult> batch) throws SQLException {
+        int size = batch.size();
+        String[] ids = new String[size];
+        String[] rooms = new String[size];
+        Long[] startedAt = new Long[size];
+        Long[] endedAt = new Long[size];
+        Integer[] ticks = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            MatchResult result = batch.get(i);
+            ids[i] = result.matchId().toString();
+            rooms[i] = result.room();
+            startedAt[i] = result.startedAt();
+            endedAt[i] = result.endedAt();
+            ticks[i] = result.ticks();
+        }
+        Set<UUID> inserted = new HashSet<>(size * 2);
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_MATCHES)) {
+            statement.setArray(1, connection.createArrayOf("varchar", ids));
+            statement.setArray(2, connection.createArrayOf("varchar", rooms));
+            statement.setArray(3, connection.createArrayOf("int8", startedAt));
+            statement.setArray(4, connection.createArrayOf("int8", endedAt));
+            statement.setArray(5, connection.createArrayOf("int4", ticks));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    inserted.add(rows.getObject(1, UUID.class));
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private void insertPlayers(Connection connection, List<MatchResult> batch, Set<UUID> inserted) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> players = new ArrayList<>();
+        List<Integer> joinedTicks = new ArrayList<>();
+        List<Integer> leftTicks = new ArrayList<>();
+        List<Integer> hp = new ArrayList<>();
+        for (MatchResult result : batch) {
+            if (!inserted.contains(result.matchId()) || result.players() == null) {
+                continue;
+            }
+            for (int slot = 0; slot < result.players().size(); slot++) {
+                MatchResult.Player player = result.players().get(slot);
+                ids.add(result.matchId().toString());
+                slots.add(slot);
+                players.add(player.player());
+                joinedTicks.add(player.joinedTick());
+                leftTicks.add(player.leftTick());
+                hp.add(player.hp());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_PLAYERS)) {
+            statement.setArray(1, connection.createArrayOf("varchar", ids.toArray()));
+            statement.setArray(2, connection.createArrayOf("int4", slots.toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar", players.toArray()));
+            statement.setArray(4, connection.createArrayOf("int4", joinedTicks.toArray()));
+            statement.setArray(5, connection.createArrayOf("int4", leftTicks.toArray()));
+            statement.setArray(6, connection.createArrayOf("int4", hp.toArray()));
+            statement.executeUpdate();
+        }
+    }
+
+    private StoredBatch addScores(Connection connection, List<MatchResult> batch, Set<UUID> inserted) throws SQLException {
+        List<String> players = new ArrayList<>();
+        List<Long> points = new ArrayList<>();
+        for (MatchResult result : batch) {
+            if (!inserted.contains(result.matchId()) || result.players() == null) {
+                continue;
+            }
+            for (MatchResult.Player player : result.players()) {
+                players.add(player.player());
+                points.add((long) Math.max(0, player.leftTick() - player.joinedTick()));
+            }
+        }
+        List<long[]> scores = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(ADD_SCORES)) {
+            statement.setArray(1, connection.createArrayOf("varchar", players.toArray()));
+            statement.setArray(2, connection.createArrayOf("int8", points.toArray()));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    scores.add(new long[]{rows.getLong(1), rows.getLong(2)});
+                }
+            }
+        }
+        long[] accountIds = new long[scores.size()];
+        long[] totals = new long[scores.size()];
+        for (int i = 0; i < scores.size(); i++) {
+            accountIds[i] = scores.get(i)[0];
+            totals[i] = scores.get(i)[1];
+        }
+        return new StoredBatch(inserted, accountIds, totals);
+    }
+
+    /**
+     * @param scores new total score of the account at the same index
+     */
+    private record StoredBatch(Set<UUID> matches, long[] accountIds, long[] scores) {
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.xpakx.webrtcgame.match;
+
+/**
+ * Carries match results from game nodes to {@link MatchResultIngestor}, delivering them in batches at least once.
+ */
+public interface MatchResultQueue {
+    void publish(MatchResult result);
+}
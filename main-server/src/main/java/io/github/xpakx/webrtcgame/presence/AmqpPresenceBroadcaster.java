@@ -0,0 +1,43 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sends each sync as one JSON message to a fanout exchange, every node reads it from its own anonymous queue.
+ */
+@RequiredArgsConstructor
+public class AmqpPresenceBroadcaster implements PresenceBroadcaster {
+    static final String EXCHANGE = "presence.sync";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final JsonMapper jsonMapper;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(PresenceSync sync) {
+        Message message = MessageBuilder.withBody(jsonMapper.writeValueAsBytes(sync))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .build();
+        rabbitTemplate.send(EXCHANGE, "", message);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @RabbitListener(queues = "#{presenceSyncQueue.name}")
+    public void onMessage(Message message) {
+        PresenceSync sync = jsonMapper.readValue(message.getBody(), PresenceSync.class);
+        listeners.forEach((listener) -> listener.onSync(sync));
+    }
+}
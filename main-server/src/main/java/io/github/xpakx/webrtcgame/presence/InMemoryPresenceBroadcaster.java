@@ -0,0 +1,18 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class InMemoryPresenceBroadcaster implements PresenceBroadcaster {
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(PresenceSync sync) {
+        listeners.forEach((listener) -> listener.onSync(sync));
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.xpakx.webrtcgame.presence;
+
+/**
+ * Shares presence between main-server nodes; syncs are delivered to the sending node as well.
+ */
+public interface PresenceBroadcaster {
+    void publish(PresenceSync sync);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+        void onSync(PresenceSync sync);
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import io.github.xpakx.webrtcgame.presence.dto.PresenceStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects changes between two flushes. Only the last state of a player is kept, and a player that went
+ * offline and came back (or the other way round) within one interval produces no change at all.
+ * Changes to be sent to other nodes are kept apart, so that changes received from them aren't sent back.
+ * Players are keyed by lower-cased username like in {@link PresenceTable}, and reported with the latest spelling.
+ */
+class PresenceChangeBuffer {
+    private Map<String, Boolean> initial = new HashMap<>();
+    private Map<String, PresenceStatus> latest = new LinkedHashMap<>();
+    private Map<String, String> seen = new LinkedHashMap<>();
+    private Map<String, String> offline = new LinkedHashMap<>();
+
+    synchronized void online(String username, boolean local) {
+        String key = key(username);
+        change(key, username, true);
+        if (local) {
+            offline.remove(key);
+            seen.put(key, username);
+        }
+    }
+
+    synchronized void offline(String username, boolean local) {
+        String key = key(username);
+        change(key, username, false);
+        if (local) {
+            seen.remove(key);
+            offline.put(key, username);
+        }
+    }
+
+    /**
+     * Heartbeat of a player already online, only passed on to other nodes.
+     */
+    synchronized void seen(String username) {
+        seen.put(key(username), username);
+    }
+
+    private void change(String key, String username, boolean online) {
+        initial.putIfAbsent(key, !online);
+        latest.put(key, new PresenceStatus(username, online));
+    }
+
+    synchronized Batch drain() {
+        List<PresenceStatus> changes = new ArrayList<>(latest.size());
+        for (Map.Entry<String, PresenceStatus> entry : latest.entrySet()) {
+            if (initial.get(entry.getKey()) != entry.getValue().online()) {
+                changes.add(entry.getValue());
+            }
+        }
+        Batch batch = new Batch(changes, List.copyOf(seen.values()), List.copyOf(offline.values()));
+        initial = new HashMap<>();
+        latest = new LinkedHashMap<>();
+        seen = new LinkedHashMap<>();
+        offline = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    record Batch(List<PresenceStatus> changes, List<String> seen, List<String> offline) {
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+@Configuration
+public class PresenceConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "memory", matchIfMissing = true)
+    public PresenceBroadcaster inMemoryPresenceBroadcaster() {
+        return new InMemoryPresenceBroadcaster();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "amqp")
+    static class AmqpPresenceConfig {
+
+        @Bean
+        public FanoutExchange presenceSyncExchange() {
+            return new FanoutExchange(AmqpPresenceBroadcaster.EXCHANGE);
+        }
+
+        @Bean
+        public Queue presenceSyncQueue() {
+            return new AnonymousQueue();
+        }
+
+        @Bean
+        public Binding presenceSyncBinding(Queue presenceSyncQueue, FanoutExchange presenceSyncExchange) {
+            return BindingBuilder.bind(presenceSyncQueue).to(presenceSyncExchange);
+        }
+
+        @Bean
+        public PresenceBroadcaster amqpPresenceBroadcaster(RabbitTemplate rabbitTemplate, JsonMapper jsonMapper) {
+            return new AmqpPresenceBroadcaster(rabbitTemplate, jsonMapper);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import io.github.xpakx.webrtcgame.presence.dto.PresenceStatus;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@Validated
+@RequestMapping("/presence")
+@RequiredArgsConstructor
+public class PresenceController {
+    private final PresenceService presenceService;
+    private final PresenceSubscriptions subscriptions;
+
+    @PostMapping("/heartbeat")
+    public ResponseEntity<Void> heartbeat(Principal principal) {
+        presenceService.heartbeat(principal.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> logout(Principal principal) {
+        presenceService.logout(principal.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PresenceStatus>> getStatuses(
+            @RequestParam @Size(max = 100) List<String> usernames) {
+        return ResponseEntity.ok(presenceService.statuses(usernames));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getChanges() {
+        return subscriptions.subscribe();
+    }
+}
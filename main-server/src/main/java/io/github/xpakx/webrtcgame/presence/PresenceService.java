@@ -0,0 +1,130 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import io.github.xpakx.webrtcgame.presence.dto.PresenceStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Who is online, kept in memory only. Heartbeats refresh a {@link PresenceTable} entry; players whose heartbeats
+ * stop are expired after the ttl. Changes are collected and published once per flush interval: to local
+ * subscribers as one batch, and to other nodes as one {@link PresenceSync} carrying new players, logouts and
+ * players still active here (each at most once per half ttl, so other nodes don't expire them).
+ */
+@Service
+public class PresenceService implements PresenceBroadcaster.Listener {
+    private final String nodeId = UUID.randomUUID().toString();
+    private final PresenceTable table;
+    private final PresenceChangeBuffer buffer = new PresenceChangeBuffer();
+    private final PresenceBroadcaster broadcaster;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final int maxSyncSize;
+    private final Counter changesPublished;
+
+    public PresenceService(
+            @Value("${presence.shards:64}") int shards,
+            @Value("${presence.tick:1s}") Duration tick,
+            @Value("${presence.ttl:30s}") Duration ttl,
+            @Value("${presence.max-sync-size:1000}") int maxSyncSize,
+            PresenceBroadcaster broadcaster,
+            MeterRegistry registry) {
+        this.table = new PresenceTable(shards, tick.toMillis(), ttl.toMillis());
+        this.broadcaster = broadcaster;
+        this.maxSyncSize = maxSyncSize;
+        this.changesPublished = Counter.builder("presence.changes")
+                .register(registry);
+        Gauge.builder("presence.online", table, PresenceTable::size)
+                .register(registry);
+        broadcaster.subscribe(this);
+    }
+
+    public interface Listener {
+        void onPresenceChanges(List<PresenceStatus> changes);
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void heartbeat(String username) {
+        switch (table.heartbeat(username, System.currentTimeMillis())) {
+            case ONLINE -> buffer.online(username, true);
+            case PROPAGATE -> buffer.seen(username);
+            case REFRESHED -> { }
+        }
+    }
+
+    public void logout(String username) {
+        if (table.remove(username)) {
+            buffer.offline(username, true);
+        }
+    }
+
+    public List<PresenceStatus> statuses(Collection<String> usernames) {
+        return usernames.stream()
+                .map((username) -> new PresenceStatus(username, table.isOnline(username)))
+                .toList();
+    }
+
+    @Override
+    public void onSync(PresenceSync sync) {
+        if (nodeId.equals(sync.origin())) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String username : sync.seen()) {
+            if (table.heartbeat(username, now) == PresenceTable.Heartbeat.ONLINE) {
+                buffer.online(username, false);
+            }
+        }
+        for (String username : sync.offline()) {
+            if (table.remove(username)) {
+                buffer.offline(username, false);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${presence.tick:1s}")
+    public void expire() {
+        table.expire(System.currentTimeMillis(), (username) -> buffer.offline(username, false));
+    }
+
+    @Scheduled(fixedRateString = "${presence.flush-interval:250ms}")
+    public void flush() {
+        PresenceChangeBuffer.Batch batch = buffer.drain();
+        if (!batch.changes().isEmpty()) {
+            changesPublished.increment(batch.changes().size());
+            listeners.forEach((listener) -> listener.onPresenceChanges(batch.changes()));
+        }
+        publish(batch.seen(), batch.offline());
+    }
+
+    private void publish(List<String> seen, List<String> offline) {
+        int seenFrom = 0;
+        int offlineFrom = 0;
+        while (seenFrom < seen.size() || offlineFrom < offline.size()) {
+            int seenTo = Math.min(seen.size(), seenFrom + maxSyncSize);
+            int offlineTo = Math.min(offline.size(), offlineFrom + maxSyncSize - (seenTo - seenFrom));
+            broadcaster.publish(new PresenceSync(
+                    nodeId,
+                    seen.subList(seenFrom, seenTo),
+                    offline.subList(offlineFrom, offlineTo)
+            ));
+            seenFrom = seenTo;
+            offlineFrom = offlineTo;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import io.github.xpakx.webrtcgame.presence.dto.PresenceStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-sent event streams of presence changes. Each batch is serialized once and written to every stream
+ * from its own virtual thread; a stream still busy with the previous batch is closed instead of queueing,
+ * the client reconnects and asks for the statuses it cares about again.
+ */
+@Component
+public class PresenceSubscriptions implements PresenceService.Listener {
+    private static final String EVENT = "presence";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final JsonMapper jsonMapper;
+    private final long timeoutMillis;
+    private final Counter dropped;
+
+    public PresenceSubscriptions(
+            @Value("${presence.subscription-timeout:30m}") Duration timeout,
+            PresenceService presenceService,
+            JsonMapper jsonMapper,
+            MeterRegistry registry) {
+        this.jsonMapper = jsonMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.dropped = Counter.builder("presence.subscribers.dropped")
+                .register(registry);
+        Gauge.builder("presence.subscribers", subscribers, Set::size)
+                .register(registry);
+        presenceService.subscribe(this);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError((e) -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void onPresenceChanges(List<PresenceStatus> changes) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        byte[] body = jsonMapper.writeValueAsBytes(changes);
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.sending.compareAndSet(false, true)) {
+                dropped.increment();
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            senders.execute(() -> send(subscriber, body));
+        }
+    }
+
+    private void send(Subscriber subscriber, byte[] body) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .name(EVENT)
+                    .data(body, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, AtomicBoolean sending) {
+        Subscriber(SseEmitter emitter) {
+            this(emitter, new AtomicBoolean());
+        }
+    }
+}
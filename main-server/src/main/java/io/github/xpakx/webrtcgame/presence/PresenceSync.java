@@ -0,0 +1,12 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import java.util.List;
+
+/**
+ * Presence changes made on node {@code origin} since its previous sync.
+ *
+ * @param seen    players that came online or are still sending heartbeats there
+ * @param offline players that logged out there; expiry is not sent, every node expires entries on its own
+ */
+public record PresenceSync(String origin, List<String> seen, List<String> offline) {
+}
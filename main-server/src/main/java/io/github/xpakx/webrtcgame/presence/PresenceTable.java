@@ -0,0 +1,185 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Online players keyed by lower-cased username, split into independently locked shards.
+ * Each shard expires its entries with a timing wheel of {@code tickMillis} slots: a heartbeat puts the entry
+ * into the slot of its new deadline and leaves the old reference behind, which the sweep skips once it sees
+ * the deadline has moved. No timer or queue operation per entry, and a sweep only touches the slots that came due.
+ */
+public class PresenceTable {
+    private final Shard[] shards;
+    private final int shardMask;
+    private final long tickMillis;
+    private final long ttlTicks;
+    private final long propagateTicks;
+
+    public PresenceTable(int shards, long tickMillis, long ttlMillis) {
+        if (Integer.bitCount(shards) != 1) {
+            throw new IllegalArgumentException("Shard count must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.ttlTicks = Math.max(1, Math.ceilDiv(ttlMillis, tickMillis));
+        this.propagateTicks = Math.max(1, ttlTicks / 2);
+        // larger than the ttl, so slots never hold two deadlines that are both in the future
+        int slots = Integer.highestOneBit((int) ttlTicks + 1) << 1;
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard(slots);
+        }
+        this.shardMask = shards - 1;
+    }
+
+    public enum Heartbeat {
+        /**
+         * The player wasn't online before.
+         */
+        ONLINE,
+        /**
+         * Already online, and no heartbeat of the player was passed on to other nodes for half the ttl.
+         */
+        PROPAGATE,
+        REFRESHED
+    }
+
+    public Heartbeat heartbeat(String username, long nowMillis) {
+        String key = key(username);
+        long tick = nowMillis / tickMillis;
+        long deadline = tick + ttlTicks;
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Entry entry = shard.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key, username, deadline, tick);
+                shard.entries.put(key, entry);
+                shard.schedule(entry);
+                return Heartbeat.ONLINE;
+            }
+            if (deadline > entry.deadline) {
+                entry.deadline = deadline;
+                shard.schedule(entry);
+            }
+            if (tick - entry.propagatedAt >= propagateTicks) {
+                entry.propagatedAt = tick;
+                return Heartbeat.PROPAGATE;
+            }
+            return Heartbeat.REFRESHED;
+        }
+    }
+
+    /**
+     * @return whether the player was online
+     */
+    public boolean remove(String username) {
+        String key = key(username);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            return shard.entries.remove(key) != null;
+        }
+    }
+
+    public boolean isOnline(String username) {
+        String key = key(username);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            return shard.entries.containsKey(key);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes players whose deadline has passed and hands their usernames to {@code expired}, outside the shard locks.
+     */
+    public void expire(long nowMillis, Consumer<String> expired) {
+        long tick = nowMillis / tickMillis;
+        List<String> removed = new ArrayList<>();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.advance(tick, removed);
+            }
+            removed.forEach(expired);
+            removed.clear();
+        }
+    }
+
+    private Shard shard(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Shard {
+        private final HashMap<String, Entry> entries = new HashMap<>();
+        private final List<Entry>[] wheel;
+        private final int slotMask;
+        private long sweptTick = -1;
+
+        @SuppressWarnings("unchecked")
+        Shard(int slots) {
+            this.wheel = new List[slots];
+            for (int i = 0; i < slots; i++) {
+                wheel[i] = new ArrayList<>();
+            }
+            this.slotMask = slots - 1;
+        }
+
+        void schedule(Entry entry) {
+            wheel[(int) (entry.deadline & slotMask)].add(entry);
+        }
+
+        void advance(long tick, List<String> removed) {
+            if (sweptTick < 0) {
+                sweptTick = tick - 1;
+            }
+            // after a long pause one round over the wheel visits every slot
+            long from = Math.max(sweptTick + 1, tick - slotMask);
+            for (long t = from; t <= tick; t++) {
+                int index = (int) (t & slotMask);
+                wheel[index].removeIf((entry) -> {
+                    if (entries.get(entry.key) != entry) {
+                        return true;
+                    }
+                    if (entry.deadline <= tick) {
+                        entries.remove(entry.key);
+                        removed.add(entry.username);
+                        return true;
+                    }
+                    // moved on to a later slot, unless the pause was long enough to wrap around to this one
+                    return (entry.deadline & slotMask) != index;
+                });
+            }
+            sweptTick = Math.max(sweptTick, tick);
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final String username;
+        private long deadline;
+        private long propagatedAt;
+
+        Entry(String key, String username, long deadline, long propagatedAt) {
+            this.key = key;
+            this.username = username;
+            this.deadline = deadline;
+            this.propagatedAt = propagatedAt;
+        }
+    }
+}
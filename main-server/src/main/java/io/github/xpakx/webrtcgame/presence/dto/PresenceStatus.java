@@ -0,0 +1,4 @@
+package io.github.xpakx.webrtcgame.presence.dto;
+
+public record PresenceStatus(String username, boolean online) {
+}
@@ -0,0 +1,34 @@
+package io.github.xpakx.webrtcgame.ratelimit;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * Token bucket holding up to {@code capacity} requests and refilling completely over {@code period}.
+ */
+public record RateLimit(int capacity, Duration period) {
+
+    public RateLimit {
+        if (capacity < 1 || capacity > TokenBucketTable.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + TokenBucketTable.MAX_CAPACITY);
+        }
+        if (period.toMillis() < 1) {
+            throw new IllegalArgumentException("Period must be at least 1ms");
+        }
+    }
+
+    /**
+     * @param value capacity and period, e.g. {@code 10/1m}
+     */
+    public static RateLimit parse(String value) {
+        int separator = value.indexOf('/');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Rate limit must look like <capacity>/<period>, was " + value);
+        }
+        return new RateLimit(
+                Integer.parseInt(value.substring(0, separator).trim()),
+                DurationStyle.detectAndParse(value.substring(separator + 1).trim())
+        );
+    }
+}
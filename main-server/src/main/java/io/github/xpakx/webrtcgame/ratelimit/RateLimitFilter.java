@@ -0,0 +1,230 @@
+package io.github.xpakx.webrtcgame.ratelimit;
+
+import io.github.xpakx.webrtcgame.error.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects calls to endpoints that hash passwords with 429 before any hashing or database work,
+ * once either the client's IP or the username in the request body runs out of tokens.
+ * The IP bucket is checked first, so a rejected client doesn't even get its body parsed.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final int MAX_BODY_SIZE = 4096;
+    private static final String USERNAME_FIELD = "username";
+
+    private final Map<String, EndpointLimiter> limiters;
+    private final JsonMapper jsonMapper;
+    private final byte[] rejectionBody;
+    private final SipHash keyHash = SipHash.withRandomKey();
+    private final long startNanos = System.nanoTime();
+
+    public RateLimitFilter(
+            @Value("${rate-limit.table-size:65536}") int tableSize,
+            @Value("${rate-limit.authenticate.per-ip:30/1m}") String authenticatePerIp,
+            @Value("${rate-limit.authenticate.per-username:10/1m}") String authenticatePerUsername,
+            @Value("${rate-limit.register.per-ip:5/1m}") String registerPerIp,
+            @Value("${rate-limit.register.per-username:5/1m}") String registerPerUsername,
+            JsonMapper jsonMapper,
+            MeterRegistry registry) {
+        this.limiters = Map.of(
+                "/authenticate", new EndpointLimiter("authenticate", RateLimit.parse(authenticatePerIp),
+                        RateLimit.parse(authenticatePerUsername), tableSize, registry),
+                "/register", new EndpointLimiter("register", RateLimit.parse(registerPerIp),
+                        RateLimit.parse(registerPerUsername), tableSize, registry)
+        );
+        this.jsonMapper = jsonMapper;
+        this.rejectionBody = jsonMapper.writeValueAsBytes(new ErrorResponse(
+                "Too many requests, try again later!",
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                null
+        ));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !limiters.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        EndpointLimiter limiter = limiters.get(request.getRequestURI());
+        long now = nowMillis();
+        long wait = limiter.perIp.tryAcquire(keyHash.hash(request.getRemoteAddr()), now);
+        if (wait > 0) {
+            limiter.rejectedByIp.increment();
+            reject(response, wait);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_SIZE + 1);
+        if (body.length > MAX_BODY_SIZE) {
+            response.sendError(HttpStatus.CONTENT_TOO_LARGE.value());
+            return;
+        }
+        String username = username(body);
+        if (username != null) {
+            wait = limiter.perUsername.tryAcquire(keyHash.hash(username.toLowerCase(Locale.ROOT)), now);
+            if (wait > 0) {
+                limiter.rejectedByUsername.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval:60000}")
+    public void evictIdle() {
+        long now = nowMillis();
+        limiters.values().forEach((limiter) -> {
+            limiter.perIp.evictIdle(now);
+            limiter.perUsername.evictIdle(now);
+        });
+    }
+
+    private void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejectionBody.length);
+        response.getOutputStream().write(rejectionBody);
+    }
+
+    // malformed bodies are left for the controller to reject, the IP limit still applies to them
+    private String username(byte[] body) {
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (USERNAME_FIELD.equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getString() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (JacksonException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static class EndpointLimiter {
+        private final TokenBucketTable perIp;
+        private final TokenBucketTable perUsername;
+        private final Counter rejectedByIp;
+        private final Counter rejectedByUsername;
+
+        EndpointLimiter(String endpoint, RateLimit perIp, RateLimit perUsername, int tableSize, MeterRegistry registry) {
+            this.perIp = new TokenBucketTable(perIp, tableSize);
+            this.perUsername = new TokenBucketTable(perUsername, tableSize);
+            this.rejectedByIp = Counter.builder("auth.rate_limit.rejected")
+                    .tag("endpoint", endpoint)
+                    .tag("key", "ip")
+                    .register(registry);
+            this.rejectedByUsername = Counter.builder("auth.rate_limit.rejected")
+                    .tag("endpoint", endpoint)
+                    .tag("key", "username")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Replays the body already read by the filter.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // the body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.xpakx.webrtcgame.ratelimit;
+
+import java.security.SecureRandom;
+
+/**
+ * SipHash-2-4 of a string's UTF-16LE encoding, computed over its chars without encoding them first.
+ * Keyed with a random per-instance key, so bucket collisions can't be precomputed by a client.
+ */
+final class SipHash {
+    private final long k0;
+    private final long k1;
+
+    SipHash(long k0, long k1) {
+        this.k0 = k0;
+        this.k1 = k1;
+    }
+
+    static SipHash withRandomKey() {
+        SecureRandom random = new SecureRandom();
+        return new SipHash(random.nextLong(), random.nextLong());
+    }
+
+    long hash(CharSequence key) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+        int blocks = key.length() >>> 2;
+        // the last word holds the remaining chars and the length in bytes
+        for (int block = 0; block <= blocks; block++) {
+            long word = block < blocks ? word(key, block * 4) : last(key, blocks * 4);
+            v3 ^= word;
+            for (int round = 0; round < 2; round++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= word;
+        }
+        v2 ^= 0xff;
+        for (int round = 0; round < 4; round++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    private static long word(CharSequence key, int offset) {
+        return key.charAt(offset)
+                | (long) key.charAt(offset + 1) << 16
+                | (long) key.charAt(offset + 2) << 32
+                | (long) key.charAt(offset + 3) << 48;
+    }
+
+    private static long last(CharSequence key, int offset) {
+        long word = (long) (key.length() * 2) << 56;
+        for (int i = offset; i < key.length(); i++) {
+            word |= (long) key.charAt(i) << (16 * (i - offset));
+        }
+        return word;
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.xpakx.webrtcgame.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free table of token buckets sharing one {@link RateLimit}. Keys are 64-bit hashes.
+ * <p>
+ * The slots are split into sets of {@link #WAYS}. Each key is hashed to one set, so lookups stay within
+ * one cache line. A bucket is a single long: a 16-bit key fingerprint, the time of its last refill in
+ * milliseconds (32 bits, wrapping), and its tokens in 1/64 units (16 bits). Every update is one CAS on
+ * that long, and concurrent requests for a key just retry.
+ * <p>
+ * A new key takes an empty slot of its set, or the slot of a bucket that has refilled completely, which
+ * is the same as forgetting it. A bucket that is still refilling is never evicted, as that would hand its
+ * client a fresh bucket: when the whole set is refilling, the new key is rejected until one of them is
+ * full. Memory therefore never grows, and flooding a set fails closed for the keys hashed to it.
+ * {@link #evictIdle(long)} clears full buckets, so a timestamp never gets old enough to wrap.
+ */
+public final class TokenBucketTable {
+    public static final int MAX_CAPACITY = 1023;
+    static final int WAYS = 4;
+    private static final long UNIT = 64;
+    private static final int TIME_SHIFT = 16;
+    private static final int FINGERPRINT_SHIFT = 48;
+    private static final long TOKENS_MASK = (1L << TIME_SHIFT) - 1;
+    private static final long TIME_MASK = 0xFFFFFFFFL;
+
+    private final AtomicLongArray slots;
+    private final int setMask;
+    private final long capacity;
+    private final long periodMillis;
+
+    /**
+     * @param size number of buckets, rounded up to a power of two
+     */
+    public TokenBucketTable(RateLimit limit, int size) {
+        int sets = Integer.highestOneBit(Math.max(1, (size + WAYS - 1) / WAYS - 1)) << 1;
+        this.slots = new AtomicLongArray(sets * WAYS);
+        this.setMask = sets - 1;
+        this.capacity = limit.capacity() * UNIT;
+        this.periodMillis = limit.period().toMillis();
+    }
+
+    /**
+     * Takes a token from the key's bucket.
+     * @param nowMillis monotonic time in milliseconds
+     * @return 0 if the request is allowed, otherwise milliseconds until the next token,
+     * or until a slot frees up for a key that has no bucket yet
+     */
+    public long tryAcquire(long keyHash, long nowMillis) {
+        long fingerprint = fingerprint(keyHash);
+        int set = (int) (keyHash & setMask) * WAYS;
+        while (true) {
+            int free = -1;
+            long freeState = 0;
+            long wait = Long.MAX_VALUE;
+            boolean contended = false;
+            for (int slot = set; slot < set + WAYS; slot++) {
+                long state = slots.get(slot);
+                if (state >>> FINGERPRINT_SHIFT == fingerprint) {
+                    long refilled = refill(state, nowMillis);
+                    long tokens = refilled & TOKENS_MASK;
+                    if (tokens < UNIT) {
+                        return millisUntil(UNIT - tokens);
+                    }
+                    if (slots.compareAndSet(slot, state, refilled - UNIT)) {
+                        return 0;
+                    }
+                    contended = true;
+                    break;
+                }
+                if (state == 0 || isFull(state, nowMillis)) {
+                    if (free < 0) {
+                        free = slot;
+                        freeState = state;
+                    }
+                } else {
+                    wait = Math.min(wait, millisUntil(capacity - (refill(state, nowMillis) & TOKENS_MASK)));
+                }
+            }
+            if (contended) {
+                continue;
+            }
+            if (free < 0) {
+                return Math.max(wait, 1);
+            }
+            if (slots.compareAndSet(free, freeState, pack(fingerprint, nowMillis, capacity - UNIT))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Clears buckets that have refilled completely.
+     * @return number of buckets cleared
+     */
+    public int evictIdle(long nowMillis) {
+        int evicted = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            long state = slots.get(slot);
+            if (state != 0 && isFull(state, nowMillis) && slots.compareAndSet(slot, state, 0)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return slots.length();
+    }
+
+    private long refill(long state, long nowMillis) {
+        long tokens = state & TOKENS_MASK;
+        long elapsed = idleMillis(state, nowMillis);
+        long added = elapsed * capacity / periodMillis;
+        if (tokens + added >= capacity) {
+            return pack(state >>> FINGERPRINT_SHIFT, nowMillis, capacity);
+        }
+        if (added == 0) {
+            return state;
+        }
+        // the time is moved only by what the added units took, so fractions of a unit aren't lost
+        long time = time(state) + added * periodMillis / capacity;
+        return pack(state >>> FINGERPRINT_SHIFT, time, tokens + added);
+    }
+
+    private boolean isFull(long state, long nowMillis) {
+        long tokens = state & TOKENS_MASK;
+        return tokens + idleMillis(state, nowMillis) * capacity / periodMillis >= capacity;
+    }
+
+    private long millisUntil(long units) {
+        return (units * periodMillis + capacity - 1) / capacity;
+    }
+
+    private static long idleMillis(long state, long nowMillis) {
+        return (nowMillis - time(state)) & TIME_MASK;
+    }
+
+    private static long time(long state) {
+        return (state >>> TIME_SHIFT) & TIME_MASK;
+    }
+
+    private static long pack(long fingerprint, long timeMillis, long tokens) {
+        return fingerprint << FINGERPRINT_SHIFT | (timeMillis & TIME_MASK) << TIME_SHIFT | tokens;
+    }
+
+    // zero marks an empty slot
+    private static long fingerprint(long keyHash) {
+        long fingerprint = keyHash >>> FINGERPRINT_SHIFT;
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.xpakx.webrtcgame.settings;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MigrationConfig {
+
+    /**
+     * With AOT processing the Flyway beans exist whatever {@code spring.flyway.enabled} says at runtime,
+     * so skipping migrations (in the image's training run, or on extra nodes of an already migrated database)
+     * is decided here instead.
+     */
+    @Bean
+    public FlywayMigrationStrategy migrationStrategy(@Value("${database.migrate-on-startup:true}") boolean migrate) {
+        return (flyway) -> {
+            if (migrate) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -1,9 +1,14 @@
 package io.github.xpakx.webrtcgame.settings;
 
+import io.github.xpakx.webrtcgame.hashing.BCryptCalibrator;
+import io.github.xpakx.webrtcgame.hashing.OffloadingPasswordEncoder;
+import io.github.xpakx.webrtcgame.hashing.PasswordHashingExecutor;
 import io.github.xpakx.webrtcgame.jwt.JwtAuthenticationEntryPoint;
 import io.github.xpakx.webrtcgame.jwt.JwtRequestFilter;
+import io.github.xpakx.webrtcgame.ratelimit.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,14 +20,18 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -31,10 +40,23 @@ import java.util.List;
 public class SecurityConfig {
     private final JwtRequestFilter jwtRequestFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
-    public PasswordEncoder getPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder getPasswordEncoder(
+            PasswordHashingExecutor hashingExecutor,
+            @Value("${hashing.bcrypt.target-latency:40ms}") Duration targetLatency,
+            @Value("${hashing.bcrypt.min-strength:10}") int minStrength) {
+        int strength = new BCryptCalibrator(targetLatency, minStrength).calibrate();
+        return new OffloadingPasswordEncoder(delegatingPasswordEncoder(strength), hashingExecutor);
+    }
+
+    private PasswordEncoder delegatingPasswordEncoder(int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // hashes stored before the switch to delegating encoder have no {id} prefix
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -57,6 +79,10 @@ public class SecurityConfig {
                                 .requestMatchers(HttpMethod.POST, "/authenticate").permitAll()
                                 .requestMatchers(HttpMethod.POST, "/register").permitAll()
                                 .requestMatchers(HttpMethod.POST, "/refresh").permitAll()
+                                .requestMatchers(HttpMethod.POST, "/tokens/revoke").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
+                                // scraped by Prometheus, should only be reachable from the internal network
+                                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(
@@ -67,10 +93,20 @@ public class SecurityConfig {
                         (exceptionHandling) -> exceptionHandling
                                 .authenticationEntryPoint(jwtAuthenticationEntryPoint)
                 )
+                // after CORS, so that rejected browser clients still see the 429
+                .addFilterAfter(rateLimitFilter, CorsFilter.class)
                 .addFilterAfter(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
+    // runs only inside the security chain, otherwise the servlet container would call it before CORS
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource(
             @Value("${frontend.url}") final String frontend) {
@@ -4,9 +4,6 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.HashSet;
-import java.util.Set;
-
 @Entity
 @Table(name = "account")
 @Getter
@@ -15,8 +12,11 @@ import java.util.Set;
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Account {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = ID_ALLOCATION_SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -27,11 +27,15 @@ public class Account {
     @Column(nullable = false)
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-            name = "account_roles",
-            joinColumns = @JoinColumn(name = "account_id")
-    )
-    @Column(name = "role")
-    private Set<String> roles = new HashSet<>();
+    /**
+     * Bitmask of {@link Role#mask()} values.
+     */
+    @Column(nullable = false)
+    private int roles;
+
+    /**
+     * Refresh tokens issued with a lower generation are revoked.
+     */
+    @Column(nullable = false)
+    private int tokenGeneration;
 }
@@ -0,0 +1,28 @@
+package io.github.xpakx.webrtcgame.user;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// bulk import is rare, created on the first request instead of at startup
+@Lazy
+@RestController
+@RequiredArgsConstructor
+public class AccountImportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final AccountImportService service;
+
+    @PostMapping(value = "/accounts/import", consumes = NDJSON)
+    @PreAuthorize("hasAuthority('MODERATOR')")
+    public void importAccounts(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        service.importAccounts(body, response.getOutputStream());
+    }
+}
@@ -0,0 +1,251 @@
+package io.github.xpakx.webrtcgame.user;
+
+import io.github.xpakx.webrtcgame.user.dto.AccountImportResult;
+import io.github.xpakx.webrtcgame.user.dto.AccountImportRow;
+import io.github.xpakx.webrtcgame.user.dto.AccountImportStatus;
+import io.github.xpakx.webrtcgame.user.dto.RegistrationRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates accounts from an NDJSON stream in chunks: passwords of a chunk are hashed in parallel,
+ * then the chunk is written with one JDBC batch using ids preallocated from {@code account_seq}.
+ * Every chunk commits or rolls back on its own, so a failed chunk doesn't stop the rest of the import.
+ * One result line, tagged with its chunk number, is written back per input line as soon as its chunk is done.
+ */
+@Lazy
+@Service
+public class AccountImportService {
+    private static final Logger logger = LoggerFactory.getLogger(AccountImportService.class);
+    private static final String INSERT_ACCOUNT = """
+            INSERT INTO account (id, username, password, roles)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT ((LOWER(username))) DO NOTHING""";
+    private static final String ALLOCATE_IDS = "SELECT nextval('account_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final int chunkSize;
+    private final Semaphore hashingPermits;
+
+    public AccountImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PasswordEncoder passwordEncoder,
+            Validator validator,
+            JsonMapper jsonMapper,
+            @Value("${accounts.import.chunk-size:500}") int chunkSize,
+            @Value("${accounts.import.hashing-parallelism:0}") int hashingParallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.chunkSize = chunkSize;
+        // leave part of the hashing pool free for regular logins
+        this.hashingPermits = new Semaphore(hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public void importAccounts(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        int chunkNumber = 1;
+        String line;
+        try (ExecutorService hashers = Executors.newVirtualThreadPerTaskExecutor()) {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(parse(lineNumber, line));
+                if (chunk.size() >= chunkSize) {
+                    writeResults(processChunk(chunkNumber++, chunk, hashers), output);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeResults(processChunk(chunkNumber, chunk, hashers), output);
+            }
+        }
+    }
+
+    private PendingRow parse(long lineNumber, String line) {
+        AccountImportRow row;
+        try {
+            row = jsonMapper.readValue(line, AccountImportRow.class);
+        } catch (JacksonException e) {
+            return PendingRow.failed(lineNumber, null, AccountImportStatus.INVALID, "Malformed JSON");
+        }
+        if (row == null) {
+            return PendingRow.failed(lineNumber, null, AccountImportStatus.INVALID, "Malformed JSON");
+        }
+        Set<ConstraintViolation<RegistrationRequest>> violations = validator.validate(row.toRegistrationRequest());
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+            return PendingRow.failed(lineNumber, row.username(), AccountImportStatus.INVALID, error);
+        }
+        return new PendingRow(lineNumber, row);
+    }
+
+    private List<AccountImportResult> processChunk(int number, List<PendingRow> chunk, ExecutorService hashers) {
+        List<PendingRow> valid = hashPasswords(chunk, hashers);
+        if (!valid.isEmpty()) {
+            try {
+                insert(valid);
+            } catch (DataAccessException e) {
+                logger.warn("Account import chunk {} rolled back", number, e);
+                for (PendingRow row : valid) {
+                    row.fail(AccountImportStatus.FAILED, "Chunk rolled back");
+                }
+            }
+        }
+        return chunk.stream()
+                .map((row) -> row.toResult(number))
+                .toList();
+    }
+
+    private List<PendingRow> hashPasswords(List<PendingRow> chunk, ExecutorService hashers) {
+        List<PendingRow> toHash = chunk.stream()
+                .filter((row) -> row.status == null)
+                .toList();
+        List<Future<String>> hashes = new ArrayList<>(toHash.size());
+        for (PendingRow row : toHash) {
+            hashes.add(hashers.submit(() -> hash(row.request.password())));
+        }
+        List<PendingRow> hashed = new ArrayList<>(toHash.size());
+        for (int i = 0; i < toHash.size(); i++) {
+            PendingRow row = toHash.get(i);
+            try {
+                row.encodedPassword = hashes.get(i).get();
+                hashed.add(row);
+            } catch (ExecutionException e) {
+                row.fail(AccountImportStatus.FAILED, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing passwords", e);
+            }
+        }
+        return hashed;
+    }
+
+    private String hash(String password) throws InterruptedException {
+        hashingPermits.acquire();
+        try {
+            return passwordEncoder.encode(password);
+        } finally {
+            hashingPermits.release();
+        }
+    }
+
+    private void insert(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult((status) -> {
+            assignIds(rows);
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows, rows.size(), (ps, row) -> {
+                ps.setLong(1, row.id);
+                ps.setString(2, row.request.username());
+                ps.setString(3, row.encodedPassword);
+                ps.setInt(4, row.roles());
+            });
+            int i = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    PendingRow row = rows.get(i++);
+                    row.status = count == 0 ? AccountImportStatus.EXISTS : AccountImportStatus.CREATED;
+                }
+            }
+        });
+    }
+
+    /**
+     * Each sequence value reserves a block of ids ending at that value,
+     * the same way Hibernate's pooled optimizer interprets it for {@link Account}.
+     */
+    private void assignIds(List<PendingRow> rows) {
+        int blocks = (rows.size() + Account.ID_ALLOCATION_SIZE - 1) / Account.ID_ALLOCATION_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(ALLOCATE_IDS, Long.class, blocks);
+        for (int i = 0; i < rows.size(); i++) {
+            long blockEnd = blockEnds.get(i / Account.ID_ALLOCATION_SIZE);
+            rows.get(i).id = blockEnd - Account.ID_ALLOCATION_SIZE + 1 + (i % Account.ID_ALLOCATION_SIZE);
+        }
+    }
+
+    private void writeResults(List<AccountImportResult> results, OutputStream output) throws IOException {
+        for (AccountImportResult result : results) {
+            output.write(jsonMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    private static class PendingRow {
+        private final long line;
+        private final AccountImportRow request;
+        private String username;
+        private AccountImportStatus status;
+        private String error;
+        private String encodedPassword;
+        private long id;
+
+        PendingRow(long line, AccountImportRow request) {
+            this.line = line;
+            this.request = request;
+            this.username = request != null ? request.username() : null;
+        }
+
+        static PendingRow failed(long line, String username, AccountImportStatus status, String error) {
+            PendingRow row = new PendingRow(line, null);
+            row.username = username;
+            row.fail(status, error);
+            return row;
+        }
+
+        void fail(AccountImportStatus status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        int roles() {
+            return Boolean.TRUE.equals(request.moderatorRole())
+                    ? Role.USER.mask() | Role.MODERATOR.mask()
+                    : Role.USER.mask();
+        }
+
+        AccountImportResult toResult(int chunk) {
+            return new AccountImportResult(
+                    line,
+                    chunk,
+                    username,
+                    status,
+                    status == AccountImportStatus.CREATED ? id : null,
+                    error
+            );
+        }
+    }
+}
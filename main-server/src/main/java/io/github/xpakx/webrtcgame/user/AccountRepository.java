@@ -1,11 +1,56 @@
 package io.github.xpakx.webrtcgame.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Username uniqueness is enforced by the index on LOWER(username),
+ * so every lookup compares lower-cased values to be able to use it.
+ */
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findByUsername(String username);
-    boolean existsByUsername(String username);
-    boolean existsByUsernameIgnoreCase(String username);
+    @Query("SELECT a FROM Account a WHERE LOWER(a.username) = LOWER(:username)")
+    Optional<Account> findByUsername(@Param("username") String username);
+
+    @Query("SELECT COUNT(a) > 0 FROM Account a WHERE LOWER(a.username) = LOWER(:username)")
+    boolean existsByUsername(@Param("username") String username);
+
+    /**
+     * @return id of the new account, empty if the username is already taken
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO account (username, password, roles)
+            VALUES (:username, :password, :roles)
+            ON CONFLICT ((LOWER(username))) DO NOTHING
+            RETURNING id""", nativeQuery = true)
+    Optional<Long> insertIfAbsent(
+            @Param("username") String username,
+            @Param("password") String password,
+            @Param("roles") int roles
+    );
+
+    @Query("SELECT a.username AS username, a.tokenGeneration AS tokenGeneration FROM Account a WHERE a.tokenGeneration > 0")
+    List<TokenGenerationView> findRevokedTokenGenerations();
+
+    /**
+     * Not {@code @Modifying}: the RETURNING row is read as a query result, which executeUpdate would reject.
+     * @return new generation, empty if there is no such account
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE account SET token_generation = token_generation + 1
+            WHERE LOWER(username) = LOWER(:username)
+            RETURNING token_generation""", nativeQuery = true)
+    Optional<Integer> incrementTokenGeneration(@Param("username") String username);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Account a SET a.password = :password WHERE LOWER(a.username) = LOWER(:username)")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
\ No newline at end of file
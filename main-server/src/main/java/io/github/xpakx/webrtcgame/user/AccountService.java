@@ -1,6 +1,7 @@
 package io.github.xpakx.webrtcgame.user;
 
 import io.github.xpakx.webrtcgame.jwt.JwtUtils;
+import io.github.xpakx.webrtcgame.jwt.revocation.TokenRevocationService;
 import io.github.xpakx.webrtcgame.user.dto.AuthenticationRequest;
 import io.github.xpakx.webrtcgame.user.dto.AuthenticationResponse;
 import io.github.xpakx.webrtcgame.user.dto.RefreshTokenRequest;
@@ -8,7 +9,9 @@ import io.github.xpakx.webrtcgame.user.dto.RegistrationRequest;
 import io.github.xpakx.webrtcgame.user.error.AuthenticationException;
 import io.github.xpakx.webrtcgame.user.error.ValidationException;
 import io.jsonwebtoken.Claims;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -18,22 +21,64 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 
 @Service
-@RequiredArgsConstructor
 public class AccountService {
+    private static final AuthenticationException INVALID_PASSWORD = new AuthenticationException("Invalid password!");
+    private static final AuthenticationException INVALID_REFRESH_TOKEN = new AuthenticationException("Invalid refresh token!");
+    private static final AuthenticationException REFRESH_TOKEN_REVOKED = new AuthenticationException("Refresh token revoked!");
+    private static final AuthenticationException UNKNOWN_ACCOUNT = new AuthenticationException("Account not found!");
+    private static final ValidationException USERNAME_EXISTS = new ValidationException("Username exists!");
+
     private final AccountRepository userRepository;
     private final JwtUtils jwtUtils;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationService tokenRevocationService;
+    private final Counter badCredentials;
+    private final Counter disabled;
+    private final Counter invalidRefreshToken;
+    private final Counter revokedRefreshToken;
+    private final Counter invalidRevokeToken;
+    private final Counter revokedRevokeToken;
+
+    public AccountService(
+            AccountRepository userRepository,
+            JwtUtils jwtUtils,
+            UserService userService,
+            PasswordEncoder passwordEncoder,
+            AuthenticationManager authenticationManager,
+            TokenRevocationService tokenRevocationService,
+            MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.jwtUtils = jwtUtils;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.authenticationManager = authenticationManager;
+        this.tokenRevocationService = tokenRevocationService;
+        this.badCredentials = failures("authenticate", "bad_credentials", registry);
+        this.disabled = failures("authenticate", "disabled", registry);
+        this.invalidRefreshToken = failures("refresh", "invalid", registry);
+        this.revokedRefreshToken = failures("refresh", "revoked", registry);
+        this.invalidRevokeToken = failures("revoke", "invalid", registry);
+        this.revokedRevokeToken = failures("revoke", "revoked", registry);
+    }
+
+    private static Counter failures(String endpoint, String reason, MeterRegistry registry) {
+        return Counter.builder("auth.failures")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(registry);
+    }
 
     public AuthenticationResponse register(RegistrationRequest request) {
-        testRequest(request);
         Account user = createNewAccount(request);
         final String token = jwtUtils.generateToken(userService.userAccountToUserDetails(user));
-        final String refreshToken = jwtUtils.generateRefreshToken(request.username());
+        final String refreshToken = jwtUtils.generateRefreshToken(
+                user.getUsername(),
+                tokenRevocationService.currentGeneration(user.getUsername())
+        );
         return new AuthenticationResponse(
                 token,
                 refreshToken,
@@ -46,23 +91,23 @@ public class AccountService {
         Account userToAdd = new Account();
         userToAdd.setPassword(passwordEncoder.encode(request.password()));
         userToAdd.setUsername(request.username());
-        userToAdd.setRoles(Collections.singleton("ROLE_USER"));
-        return userRepository.save(userToAdd);
-    }
-
-    private void testRequest(RegistrationRequest request) {
-        if (userRepository.existsByUsernameIgnoreCase(request.username())) {
-            throw new ValidationException("Username exists!");
-        }
+        userToAdd.setRoles(Role.USER.mask());
+        Long id = userRepository.insertIfAbsent(userToAdd.getUsername(), userToAdd.getPassword(), userToAdd.getRoles())
+                .orElseThrow(() -> USERNAME_EXISTS);
+        userToAdd.setId(id);
+        return userToAdd;
     }
 
     private Authentication authenticate(String username, String password) {
         try {
+            // on success the provider also re-encodes outdated hashes via UserService.updatePassword
             return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
         } catch (DisabledException e) {
+            disabled.increment();
             throw new AuthenticationException("User " + username + " disabled!");
         } catch (BadCredentialsException e) {
-            throw new AuthenticationException("Invalid password!");
+            badCredentials.increment();
+            throw INVALID_PASSWORD;
         }
     }
 
@@ -71,10 +116,13 @@ public class AccountService {
         final UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
         final String token = jwtUtils.generateToken(userDetails);
-        final String refreshToken = jwtUtils.generateRefreshToken(userDetails.getUsername());
+        final String refreshToken = jwtUtils.generateRefreshToken(
+                userDetails.getUsername(),
+                tokenRevocationService.currentGeneration(userDetails.getUsername())
+        );
 
         boolean isModerator = userDetails.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("MODERATOR"));
+                .anyMatch(a -> a.getAuthority().equals(Role.MODERATOR.getName()));
         return new AuthenticationResponse(
                 token,
                 refreshToken,
@@ -84,22 +132,35 @@ public class AccountService {
     }
 
     public AuthenticationResponse refresh(RefreshTokenRequest request) {
-        if(jwtUtils.isInvalid(request.token())) {
-            return null;
+        Claims claims;
+        try {
+            claims = jwtUtils.getVerifiedClaims(request.token());
+        } catch (JwtException e) {
+            invalidRefreshToken.increment();
+            throw INVALID_REFRESH_TOKEN;
         }
-        Claims claims = jwtUtils.getAllClaimsFromToken(request.token());
-        Boolean isRefreshToken = claims.get("refresh", Boolean.class);
-        if (Boolean.FALSE.equals(isRefreshToken)) {
-            return null;
+        // access tokens carry no refresh claim and must not be exchangeable for new refresh tokens
+        if (!Boolean.TRUE.equals(claims.get("refresh", Boolean.class))) {
+            invalidRefreshToken.increment();
+            throw INVALID_REFRESH_TOKEN;
+        }
+
+        // refresh tokens are rotated, each one can be exchanged only once
+        if (!tokenRevocationService.consume(claims)) {
+            revokedRefreshToken.increment();
+            throw REFRESH_TOKEN_REVOKED;
         }
 
         var username = claims.getSubject();
         final UserDetails userDetails = userService.loadUserByUsername(username);
 
         final String token = jwtUtils.generateToken(userDetails);
-        final String refreshToken = jwtUtils.generateRefreshToken(username);
+        final String refreshToken = jwtUtils.generateRefreshToken(
+                username,
+                tokenRevocationService.currentGeneration(username)
+        );
         boolean isModerator = userDetails.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("MODERATOR"));
+                .anyMatch(a -> a.getAuthority().equals(Role.MODERATOR.getName()));
         return new AuthenticationResponse(
                 token,
                 refreshToken,
@@ -107,4 +168,28 @@ public class AccountService {
                 isModerator
         );
     }
+
+    public void revoke(RefreshTokenRequest request) {
+        Claims claims;
+        try {
+            claims = jwtUtils.getVerifiedClaims(request.token());
+        } catch (JwtException e) {
+            invalidRevokeToken.increment();
+            throw INVALID_REFRESH_TOKEN;
+        }
+        if (!Boolean.TRUE.equals(claims.get("refresh", Boolean.class))) {
+            invalidRevokeToken.increment();
+            throw INVALID_REFRESH_TOKEN;
+        }
+        if (!tokenRevocationService.consume(claims)) {
+            revokedRevokeToken.increment();
+            throw REFRESH_TOKEN_REVOKED;
+        }
+    }
+
+    public void revokeAll(String username) {
+        if (!tokenRevocationService.revokeAll(username)) {
+            throw UNKNOWN_ACCOUNT;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package io.github.xpakx.webrtcgame.user;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+/**
+ * User details holding one of the shared {@link Role#authorities(int)} lists as is. Spring's
+ * {@code User} sorts authorities into a new set on every construction, which this avoids.
+ * Equal by username, like {@code User}.
+ */
+public final class AccountUserDetails implements UserDetails, CredentialsContainer {
+    private final String username;
+    private String password;
+    private final List<GrantedAuthority> authorities;
+
+    public AccountUserDetails(String username, String password, int roles) {
+        this(username, password, Role.authorities(roles));
+    }
+
+    private AccountUserDetails(String username, String password, List<GrantedAuthority> authorities) {
+        this.username = username;
+        this.password = password;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Returns details sharing everything but the password, so erasing credentials of the copy keeps the original intact.
+     */
+    public AccountUserDetails copy() {
+        return new AccountUserDetails(username, password, authorities);
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AccountUserDetails details && username.equals(details.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Username=" + username + ", Granted Authorities=" + authorities + "]";
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
+
 @RestController
 @RequiredArgsConstructor
 public class AuthController {
@@ -40,4 +42,17 @@ public class AuthController {
                 service.refresh(request)
         );
     }
+
+    @PostMapping("/tokens/revoke")
+    public ResponseEntity<Void> revokeToken(
+            @Valid @RequestBody RefreshTokenRequest request) {
+        service.revoke(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/tokens/revoke-all")
+    public ResponseEntity<Void> revokeAllTokens(Principal principal) {
+        service.revokeAll(principal.getName());
+        return ResponseEntity.noContent().build();
+    }
 }
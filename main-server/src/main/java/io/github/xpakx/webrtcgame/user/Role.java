@@ -0,0 +1,84 @@
+package io.github.xpakx.webrtcgame.user;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry of roles stored as bits of {@code account.roles}. Bits are persisted, so a role keeps its bit
+ * for good, whatever its place in this enum. Authorities and authority lists for every possible mask are
+ * built once, so mapping an account to authorities allocates nothing.
+ */
+public enum Role {
+    USER("ROLE_USER", 1),
+    MODERATOR("MODERATOR", 1 << 1);
+
+    private static final Role[] ROLES = values();
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK = buildAuthorityLists();
+
+    private final String name;
+    private final int mask;
+    private final SimpleGrantedAuthority authority;
+
+    Role(String name, int mask) {
+        this.name = name;
+        this.mask = mask;
+        this.authority = new SimpleGrantedAuthority(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public SimpleGrantedAuthority authority() {
+        return authority;
+    }
+
+    public boolean isIn(int roles) {
+        return (roles & mask) != 0;
+    }
+
+    public static List<GrantedAuthority> authorities(int roles) {
+        return AUTHORITIES_BY_MASK.get(roles & (AUTHORITIES_BY_MASK.size() - 1));
+    }
+
+    /**
+     * Returns shared authority instance for known roles, and a new one for any other name.
+     */
+    public static GrantedAuthority authority(String name) {
+        for (Role role : ROLES) {
+            if (role.name.equals(name)) {
+                return role.authority;
+            }
+        }
+        return new SimpleGrantedAuthority(name);
+    }
+
+    private static List<List<GrantedAuthority>> buildAuthorityLists() {
+        int used = 0;
+        for (Role role : ROLES) {
+            if (Integer.bitCount(role.mask) != 1 || (used & role.mask) != 0) {
+                throw new IllegalStateException("Role " + role + " needs a single bit of its own");
+            }
+            used |= role.mask;
+        }
+        int combinations = Integer.highestOneBit(used) << 1;
+        List<List<GrantedAuthority>> lists = new ArrayList<>(combinations);
+        for (int roles = 0; roles < combinations; roles++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : ROLES) {
+                if (role.isIn(roles)) {
+                    authorities.add(role.authority);
+                }
+            }
+            lists.add(List.copyOf(authorities));
+        }
+        return List.copyOf(lists);
+    }
+}
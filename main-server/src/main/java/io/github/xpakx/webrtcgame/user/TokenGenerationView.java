@@ -0,0 +1,6 @@
+package io.github.xpakx.webrtcgame.user;
+
+public interface TokenGenerationView {
+    String getUsername();
+    int getTokenGeneration();
+}
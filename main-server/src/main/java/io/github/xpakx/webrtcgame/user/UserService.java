@@ -1,30 +1,49 @@
 package io.github.xpakx.webrtcgame.user;
 
+import io.github.xpakx.webrtcgame.user.cache.UserDetailsCache;
 import lombok.AllArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @AllArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     private final AccountRepository accountRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromRepository);
+    }
+
+    private AccountUserDetails loadFromRepository(String username) {
         var userAccount = accountRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("No user with username " + username));
         return userAccountToUserDetails(userAccount);
     }
 
-    public UserDetails userAccountToUserDetails(Account userAccount) {
-        return new User(
+    /**
+     * Called by the authentication provider after a successful login when the stored hash
+     * uses an outdated algorithm or work factor; persists the hash re-encoded with current settings.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        accountRepository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.invalidate(user.getUsername());
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    public AccountUserDetails userAccountToUserDetails(Account userAccount) {
+        return new AccountUserDetails(
                 userAccount.getUsername(),
                 userAccount.getPassword(),
-                userAccount.getRoles().stream().map(SimpleGrantedAuthority::new).toList()
+                userAccount.getRoles()
         );
     }
 }
\ No newline at end of file
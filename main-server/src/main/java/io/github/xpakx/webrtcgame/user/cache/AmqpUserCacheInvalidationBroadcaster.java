@@ -0,0 +1,41 @@
+package io.github.xpakx.webrtcgame.user.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+@RequiredArgsConstructor
+public class AmqpUserCacheInvalidationBroadcaster implements UserCacheInvalidationBroadcaster {
+    static final String EXCHANGE = "user.cache.invalidation";
+    private static final String SENT_AT_HEADER = "sentAt";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final List<BiConsumer<String, Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String username) {
+        rabbitTemplate.convertAndSend(EXCHANGE, "", username, (message) -> {
+            message.getMessageProperties().setHeader(SENT_AT_HEADER, System.currentTimeMillis());
+            return message;
+        });
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Long> listener) {
+        listeners.add(listener);
+    }
+
+    @RabbitListener(queues = "#{userCacheInvalidationQueue.name}")
+    public void onInvalidation(Message message) {
+        String username = new String(message.getBody(), StandardCharsets.UTF_8);
+        Object sentAt = message.getMessageProperties().getHeader(SENT_AT_HEADER);
+        long timestamp = sentAt instanceof Number number ? number.longValue() : System.currentTimeMillis();
+        listeners.forEach((listener) -> listener.accept(username, timestamp));
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.xpakx.webrtcgame.user.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+public class InMemoryUserCacheInvalidationBroadcaster implements UserCacheInvalidationBroadcaster {
+    private final List<BiConsumer<String, Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String username) {
+        long sentAt = System.currentTimeMillis();
+        listeners.forEach((listener) -> listener.accept(username, sentAt));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Long> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.xpakx.webrtcgame.user.cache;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "memory", matchIfMissing = true)
+    public UserCacheInvalidationBroadcaster inMemoryUserCacheInvalidationBroadcaster() {
+        return new InMemoryUserCacheInvalidationBroadcaster();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "messaging.transport", havingValue = "amqp")
+    static class AmqpInvalidationConfig {
+
+        @Bean
+        public FanoutExchange userCacheInvalidationExchange() {
+            return new FanoutExchange(AmqpUserCacheInvalidationBroadcaster.EXCHANGE);
+        }
+
+        @Bean
+        public Queue userCacheInvalidationQueue() {
+            return new AnonymousQueue();
+        }
+
+        @Bean
+        public Binding userCacheInvalidationBinding(Queue userCacheInvalidationQueue, FanoutExchange userCacheInvalidationExchange) {
+            return BindingBuilder.bind(userCacheInvalidationQueue).to(userCacheInvalidationExchange);
+        }
+
+        @Bean
+        public UserCacheInvalidationBroadcaster amqpUserCacheInvalidationBroadcaster(RabbitTemplate rabbitTemplate) {
+            return new AmqpUserCacheInvalidationBroadcaster(rabbitTemplate);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.xpakx.webrtcgame.user.cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Propagates evictions of cached user details to every node, including the sending one.
+ */
+public interface UserCacheInvalidationBroadcaster {
+    void publish(String username);
+
+    /**
+     * @param listener receives evicted username and the epoch millis at which the eviction was published
+     */
+    void subscribe(BiConsumer<String, Long> listener);
+}
@@ -0,0 +1,64 @@
+package io.github.xpakx.webrtcgame.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.xpakx.webrtcgame.user.AccountUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Node-local cache of user details. Evictions are broadcast to other nodes,
+ * TTL bounds how long a missed invalidation can keep stale roles alive.
+ */
+@Component
+public class UserDetailsCache {
+    private final Cache<String, AccountUserDetails> cache;
+    private final UserCacheInvalidationBroadcaster broadcaster;
+    private final Timer invalidationLag;
+
+    public UserDetailsCache(
+            @Value("${user.cache.max-size:10000}") long maxSize,
+            @Value("${user.cache.ttl:10m}") Duration ttl,
+            UserCacheInvalidationBroadcaster broadcaster,
+            MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.broadcaster = broadcaster;
+        this.invalidationLag = Timer.builder("user.cache.invalidation.lag")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, cache, "user.details");
+        broadcaster.subscribe(this::evictLocal);
+    }
+
+    /**
+     * Returns a copy of the cached entry, as authentication erases credentials of the principal it gets.
+     */
+    public AccountUserDetails get(String username, Function<String, AccountUserDetails> loader) {
+        return cache.get(key(username), (key) -> loader.apply(username)).copy();
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(key(username));
+        broadcaster.publish(username);
+    }
+
+    // usernames are unique ignoring case, so all spellings must share one entry
+    private String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private void evictLocal(String username, long sentAt) {
+        cache.invalidate(key(username));
+        invalidationLag.record(Duration.ofMillis(Math.max(System.currentTimeMillis() - sentAt, 0)));
+    }
+}
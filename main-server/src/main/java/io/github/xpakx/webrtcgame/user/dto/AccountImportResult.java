@@ -0,0 +1,14 @@
+package io.github.xpakx.webrtcgame.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountImportResult(
+        long line,
+        int chunk,
+        String username,
+        AccountImportStatus status,
+        Long id,
+        String error
+) {
+}
@@ -0,0 +1,14 @@
+package io.github.xpakx.webrtcgame.user.dto;
+
+/**
+ * One line of a bulk import, validated by the same rules as {@link RegistrationRequest}.
+ */
+public record AccountImportRow(
+        String username,
+        String password,
+        Boolean moderatorRole
+) {
+    public RegistrationRequest toRegistrationRequest() {
+        return new RegistrationRequest(username, password, password);
+    }
+}
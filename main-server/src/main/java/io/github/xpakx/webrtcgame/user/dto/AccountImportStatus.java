@@ -0,0 +1,5 @@
+package io.github.xpakx.webrtcgame.user.dto;
+
+public enum AccountImportStatus {
+    CREATED, EXISTS, INVALID, FAILED
+}
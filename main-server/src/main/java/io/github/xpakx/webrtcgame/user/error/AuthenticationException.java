@@ -3,9 +3,13 @@ package io.github.xpakx.webrtcgame.user.error;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Expected outcome of a failed login or refresh rather than a bug, so it carries no stack trace
+ * and instances with a fixed message can be shared.
+ */
 @ResponseStatus(HttpStatus.UNAUTHORIZED)
 public class AuthenticationException extends RuntimeException {
     public AuthenticationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
@@ -3,9 +3,12 @@ package io.github.xpakx.webrtcgame.user.error;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Rejected input, reported to the client; carries no stack trace and instances with a fixed message can be shared.
+ */
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class ValidationException extends RuntimeException {
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+ALTER TABLE account ADD COLUMN roles INTEGER NOT NULL DEFAULT 0;
+
+-- bits must match io.github.xpakx.webrtcgame.user.Role
+UPDATE account a
+SET roles = r.mask
+FROM (
+    SELECT account_id,
+           BIT_OR(CASE role WHEN 'ROLE_USER' THEN 1 WHEN 'MODERATOR' THEN 2 ELSE 0 END) AS mask
+    FROM account_roles
+    GROUP BY account_id
+) r
+WHERE a.id = r.account_id;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM account_roles WHERE role NOT IN ('ROLE_USER', 'MODERATOR')) THEN
+        RAISE EXCEPTION 'account_roles contains roles without a bit in account.roles';
+    END IF;
+END $$;
+
+DROP TABLE account_roles;
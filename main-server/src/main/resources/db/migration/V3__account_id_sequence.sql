@@ -0,0 +1,9 @@
+-- increment must match Account.ID_ALLOCATION_SIZE, so that ids can be allocated in blocks for batched inserts
+CREATE SEQUENCE account_seq INCREMENT BY 50;
+
+ALTER TABLE account ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE account ALTER COLUMN id SET DEFAULT nextval('account_seq');
+ALTER SEQUENCE account_seq OWNED BY account.id;
+
+-- value V reserves ids (V - 49 .. V), so the first block has to start right after existing ids
+SELECT setval('account_seq', COALESCE(MAX(id), 0) + 50, false) FROM account;
@@ -0,0 +1,4 @@
+ALTER TABLE account ADD COLUMN token_generation INTEGER NOT NULL DEFAULT 0;
+
+-- only accounts that ever revoked all their tokens are loaded at startup
+CREATE INDEX idx_account_token_generation ON account (id) WHERE token_generation > 0;
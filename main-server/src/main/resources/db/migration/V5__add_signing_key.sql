@@ -0,0 +1,10 @@
+CREATE TABLE signing_key (
+                             kid VARCHAR(64) NOT NULL,
+                             algorithm VARCHAR(16) NOT NULL,
+                             public_key BYTEA NOT NULL,
+                             private_key BYTEA NOT NULL,
+                             created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                             retired_at TIMESTAMP WITH TIME ZONE,
+                             expires_at TIMESTAMP WITH TIME ZONE,
+                             CONSTRAINT pk_signing_key PRIMARY KEY (kid)
+);
@@ -0,0 +1,23 @@
+-- match_id is generated by the game node and doubles as the idempotency key for redelivered results
+CREATE TABLE match_result (
+                              match_id UUID NOT NULL,
+                              room VARCHAR(64) NOT NULL,
+                              started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                              ended_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                              ticks INTEGER NOT NULL,
+                              stored_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+                              CONSTRAINT pk_match_result PRIMARY KEY (match_id)
+);
+
+CREATE INDEX idx_match_result_ended_at ON match_result (ended_at);
+
+CREATE TABLE match_result_player (
+                                     match_id UUID NOT NULL,
+                                     slot SMALLINT NOT NULL,
+                                     player VARCHAR(255) NOT NULL,
+                                     joined_tick INTEGER NOT NULL,
+                                     left_tick INTEGER NOT NULL,
+                                     hp INTEGER NOT NULL,
+                                     CONSTRAINT pk_match_result_player PRIMARY KEY (match_id, slot),
+                                     CONSTRAINT fk_match_result_player_match FOREIGN KEY (match_id) REFERENCES match_result(match_id)
+);
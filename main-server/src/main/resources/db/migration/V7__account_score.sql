@@ -0,0 +1,2 @@
+-- written only by match result ingestion, not mapped by Account so that saving an entity can't overwrite it
+ALTER TABLE account ADD COLUMN score BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- ids of rotated refresh tokens, kept until the token expires so single use survives restarts
+CREATE TABLE consumed_refresh_token (
+                                        token_hash BIGINT NOT NULL,
+                                        expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                                        CONSTRAINT pk_consumed_refresh_token PRIMARY KEY (token_hash)
+);
+
+CREATE INDEX idx_consumed_refresh_token_expires_at ON consumed_refresh_token (expires_at);
@@ -0,0 +1,8 @@
+-- nodes starting at the same time could each insert an active key; keep the newest one signing
+UPDATE signing_key
+SET retired_at = now(), expires_at = now() + INTERVAL '1 hour'
+WHERE retired_at IS NULL
+  AND kid <> (SELECT kid FROM signing_key WHERE retired_at IS NULL ORDER BY created_at DESC LIMIT 1);
+
+-- at most one key signs at a time, a concurrent insert of a second active key does nothing
+CREATE UNIQUE INDEX ux_signing_key_active ON signing_key ((true)) WHERE retired_at IS NULL;
@@ -0,0 +1,102 @@
+package io.github.xpakx.webrtcgame.error;
+
+import io.github.xpakx.webrtcgame.jwt.JwtAuthenticationEntryPoint;
+import io.github.xpakx.webrtcgame.user.AccountService;
+import io.github.xpakx.webrtcgame.user.AuthController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class GlobalExceptionHandlerTest {
+    private static final String LOGIN = "{\"username\":\"alice1\",\"password\":\"wrong\"}";
+
+    private final ErrorBodies errorBodies = new ErrorBodies(JsonMapper.builder().build());
+
+    @Test
+    void shouldWriteCachedBodyForRejectedLogin() throws Exception {
+        MockMvc mvc = mvc((authentication) -> {
+            throw new BadCredentialsException("Bad credentials");
+        });
+
+        mvc.perform(post("/authenticate").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("""
+                        {"message": "Invalid password!", "status": "Unauthorized", "error": 401}""", true));
+        assertSame(errorBodies.of(HttpStatus.UNAUTHORIZED, "Invalid password!"),
+                errorBodies.of(HttpStatus.UNAUTHORIZED, "Invalid password!"));
+    }
+
+    @Test
+    void shouldAskToRetryWhenHashingIsOverloaded() throws Exception {
+        MockMvc mvc = mvc((authentication) -> {
+            throw new ServiceOverloadedException("Server is busy, try again later!", 2);
+        });
+
+        mvc.perform(post("/authenticate").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(content().json("""
+                        {"message": "Server is busy, try again later!", "status": "Service Unavailable", "error": 503}""", true));
+    }
+
+    @Test
+    void shouldListFieldErrorsOfInvalidRegistration() throws Exception {
+        MockMvc mvc = mvc((authentication) -> authentication);
+
+        mvc.perform(post("/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"bob\",\"password\":\"secret\",\"passwordRe\":\"secret\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("""
+                        {"message": "Validation failed!", "status": "Bad Request", "error": 400,
+                         "errors": ["Username length must be between 5 and 15"]}""", true));
+    }
+
+    @Test
+    void shouldWriteUnauthorizedBodyFromEntryPoint() throws Exception {
+        JwtAuthenticationEntryPoint entryPoint = new JwtAuthenticationEntryPoint(errorBodies);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        entryPoint.commence(new MockHttpServletRequest("GET", "/leaderboard"), response,
+                new InsufficientAuthenticationException("Full authentication is required"));
+
+        assertEquals(401, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        assertEquals("{\"message\":\"You are unauthorized!\",\"status\":\"Unauthorized\",\"error\":401}",
+                response.getContentAsString());
+    }
+
+    @Test
+    void shouldStopCachingBodiesPastLimit() {
+        for (int i = 0; i < 256; i++) {
+            errorBodies.of(HttpStatus.NOT_FOUND, "No user with username user" + i);
+        }
+        byte[] first = errorBodies.of(HttpStatus.NOT_FOUND, "No user with username other");
+
+        assertNotSame(first, errorBodies.of(HttpStatus.NOT_FOUND, "No user with username other"));
+        assertArrayEquals(first, errorBodies.of(HttpStatus.NOT_FOUND, "No user with username other"));
+    }
+
+    private MockMvc mvc(AuthenticationManager authenticationManager) {
+        AccountService service = new AccountService(null, null, null, null, authenticationManager, null,
+                new SimpleMeterRegistry());
+        return MockMvcBuilders.standaloneSetup(new AuthController(service))
+                .setControllerAdvice(new GlobalExceptionHandler(errorBodies))
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.xpakx.webrtcgame.hashing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCalibratorTest {
+    @Test
+    void shouldNotGoBelowMinimumStrength() {
+        assertEquals(5, new BCryptCalibrator(Duration.ZERO, 5).calibrate());
+    }
+
+    @Test
+    void shouldRaiseStrengthWhileHashFitsTargetLatency() {
+        // strength 4 takes about a millisecond, far below the target
+        int strength = new BCryptCalibrator(Duration.ofMillis(100), 4).calibrate();
+
+        assertTrue(strength > 4, () -> "calibrated to " + strength);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.xpakx.webrtcgame.hashing;
+
+import io.github.xpakx.webrtcgame.error.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OffloadingPasswordEncoderTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 3, registry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldHashOnHashingPool() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(any())).thenAnswer((invocation) -> Thread.currentThread().getName());
+        when(delegate.matches(any(), any())).thenReturn(true);
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(delegate, executor);
+
+        assertTrue(encoder.encode("password").startsWith("password-hashing-"));
+        assertTrue(encoder.matches("password", "hash"));
+        assertEquals(1, registry.get("auth.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(1, registry.get("auth.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void shouldRejectHashesThatDoNotFitIntoQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(any())).thenAnswer((invocation) -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(delegate, executor);
+
+        // one hash occupies the only thread, the next one waits in the only queue slot
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("auth.hashing.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        ServiceOverloadedException rejection = assertThrows(ServiceOverloadedException.class,
+                () -> encoder.matches("third", "hash"));
+        assertEquals(3, rejection.getRetryAfterSeconds());
+        assertEquals(1, registry.get("auth.hashing.rejected").counter().count());
+        verify(delegate, never()).matches(any(), any());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.xpakx.webrtcgame.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimsCacheTest {
+    private final MutableClock clock = new MutableClock();
+    private final ClaimsCache cache = new ClaimsCache(100, clock, () -> clock.millis() * 1_000_000L);
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void shouldVerifyAccessTokenOnlyOnce() {
+        Claims claims = claims(false, Duration.ofMinutes(5));
+        Function<String, Claims> verifier = verifier(claims);
+
+        assertSame(claims, cache.get("access", verifier));
+        assertSame(claims, cache.get("access", verifier));
+
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void shouldVerifyAgainOnceTokenExpires() {
+        Claims claims = claims(false, Duration.ofMinutes(5));
+        Function<String, Claims> verifier = verifier(claims);
+        cache.get("access", verifier);
+
+        clock.advance(Duration.ofMinutes(5).plusSeconds(1));
+        cache.get("access", verifier);
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void shouldNotCacheRefreshTokens() {
+        Claims claims = claims(true, Duration.ofDays(30));
+        Function<String, Claims> verifier = verifier(claims);
+
+        assertSame(claims, cache.get("refresh", verifier));
+        assertSame(claims, cache.get("refresh", verifier));
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotCacheClaimsWhenVerificationFails() {
+        Function<String, Claims> verifier = (token) -> {
+            verifications.incrementAndGet();
+            throw new IllegalArgumentException("invalid");
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("forged", verifier));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("forged", verifier));
+
+        assertEquals(2, verifications.get());
+    }
+
+    private Function<String, Claims> verifier(Claims claims) {
+        return (token) -> {
+            verifications.incrementAndGet();
+            return claims;
+        };
+    }
+
+    private Claims claims(boolean refresh, Duration validity) {
+        return Jwts.claims()
+                .subject("user")
+                .expiration(Date.from(clock.instant().plus(validity)))
+                .add("refresh", refresh)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
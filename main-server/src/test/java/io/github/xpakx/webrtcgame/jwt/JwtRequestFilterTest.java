@@ -0,0 +1,70 @@
+package io.github.xpakx.webrtcgame.jwt;
+
+import io.github.xpakx.webrtcgame.jwt.keys.SigningKeys;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtRequestFilterTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtUtils jwtUtils = new JwtUtils(
+            "a secret long enough for hmac sha 256", new TestSigningKeys(), new ClaimsCache(100), registry);
+    private final JwtRequestFilter filter = new JwtRequestFilter(jwtUtils, registry);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateWithAccessToken() throws ServletException, IOException {
+        filter(jwtUtils.generateToken(new User("user", "", List.of())));
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("user", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void shouldNotAuthenticateWithRefreshToken() throws ServletException, IOException {
+        filter(jwtUtils.generateRefreshToken("user", 0));
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1.0, registry.get("auth.token.failures").tag("reason", "refresh_token").counter().count());
+    }
+
+    private void filter(String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/leaderboard");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private static class TestSigningKeys implements SigningKeys {
+        private final KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+
+        @Override
+        public ActiveKey activeKey() {
+            return new ActiveKey("test", keyPair.getPrivate());
+        }
+
+        @Override
+        public PublicKey publicKey(String kid) {
+            return "test".equals(kid) ? keyPair.getPublic() : null;
+        }
+    }
+}
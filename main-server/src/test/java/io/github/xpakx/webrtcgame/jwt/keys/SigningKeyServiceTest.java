@@ -0,0 +1,86 @@
+package io.github.xpakx.webrtcgame.jwt.keys;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SigningKeyServiceTest {
+    private final List<SigningKey> table = new ArrayList<>();
+    private SigningKeyRepository repository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(SigningKeyRepository.class);
+        when(repository.findUsable(any())).thenAnswer((invocation) -> List.copyOf(table.reversed()));
+        when(repository.insertActive(anyString(), anyString(), any(), any(), any())).thenAnswer((invocation) -> {
+            table.add(new SigningKey(
+                    invocation.getArgument(0),
+                    invocation.getArgument(1),
+                    invocation.getArgument(2),
+                    invocation.getArgument(3),
+                    invocation.getArgument(4),
+                    null,
+                    null
+            ));
+            return 1;
+        });
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer((invocation) -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void shouldReloadKeysForKidRotatedInByAnotherNode() {
+        SigningKeyService service = service(Duration.ZERO);
+        service.start();
+        SigningKey rotatedIn = rotateOnAnotherNode();
+
+        assertNotNull(service.publicKey(rotatedIn.getKid()));
+    }
+
+    @Test
+    void shouldNotReloadKeysAgainBeforeIntervalPasses() {
+        SigningKeyService service = service(Duration.ofHours(1));
+        service.start();
+        SigningKey rotatedIn = rotateOnAnotherNode();
+        clearInvocations(repository);
+
+        assertNull(service.publicKey(rotatedIn.getKid()));
+        assertNull(service.publicKey("unknown"));
+        verify(repository, never()).findUsable(any());
+    }
+
+    private SigningKey rotateOnAnotherNode() {
+        SigningKey current = table.getLast();
+        current.setRetiredAt(Instant.now());
+        current.setExpiresAt(Instant.now().plus(Duration.ofHours(1)));
+        service(Duration.ZERO).start();
+        return table.getLast();
+    }
+
+    private SigningKeyService service(Duration unknownKidReloadInterval) {
+        return new SigningKeyService(
+                repository,
+                transactionTemplate,
+                "secret",
+                Duration.ofDays(1),
+                Duration.ofHours(1),
+                unknownKidReloadInterval
+        );
+    }
+}
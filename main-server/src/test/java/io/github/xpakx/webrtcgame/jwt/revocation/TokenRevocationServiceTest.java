@@ -0,0 +1,112 @@
+package io.github.xpakx.webrtcgame.jwt.revocation;
+
+import io.github.xpakx.webrtcgame.user.AccountRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+    private final List<ConsumedToken> stored = new ArrayList<>();
+    private int writes;
+    private boolean failWrites;
+    private final ConsumedTokenRepository consumedTokens = new ConsumedTokenRepository(null) {
+        @Override
+        public void insertAll(List<ConsumedToken> tokens) {
+            writes++;
+            if (failWrites) {
+                throw new IllegalStateException("database down");
+            }
+            stored.addAll(tokens);
+        }
+
+        @Override
+        public List<ConsumedToken> findUnexpired(long nowEpochSecond) {
+            return List.copyOf(stored);
+        }
+    };
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final TokenRevocationService service = service();
+
+    @Test
+    void shouldConsumeTokenOnlyOnceWithoutWritingToDatabase() {
+        Claims claims = refreshToken(UUID.randomUUID().toString());
+
+        assertTrue(service.consume(claims));
+        assertFalse(service.consume(claims));
+        assertEquals(0, writes);
+    }
+
+    @Test
+    void shouldRejectTokenConsumedBeforeRestart() {
+        Claims claims = refreshToken(UUID.randomUUID().toString());
+        assertTrue(service.consume(claims));
+        service.stop();
+
+        assertFalse(service().consume(claims));
+    }
+
+    @Test
+    void shouldKeepUnsavedTokensWhenWriteFails() {
+        Claims claims = refreshToken(UUID.randomUUID().toString());
+        assertTrue(service.consume(claims));
+        failWrites = true;
+        service.flush();
+        assertTrue(stored.isEmpty());
+
+        failWrites = false;
+        service.flush();
+        assertEquals(1, stored.size());
+        service.flush();
+        assertEquals(2, writes);
+    }
+
+    @Test
+    void shouldRejectTokensOfOlderGenerationAfterRevokingAll() {
+        when(accountRepository.incrementTokenGeneration("user")).thenReturn(Optional.of(1));
+
+        assertTrue(service.revokeAll("user"));
+        assertFalse(service.consume(refreshToken(UUID.randomUUID().toString())));
+    }
+
+    @Test
+    void shouldNotRevokeTokensOfMissingAccount() {
+        when(accountRepository.incrementTokenGeneration("user")).thenReturn(Optional.empty());
+
+        assertFalse(service.revokeAll("user"));
+        assertTrue(service.consume(refreshToken(UUID.randomUUID().toString())));
+    }
+
+    @Test
+    void shouldRejectTokenWithoutId() {
+        assertFalse(service.consume(refreshToken(null)));
+    }
+
+    private TokenRevocationService service() {
+        TokenRevocationService service = new TokenRevocationService(
+                3600, new InMemoryTokenRevocationBroadcaster(), accountRepository, consumedTokens);
+        service.start();
+        return service;
+    }
+
+    private Claims refreshToken(String id) {
+        return Jwts.claims()
+                .id(id)
+                .subject("user")
+                .add("refresh", true)
+                .add(TokenRevocationService.GENERATION_CLAIM, 0)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import io.github.xpakx.webrtcgame.error.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LeaderboardTest {
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        leaderboard = new Leaderboard(16, 2, 4, 5, mock(JdbcTemplate.class), mock(TransactionTemplate.class),
+                jsonMapper, new InMemoryScoreUpdateBroadcaster(), new SimpleMeterRegistry());
+        leaderboard.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!isLoaded() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        leaderboard.onScores(new long[]{1, 2, 3, 4}, new long[]{400, 300, 200, 100});
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaderboard.stop();
+    }
+
+    @Test
+    void shouldKeepPagesOutsideOfMovedRanks() {
+        byte[] second = leaderboard.page(1);
+
+        leaderboard.onScores(new long[]{2}, new long[]{500});
+
+        assertSame(second, leaderboard.page(1));
+        assertEquals(2, read(leaderboard.page(0)).get("entries").get(0).get("accountId").asLong());
+    }
+
+    @Test
+    void shouldRefreshTotalOfEveryPageWhenEntryIsAdded() {
+        assertEquals(4, read(leaderboard.page(0)).get("total").asLong());
+
+        // ranked below both cached pages
+        leaderboard.onScores(new long[]{5}, new long[]{50});
+
+        assertEquals(5, read(leaderboard.page(0)).get("total").asLong());
+        assertEquals(5, read(leaderboard.page(1)).get("total").asLong());
+    }
+
+    private boolean isLoaded() {
+        try {
+            leaderboard.page(0);
+            return true;
+        } catch (ServiceOverloadedException e) {
+            return false;
+        }
+    }
+
+    private JsonNode read(byte[] body) {
+        return jsonMapper.readTree(body);
+    }
+}
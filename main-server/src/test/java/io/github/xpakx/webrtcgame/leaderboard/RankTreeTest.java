@@ -0,0 +1,63 @@
+package io.github.xpakx.webrtcgame.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankTreeTest {
+    private static final Comparator<long[]> RANKING = Comparator
+            .<long[]>comparingLong((entry) -> -entry[1])
+            .thenComparingLong((entry) -> entry[0]);
+
+    @Test
+    void shouldMatchSortedRankingAfterRandomUpdates() {
+        SplittableRandom random = new SplittableRandom(7);
+        RankTree tree = new RankTree(16);
+        Map<Long, Long> scores = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextLong(1, 2_000);
+            if (random.nextInt(10) == 0) {
+                tree.remove(id);
+                scores.remove(id);
+            } else {
+                // few distinct scores, so ties have to be broken by id
+                long score = random.nextLong(0, 200);
+                tree.put(id, score);
+                scores.put(id, score);
+            }
+        }
+        List<long[]> expected = scores.entrySet().stream()
+                .map((entry) -> new long[]{entry.getKey(), entry.getValue()})
+                .sorted(RANKING)
+                .toList();
+
+        assertEquals(expected.size(), tree.size());
+        for (int rank = 0; rank < expected.size(); rank++) {
+            assertEquals(rank, tree.rank(expected.get(rank)[0]));
+        }
+        long[] ids = new long[expected.size()];
+        long[] values = new long[expected.size()];
+        assertEquals(expected.size(), tree.range(0, expected.size() + 10, ids, values));
+        assertArrayEquals(expected.stream().mapToLong((entry) -> entry[0]).toArray(), ids);
+        assertArrayEquals(expected.stream().mapToLong((entry) -> entry[1]).toArray(), values);
+    }
+
+    @Test
+    void shouldReturnWindowFromMiddleOfRanking() {
+        RankTree tree = new RankTree(16);
+        for (long id = 1; id <= 100; id++) {
+            tree.put(id, 1000 - id);
+        }
+        long[] ids = new long[5];
+        long[] scores = new long[5];
+
+        int written = tree.range(40, 5, ids, scores);
+
+        assertEquals(5, written);
+        assertArrayEquals(new long[]{41, 42, 43, 44, 45}, ids);
+        assertEquals(-1, tree.rank(101));
+    }
+}
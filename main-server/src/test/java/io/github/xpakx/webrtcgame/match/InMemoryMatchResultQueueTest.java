@@ -0,0 +1,91 @@
+package io.github.xpakx.webrtcgame.match;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryMatchResultQueueTest {
+    private static final int RESULTS = 1000;
+    private static final int BATCH_SIZE = 64;
+
+    @Test
+    void shouldDeliverEveryResultInBoundedBatches() throws InterruptedException {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Set<UUID> delivered = ConcurrentHashMap.newKeySet();
+        InMemoryMatchResultQueue queue = new InMemoryMatchResultQueue((batch) -> {
+            batchSizes.add(batch.size());
+            batch.forEach((result) -> delivered.add(result.matchId()));
+        }, RESULTS, BATCH_SIZE, Duration.ofMillis(50), 5);
+
+        for (int i = 0; i < RESULTS; i++) {
+            queue.publish(result());
+        }
+        queue.close();
+
+        assertEquals(RESULTS, delivered.size());
+        assertTrue(batchSizes.stream().allMatch((size) -> size <= BATCH_SIZE));
+        assertTrue(batchSizes.size() < RESULTS / 2, "results should be written in batches");
+    }
+
+    @Test
+    void shouldRetryFailedBatch() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean();
+        Set<UUID> delivered = ConcurrentHashMap.newKeySet();
+        InMemoryMatchResultQueue queue = new InMemoryMatchResultQueue((batch) -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("database unavailable");
+            }
+            batch.forEach((result) -> delivered.add(result.matchId()));
+        }, 16, BATCH_SIZE, Duration.ofMillis(10), 5);
+        MatchResult result = result();
+
+        queue.publish(result);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (delivered.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        queue.close();
+
+        assertEquals(Set.of(result.matchId()), delivered);
+    }
+
+    @Test
+    void shouldDropOnlyResultThatKeepsFailing() throws InterruptedException {
+        MatchResult poison = result();
+        Set<UUID> delivered = ConcurrentHashMap.newKeySet();
+        InMemoryMatchResultQueue queue = new InMemoryMatchResultQueue((batch) -> {
+            if (batch.contains(poison)) {
+                throw new IllegalStateException("value too long for type character varying(64)");
+            }
+            batch.forEach((result) -> delivered.add(result.matchId()));
+        }, 16, BATCH_SIZE, Duration.ofMillis(50), 2);
+        MatchResult first = result();
+        MatchResult second = result();
+
+        queue.publish(first);
+        queue.publish(poison);
+        queue.publish(second);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (delivered.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        queue.close();
+
+        assertEquals(Set.of(first.matchId(), second.matchId()), delivered);
+    }
+
+    private MatchResult result() {
+        long now = System.currentTimeMillis();
+        return new MatchResult(UUID.randomUUID(), "room", now - 60_000, now, 3600,
+                List.of(new MatchResult.Player("player", 0, 3600, 100)));
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.xpakx.webrtcgame.match;
+
+import io.github.xpakx.webrtcgame.leaderboard.ScoreUpdateBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class MatchResultIngestorTest {
+    private static final long ACCOUNT_ID = 7L;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAddTicksPlayedToScoreOfPlayersAccount() throws Exception {
+        UUID matchId = UUID.randomUUID();
+        // bound arrays are kept so the statements' parameters can be checked after the batch ran
+        Map<Array, Object[]> arrays = new IdentityHashMap<>();
+        Connection connection = mock(Connection.class);
+        when(connection.createArrayOf(anyString(), any())).thenAnswer((invocation) -> {
+            Array array = mock(Array.class);
+            arrays.put(array, invocation.getArgument(1));
+            return array;
+        });
+        PreparedStatement matches = statement(connection, "INSERT INTO match_result ", rows(matchId));
+        statement(connection, "INSERT INTO match_result_player ", null);
+        PreparedStatement scores = statement(connection, "UPDATE account ", rows(ACCOUNT_ID, 142L));
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer((invocation) -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(connection));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer((invocation) -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        ScoreUpdateBroadcaster scoreUpdates = mock(ScoreUpdateBroadcaster.class);
+        MatchResultIngestor ingestor = new MatchResultIngestor(jdbcTemplate, transactionTemplate, scoreUpdates, new SimpleMeterRegistry());
+
+        // the game server names players by the username they authenticated with
+        MatchResult result = new MatchResult(matchId, "room", 0L, 1000L, 50,
+                List.of(new MatchResult.Player("alice", 8, 50, 100)));
+
+        assertEquals(1, ingestor.ingest(List.of(result)));
+        verify(matches).executeQuery();
+        Array players = captureArray(scores, 1);
+        Array points = captureArray(scores, 2);
+        assertArrayEquals(new Object[]{"alice"}, arrays.get(players));
+        assertArrayEquals(new Object[]{42L}, arrays.get(points));
+        verify(scoreUpdates).publish(new long[]{ACCOUNT_ID}, new long[]{142L});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDropResultsThatDoNotFitTables() throws Exception {
+        UUID matchId = UUID.randomUUID();
+        Map<Array, Object[]> arrays = new IdentityHashMap<>();
+        Connection connection = mock(Connection.class);
+        when(connection.createArrayOf(anyString(), any())).thenAnswer((invocation) -> {
+            Array array = mock(Array.class);
+            arrays.put(array, invocation.getArgument(1));
+            return array;
+        });
+        PreparedStatement matches = statement(connection, "INSERT INTO match_result ", rows(matchId));
+        statement(connection, "INSERT INTO match_result_player ", null);
+        statement(connection, "UPDATE account ", rows(ACCOUNT_ID, 142L));
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer((invocation) -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(connection));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer((invocation) -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MatchResultIngestor ingestor = new MatchResultIngestor(
+                jdbcTemplate, transactionTemplate, mock(ScoreUpdateBroadcaster.class), registry);
+
+        List<MatchResult.Player> players = List.of(new MatchResult.Player("alice", 8, 50, 100));
+        MatchResult valid = new MatchResult(matchId, "room", 0L, 1000L, 50, players);
+        MatchResult longRoom = new MatchResult(UUID.randomUUID(), "r".repeat(65), 0L, 1000L, 50, players);
+        MatchResult noId = new MatchResult(null, "room", 0L, 1000L, 50, players);
+        MatchResult noPlayerName = new MatchResult(UUID.randomUUID(), "room", 0L, 1000L, 50,
+                List.of(new MatchResult.Player(null, 0, 50, 100)));
+
+        assertEquals(1, ingestor.ingest(List.of(longRoom, valid, noId, noPlayerName)));
+        assertArrayEquals(new Object[]{matchId.toString()}, arrays.get(captureArray(matches, 1)));
+        assertArrayEquals(new Object[]{"room"}, arrays.get(captureArray(matches, 2)));
+        assertEquals(3.0, registry.get("match.results.ingested").tag("outcome", "rejected").counter().count());
+
+        assertEquals(0, ingestor.ingest(List.of(longRoom, noId)));
+        verify(transactionTemplate).execute(any());
+    }
+
+    private static PreparedStatement statement(Connection connection, String sql, ResultSet rows) throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(contains(sql))).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rows);
+        return statement;
+    }
+
+    private static ResultSet rows(UUID matchId) throws Exception {
+        ResultSet rows = mock(ResultSet.class);
+        when(rows.next()).thenReturn(true, false);
+        when(rows.getObject(1, UUID.class)).thenReturn(matchId);
+        return rows;
+    }
+
+    private static ResultSet rows(long accountId, long score) throws Exception {
+        ResultSet rows = mock(ResultSet.class);
+        when(rows.next()).thenReturn(true, false);
+        when(rows.getLong(1)).thenReturn(accountId);
+        when(rows.getLong(2)).thenReturn(score);
+        return rows;
+    }
+
+    private static Array captureArray(PreparedStatement statement, int index) throws Exception {
+        ArgumentCaptor<Array> captor = ArgumentCaptor.forClass(Array.class);
+        verify(statement).setArray(eq(index), captor.capture());
+        return captor.getValue();
+    }
+}
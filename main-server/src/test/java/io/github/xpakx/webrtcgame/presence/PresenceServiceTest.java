@@ -0,0 +1,95 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import io.github.xpakx.webrtcgame.presence.dto.PresenceStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresenceServiceTest {
+    private final InMemoryPresenceBroadcaster broadcaster = new InMemoryPresenceBroadcaster();
+    private final PresenceService first = node();
+    private final PresenceService second = node();
+
+    @Test
+    void shouldCoalesceChangesIntoOneBatch() {
+        List<List<PresenceStatus>> batches = subscribe(first);
+
+        first.heartbeat("alice");
+        first.heartbeat("bob");
+        first.heartbeat("alice");
+        first.heartbeat("carol");
+        first.logout("carol");
+        first.flush();
+
+        assertEquals(List.of(List.of(
+                new PresenceStatus("alice", true),
+                new PresenceStatus("bob", true)
+        )), batches);
+    }
+
+    @Test
+    void shouldSyncPresenceBetweenNodes() {
+        List<List<PresenceStatus>> batches = subscribe(second);
+
+        first.heartbeat("alice");
+        first.flush();
+        second.flush();
+
+        assertEquals(List.of(new PresenceStatus("alice", true)), second.statuses(List.of("alice")));
+        assertEquals(List.of(List.of(new PresenceStatus("alice", true))), batches);
+
+        first.logout("alice");
+        first.flush();
+        second.flush();
+
+        assertEquals(List.of(new PresenceStatus("alice", false)), second.statuses(List.of("alice")));
+        assertEquals(List.of(new PresenceStatus("alice", false)), batches.get(1));
+    }
+
+    @Test
+    void shouldNotSendReceivedChangesBack() {
+        List<PresenceSync> syncs = new ArrayList<>();
+        broadcaster.subscribe(syncs::add);
+
+        first.heartbeat("alice");
+        first.flush();
+        second.flush();
+
+        assertEquals(1, syncs.size());
+        assertTrue(syncs.getFirst().seen().contains("alice"));
+    }
+
+    @Test
+    void shouldTreatSpellingsOfUsernameAsOnePlayer() {
+        List<List<PresenceStatus>> batches = subscribe(first);
+        List<PresenceSync> syncs = new ArrayList<>();
+        broadcaster.subscribe(syncs::add);
+
+        first.heartbeat("Alice");
+        first.heartbeat("bob");
+        first.logout("alice");
+        first.heartbeat("BOB");
+        first.flush();
+
+        assertEquals(List.of(List.of(new PresenceStatus("bob", true))), batches);
+        assertEquals(List.of("bob"), syncs.getFirst().seen());
+        assertEquals(List.of("alice"), syncs.getFirst().offline());
+    }
+
+    private PresenceService node() {
+        return new PresenceService(4, Duration.ofSeconds(1), Duration.ofSeconds(30), 1000, broadcaster,
+                new SimpleMeterRegistry());
+    }
+
+    private List<List<PresenceStatus>> subscribe(PresenceService service) {
+        List<List<PresenceStatus>> batches = new ArrayList<>();
+        service.subscribe(batches::add);
+        return batches;
+    }
+}
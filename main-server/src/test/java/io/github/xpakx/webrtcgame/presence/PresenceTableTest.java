@@ -0,0 +1,82 @@
+package io.github.xpakx.webrtcgame.presence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PresenceTableTest {
+    private static final long TICK = 1000;
+    private static final long TTL = 10_000;
+
+    @Test
+    void shouldExpirePlayerWithoutHeartbeats() {
+        PresenceTable table = new PresenceTable(4, TICK, TTL);
+        assertEquals(PresenceTable.Heartbeat.ONLINE, table.heartbeat("Player", 0));
+
+        assertTrue(expire(table, TTL - TICK).isEmpty());
+        assertTrue(table.isOnline("player"));
+        assertEquals(List.of("Player"), expire(table, TTL));
+        assertFalse(table.isOnline("player"));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void shouldKeepPlayerAliveWhileHeartbeatsArrive() {
+        PresenceTable table = new PresenceTable(4, TICK, TTL);
+        for (long now = 0; now <= 5 * TTL; now += TICK) {
+            if (now % (3 * TICK) == 0) {
+                table.heartbeat("player", now);
+            }
+            assertTrue(expire(table, now).isEmpty(), "expired at " + now);
+        }
+        assertTrue(table.isOnline("player"));
+    }
+
+    @Test
+    void shouldAskForPropagationOncePerHalfTtl() {
+        PresenceTable table = new PresenceTable(4, TICK, TTL);
+        table.heartbeat("player", 0);
+        int propagated = 0;
+        for (long now = TICK; now <= 4 * TTL; now += TICK) {
+            if (table.heartbeat("player", now) == PresenceTable.Heartbeat.PROPAGATE) {
+                propagated++;
+            }
+        }
+        assertEquals(8, propagated);
+    }
+
+    @Test
+    void shouldNotExpireRemovedPlayerAgain() {
+        PresenceTable table = new PresenceTable(4, TICK, TTL);
+        table.heartbeat("player", 0);
+        assertTrue(table.remove("player"));
+        assertFalse(table.remove("player"));
+        assertTrue(expire(table, 2 * TTL).isEmpty());
+    }
+
+    @Test
+    void shouldExpireEveryoneAfterLongPause() {
+        PresenceTable table = new PresenceTable(4, TICK, TTL);
+        expire(table, 0);
+        for (int i = 0; i < 1000; i++) {
+            table.heartbeat("player" + i, i * 7L);
+        }
+        table.heartbeat("late", 50 * TTL);
+
+        List<String> expired = expire(table, 50 * TTL);
+        assertEquals(1000, expired.size());
+        assertTrue(table.isOnline("late"));
+        assertEquals(List.of("late"), expire(table, 51 * TTL));
+    }
+
+    private List<String> expire(PresenceTable table, long now) {
+        List<String> expired = new ArrayList<>();
+        table.expire(now, expired::add);
+        return expired;
+    }
+}
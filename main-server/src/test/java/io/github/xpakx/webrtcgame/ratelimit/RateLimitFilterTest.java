@@ -0,0 +1,96 @@
+package io.github.xpakx.webrtcgame.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+    private final RateLimitFilter filter = new RateLimitFilter(1024, "10/1m", "2/1m", "1/1m", "1/1m",
+            JsonMapper.builder().build(), new SimpleMeterRegistry());
+
+    @Test
+    void shouldLimitUsernameAndPassBodyToController() throws ServletException, IOException {
+        String body = "{\"password\":\"secret\",\"username\":\"Victim\"}";
+
+        for (int i = 0; i < 2; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = authenticate("10.0.0." + i, body, chain);
+            assertEquals(200, response.getStatus());
+            assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = authenticate("10.0.0.9", body.replace("Victim", "victim"), chain);
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldLimitIpBeforeReadingBody() throws ServletException, IOException {
+        for (int i = 0; i < 10; i++) {
+            authenticate("10.0.0.1", "{\"username\":\"user" + i + "\"}", new MockFilterChain());
+        }
+
+        MockHttpServletResponse response = authenticate("10.0.0.1", "not even json", new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    void shouldReplayBodyToReadListener() throws ServletException, IOException {
+        String body = "{\"username\":\"user\"}";
+        MockFilterChain chain = new MockFilterChain();
+        authenticate("10.0.0.1", body, chain);
+        ServletInputStream input = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(buffer, 0, input.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+        });
+
+        assertTrue(allRead.get());
+        assertEquals(body, read.toString(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse authenticate(String ip, String body, MockFilterChain chain) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/authenticate");
+        request.setRemoteAddr(ip);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
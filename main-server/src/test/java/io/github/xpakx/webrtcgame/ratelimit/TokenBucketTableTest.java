@@ -0,0 +1,114 @@
+package io.github.xpakx.webrtcgame.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void shouldNeverGrantMoreThanCapacityUnderContention() throws InterruptedException {
+        TokenBucketTable table = new TokenBucketTable(new RateLimit(100, Duration.ofMinutes(1)), 1024);
+        AtomicLong granted = new AtomicLong();
+
+        runConcurrently((thread) -> {
+            long local = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (table.tryAcquire(42L, 1_000) == 0) {
+                    local++;
+                }
+            }
+            granted.addAndGet(local);
+        });
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void shouldRefillGradually() {
+        TokenBucketTable table = new TokenBucketTable(new RateLimit(10, Duration.ofSeconds(1)), 1024);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, table.tryAcquire(7L, 0));
+        }
+
+        assertEquals(100, table.tryAcquire(7L, 0));
+        assertEquals(50, table.tryAcquire(7L, 50));
+        assertEquals(0, table.tryAcquire(7L, 100));
+        assertTrue(table.tryAcquire(7L, 100) > 0);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, table.tryAcquire(7L, 5_000));
+        }
+    }
+
+    @Test
+    void shouldStayBoundedAndEvictIdleBuckets() {
+        TokenBucketTable table = new TokenBucketTable(new RateLimit(5, Duration.ofSeconds(1)), 1024);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 1_000_000; i++) {
+            table.tryAcquire(random.nextLong(), i / 1000);
+        }
+
+        assertEquals(1024, table.size());
+        assertEquals(1024, table.evictIdle(1_000_000 + 1_000));
+        assertEquals(0, table.evictIdle(1_000_000 + 2_000));
+    }
+
+    @Test
+    void shouldRejectNewKeyRatherThanEvictRefillingBucket() {
+        TokenBucketTable table = new TokenBucketTable(new RateLimit(2, Duration.ofSeconds(1)), 1024);
+        // same set, different fingerprints
+        for (long key = 1; key <= TokenBucketTable.WAYS; key++) {
+            assertEquals(0, table.tryAcquire(key << 48 | 3, 0));
+        }
+
+        long newcomer = (TokenBucketTable.WAYS + 1L) << 48 | 3;
+        assertEquals(500, table.tryAcquire(newcomer, 0));
+        assertEquals(0, table.tryAcquire(1L << 48 | 3, 0));
+        assertEquals(0, table.tryAcquire(newcomer, 500));
+    }
+
+    @Test
+    void shouldHashWithKey() {
+        // reference vectors of SipHash-2-4 for the key 00..0f and the messages 00 and 00..07
+        SipHash sipHash = new SipHash(0x0706050403020100L, 0x0f0e0d0c0b0a0908L);
+        assertEquals(0x726fdb47dd0e0e31L, sipHash.hash(""));
+        assertEquals(0x93f5f5799a932462L, sipHash.hash("\u0100\u0302\u0504\u0706"));
+
+        assertNotEquals(SipHash.withRandomKey().hash("10.0.0.1"), SipHash.withRandomKey().hash("10.0.0.1"));
+    }
+
+    private void runConcurrently(ThreadBody body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                body.run(thread);
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.xpakx.webrtcgame.user;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AccountImportServiceTest {
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private JdbcTemplate jdbcTemplate;
+    private AccountImportService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenReturn(List.of(50L));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer((invocation) -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer((invocation) -> "hash:" + invocation.getArgument(0));
+        service = new AccountImportService(
+                jdbcTemplate,
+                transactionTemplate,
+                passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                jsonMapper,
+                2,
+                1
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReportEachChunkOnItsOwn() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1}})
+                .thenThrow(new DataIntegrityViolationException("connection lost"))
+                .thenReturn(new int[][]{{0}});
+
+        List<JsonNode> results = importAccounts("""
+                {"username": "alice1", "password": "secret"}
+                {"username": "bob", "password": "secret"}
+                {"username": "carol1"
+                {"username": "carol1", "password": "secret"}
+                {"username": "dave01", "password": "secret", "moderatorRole": true}
+                """);
+
+        assertEquals(5, results.size());
+        assertResult(results.get(0), 1, "CREATED");
+        assertEquals(1L, results.get(0).get("id").asLong());
+        assertResult(results.get(1), 1, "INVALID");
+        assertEquals("Username length must be between 5 and 15", results.get(1).get("error").asString());
+        assertResult(results.get(2), 2, "INVALID");
+        assertResult(results.get(3), 2, "FAILED");
+        assertFalse(results.get(3).has("id"));
+        assertResult(results.get(4), 3, "EXISTS");
+    }
+
+    @Test
+    void shouldValidateRowsLikeRegistration() throws Exception {
+        List<JsonNode> results = importAccounts("""
+                {"username": "alice1", "password": " "}
+                {"username": "averyverylongname", "password": "secret"}
+                null
+                """);
+
+        assertEquals(List.of("INVALID", "INVALID", "INVALID"),
+                results.stream().map((result) -> result.get("status").asString()).toList());
+        assertEquals("Password cannot be empty", results.get(0).get("error").asString());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any());
+    }
+
+    private List<JsonNode> importAccounts(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.importAccounts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        return output.toString(StandardCharsets.UTF_8).lines()
+                .map(jsonMapper::readTree)
+                .toList();
+    }
+
+    private static void assertResult(JsonNode result, int chunk, String status) {
+        assertEquals(chunk, result.get("chunk").asInt(), () -> "chunk of " + result);
+        assertEquals(status, result.get("status").asString(), () -> "status of " + result);
+    }
+}
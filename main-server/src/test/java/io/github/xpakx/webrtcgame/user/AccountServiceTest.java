@@ -0,0 +1,71 @@
+package io.github.xpakx.webrtcgame.user;
+
+import io.github.xpakx.webrtcgame.jwt.JwtUtils;
+import io.github.xpakx.webrtcgame.jwt.revocation.TokenRevocationService;
+import io.github.xpakx.webrtcgame.user.dto.AuthenticationResponse;
+import io.github.xpakx.webrtcgame.user.dto.RegistrationRequest;
+import io.github.xpakx.webrtcgame.user.error.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AccountServiceTest {
+    private AccountRepository accountRepository;
+    private JwtUtils jwtUtils;
+    private AccountService service;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        jwtUtils = mock(JwtUtils.class);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer((invocation) -> "hash:" + invocation.getArgument(0));
+        service = new AccountService(
+                accountRepository,
+                jwtUtils,
+                new UserService(accountRepository, null),
+                passwordEncoder,
+                mock(AuthenticationManager.class),
+                mock(TokenRevocationService.class),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void shouldRegisterWithSingleInsert() {
+        when(accountRepository.insertIfAbsent("alice1", "hash:password", Role.USER.mask())).thenReturn(Optional.of(51L));
+        when(jwtUtils.generateToken(any())).thenReturn("token");
+
+        AuthenticationResponse response = service.register(new RegistrationRequest("alice1", "password", "password"));
+
+        assertEquals("alice1", response.username());
+        assertEquals("token", response.token());
+        ArgumentCaptor<UserDetails> user = ArgumentCaptor.forClass(UserDetails.class);
+        verify(jwtUtils).generateToken(user.capture());
+        assertEquals(Role.authorities(Role.USER.mask()), user.getValue().getAuthorities());
+        verify(accountRepository, never()).existsByUsername(anyString());
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectUsernameTakenInAnyCase() {
+        when(accountRepository.insertIfAbsent(eq("ALICE1"), anyString(), anyInt())).thenReturn(Optional.empty());
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> service.register(new RegistrationRequest("ALICE1", "password", "password")));
+
+        assertEquals("Username exists!", exception.getMessage());
+        verify(jwtUtils, never()).generateToken(any());
+        verify(jwtUtils, never()).generateRefreshToken(anyString(), anyInt());
+    }
+}
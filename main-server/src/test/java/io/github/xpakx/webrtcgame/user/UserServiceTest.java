@@ -0,0 +1,89 @@
+package io.github.xpakx.webrtcgame.user;
+
+import io.github.xpakx.webrtcgame.hashing.PasswordHashingExecutor;
+import io.github.xpakx.webrtcgame.settings.SecurityConfig;
+import io.github.xpakx.webrtcgame.user.cache.InMemoryUserCacheInvalidationBroadcaster;
+import io.github.xpakx.webrtcgame.user.cache.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+    private static final int STRENGTH = 5;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 4, 1, registry);
+    private AccountRepository accountRepository;
+    private PasswordEncoder passwordEncoder;
+    private DaoAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        UserDetailsCache cache = new UserDetailsCache(100, Duration.ofMinutes(10),
+                new InMemoryUserCacheInvalidationBroadcaster(), registry);
+        UserService userService = new UserService(accountRepository, cache);
+        // a zero target keeps the calibrated strength at the minimum
+        passwordEncoder = new SecurityConfig(null, null, null).getPasswordEncoder(executor, Duration.ZERO, STRENGTH);
+        provider = new DaoAuthenticationProvider(userService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRehashPasswordWithOutdatedStrengthOnLogin() {
+        // stored before the switch to the delegating encoder, so without the {bcrypt} prefix
+        account(new BCryptPasswordEncoder(STRENGTH - 1).encode("password"));
+
+        login("password");
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(accountRepository).updatePassword(eq("alice1"), hash.capture());
+        assertTrue(hash.getValue().startsWith("{bcrypt}$2a$05$"), hash.getValue());
+        assertTrue(passwordEncoder.matches("password", hash.getValue()));
+
+        // the cached details held the old hash
+        login("password");
+        verify(accountRepository, times(2)).findByUsername("alice1");
+    }
+
+    @Test
+    void shouldKeepCurrentHash() {
+        account(passwordEncoder.encode("password"));
+
+        login("password");
+
+        verify(accountRepository, never()).updatePassword(anyString(), anyString());
+    }
+
+    private void account(String password) {
+        Account account = new Account();
+        account.setId(1L);
+        account.setUsername("alice1");
+        account.setPassword(password);
+        account.setRoles(Role.USER.mask());
+        when(accountRepository.findByUsername("alice1")).thenReturn(Optional.of(account));
+    }
+
+    private void login(String password) {
+        assertTrue(provider.authenticate(new UsernamePasswordAuthenticationToken("alice1", password)).isAuthenticated());
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.xpakx.webrtcgame.user.cache;
+
+import io.github.xpakx.webrtcgame.user.AccountUserDetails;
+import io.github.xpakx.webrtcgame.user.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDetailsCacheTest {
+    private final InMemoryUserCacheInvalidationBroadcaster broadcaster = new InMemoryUserCacheInvalidationBroadcaster();
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile AccountUserDetails stored = new AccountUserDetails("alice1", "old-hash", Role.USER.mask());
+    private final Function<String, AccountUserDetails> loader = (username) -> {
+        loads.incrementAndGet();
+        return stored;
+    };
+
+    @Test
+    void shouldServeChangedRolesAfterInvalidationOnEveryNode() {
+        UserDetailsCache node = cache();
+        UserDetailsCache otherNode = cache();
+        node.get("alice1", loader);
+        otherNode.get("alice1", loader);
+
+        int roles = Role.USER.mask() | Role.MODERATOR.mask();
+        stored = new AccountUserDetails("alice1", "old-hash", roles);
+        node.invalidate("alice1");
+
+        assertEquals(Role.authorities(roles), node.get("alice1", loader).getAuthorities());
+        assertEquals(Role.authorities(roles), otherNode.get("alice1", loader).getAuthorities());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void shouldServeChangedPasswordAfterInvalidationOfAnySpelling() {
+        UserDetailsCache cache = cache();
+        cache.get("alice1", loader);
+        assertEquals("old-hash", cache.get("ALICE1", loader).getPassword());
+        assertEquals(1, loads.get());
+
+        stored = new AccountUserDetails("alice1", "new-hash", Role.USER.mask());
+        cache.invalidate("Alice1");
+
+        assertEquals("new-hash", cache.get("alice1", loader).getPassword());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldKeepCachedPasswordWhenCopyIsErased() {
+        UserDetailsCache cache = cache();
+        cache.get("alice1", loader).eraseCredentials();
+
+        assertEquals("old-hash", cache.get("alice1", loader).getPassword());
+        assertEquals(1, loads.get());
+    }
+
+    private UserDetailsCache cache() {
+        return new UserDetailsCache(100, Duration.ofMinutes(10), broadcaster, new SimpleMeterRegistry());
+    }
+}
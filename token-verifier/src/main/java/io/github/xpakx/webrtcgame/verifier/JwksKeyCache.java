@@ -0,0 +1,127 @@
+package io.github.xpakx.webrtcgame.verifier;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps main-server's JWK Set in memory for as long as its Cache-Control allows.
+ * An unknown key id triggers an early refresh, rate limited so that forged key ids can't flood the auth service.
+ */
+public class JwksKeyCache {
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final URI jwksUri;
+    private final HttpClient client;
+    private final Clock clock;
+    private final Duration defaultMaxAge;
+    private final Duration minRefreshInterval;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Instant.EPOCH, Instant.EPOCH, null);
+
+    public JwksKeyCache(URI jwksUri) {
+        this(jwksUri, HttpClient.newHttpClient(), Clock.systemUTC(), Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    public JwksKeyCache(URI jwksUri, HttpClient client, Clock clock, Duration defaultMaxAge, Duration minRefreshInterval) {
+        this.jwksUri = jwksUri;
+        this.client = client;
+        this.clock = clock;
+        this.defaultMaxAge = defaultMaxAge;
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    /**
+     * @return public key with given id, or null if main-server doesn't publish such key
+     */
+    public PublicKey get(String kid) {
+        Snapshot current = snapshot;
+        Instant now = clock.instant();
+        PublicKey key = current.keys().get(kid);
+        if (key != null && now.isBefore(current.expiresAt())) {
+            return key;
+        }
+        if (now.isBefore(current.expiresAt()) && now.isBefore(current.fetchedAt().plus(minRefreshInterval))) {
+            return key;
+        }
+        return refresh(current).keys().get(kid);
+    }
+
+    private synchronized Snapshot refresh(Snapshot seen) {
+        if (snapshot != seen) {
+            return snapshot;
+        }
+        Instant now = clock.instant();
+        HttpRequest.Builder request = HttpRequest.newBuilder(jwksUri).GET();
+        if (seen.eTag() != null) {
+            request.header("If-None-Match", seen.eTag());
+        }
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            Instant expiresAt = now.plus(maxAge(response));
+            if (response.statusCode() == 304) {
+                snapshot = new Snapshot(seen.keys(), now, expiresAt, seen.eTag());
+            } else if (response.statusCode() == 200) {
+                snapshot = new Snapshot(parse(response.body()), now, expiresAt, response.headers().firstValue("ETag").orElse(null));
+            } else {
+                snapshot = failed(seen, now);
+            }
+        } catch (IOException e) {
+            snapshot = failed(seen, now);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Keeps serving known keys, stale or not, and holds off the next attempt for minRefreshInterval;
+     * keeping the old expiry would send every request after it to the auth service while it's down.
+     */
+    private Snapshot failed(Snapshot seen, Instant now) {
+        Instant retryAt = now.plus(minRefreshInterval);
+        return new Snapshot(seen.keys(), now, seen.expiresAt().isAfter(retryAt) ? seen.expiresAt() : retryAt, seen.eTag());
+    }
+
+    private Map<String, PublicKey> parse(String json) {
+        JwkSet set = Jwks.setParser()
+                .ignoreUnsupported(true)
+                .build()
+                .parse(json);
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk<?> jwk : set.getKeys()) {
+            Key key = jwk.toKey();
+            if (jwk.getId() != null && key instanceof PublicKey publicKey) {
+                keys.put(jwk.getId(), publicKey);
+            }
+        }
+        return Map.copyOf(keys);
+    }
+
+    private Duration maxAge(HttpResponse<?> response) {
+        return response.headers()
+                .firstValue("Cache-Control")
+                .map(MAX_AGE::matcher)
+                .filter(Matcher::find)
+                .map((matcher) -> Duration.ofSeconds(Long.parseLong(matcher.group(1))))
+                .orElse(defaultMaxAge);
+    }
+
+    private record Snapshot(Map<String, PublicKey> keys, Instant fetchedAt, Instant expiresAt, String eTag) {
+    }
+}
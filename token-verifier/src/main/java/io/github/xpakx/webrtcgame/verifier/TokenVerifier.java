@@ -0,0 +1,75 @@
+package io.github.xpakx.webrtcgame.verifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+
+import java.net.URI;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Verifies main-server access tokens with keys from its JWKS endpoint,
+ * without calling main-server for every token.
+ * Throws {@link io.jsonwebtoken.JwtException} subclasses for tokens that are invalid, expired or not access tokens.
+ */
+public class TokenVerifier {
+    private final JwtParser parser;
+
+    public TokenVerifier(URI jwksUri) {
+        this(new JwksKeyCache(jwksUri));
+    }
+
+    public TokenVerifier(JwksKeyCache keys) {
+        this.parser = Jwts.parser()
+                .keyLocator(new JwksLocator(keys))
+                .build();
+    }
+
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (Boolean.TRUE.equals(claims.get("refresh", Boolean.class))) {
+            throw new UnsupportedJwtException("Refresh token cannot be used for access");
+        }
+        if (claims.getSubject() == null) {
+            throw new UnsupportedJwtException("Token has no subject");
+        }
+        return new VerifiedToken(
+                claims.getSubject(),
+                roles(claims),
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    private List<String> roles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?> list) {
+            return list.stream()
+                    .map(String::valueOf)
+                    .toList();
+        }
+        return List.of();
+    }
+
+    private static class JwksLocator extends LocatorAdapter<Key> {
+        private final JwksKeyCache keys;
+
+        JwksLocator(JwksKeyCache keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            PublicKey key = kid != null ? keys.get(kid) : null;
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key " + kid);
+            }
+            return key;
+        }
+    }
+}
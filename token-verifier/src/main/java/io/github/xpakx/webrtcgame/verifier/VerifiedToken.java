@@ -0,0 +1,11 @@
+package io.github.xpakx.webrtcgame.verifier;
+
+import java.time.Instant;
+import java.util.List;
+
+public record VerifiedToken(
+        String username,
+        List<String> roles,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,193 @@
+package io.github.xpakx.webrtcgame.verifier;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyCacheTest {
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final KeyPair first = Jwts.SIG.ES256.keyPair().build();
+    private final KeyPair second = Jwts.SIG.ES256.keyPair().build();
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer server;
+    private JwksKeyCache cache;
+    private volatile Map<String, KeyPair> published;
+    private volatile int status;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        published = Map.of("first", first);
+        status = 200;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/.well-known/jwks.json", (exchange) -> {
+            requests.incrementAndGet();
+            byte[] body = jwks(published);
+            String eTag = "\"" + Integer.toHexString(published.keySet().hashCode()) + "\"";
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+            exchange.getResponseHeaders().set("ETag", eTag);
+            if (status == 200 && eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else if (status == 200) {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } else {
+                exchange.sendResponseHeaders(status, -1);
+            }
+            exchange.close();
+        });
+        server.start();
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+        cache = new JwksKeyCache(uri, HttpClient.newHttpClient(), clock, Duration.ofMinutes(5), MIN_REFRESH_INTERVAL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldKeepKeysWhenNotModified() {
+        assertEquals(first.getPublic(), cache.get("first"));
+        clock.advance(Duration.ofSeconds(61));
+
+        assertEquals(first.getPublic(), cache.get("first"));
+        assertEquals(2, requests.get());
+        assertEquals(first.getPublic(), cache.get("first"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void shouldRefreshEarlyForUnknownKid() {
+        assertEquals(first.getPublic(), cache.get("first"));
+        published = Map.of("first", first, "second", second);
+        clock.advance(MIN_REFRESH_INTERVAL.plusSeconds(1));
+
+        assertEquals(second.getPublic(), cache.get("second"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void shouldRateLimitRefreshesForUnknownKids() {
+        assertEquals(first.getPublic(), cache.get("first"));
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(cache.get("forged-" + i));
+        }
+        assertEquals(1, requests.get());
+
+        clock.advance(MIN_REFRESH_INTERVAL.plusSeconds(1));
+        assertNull(cache.get("forged"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void shouldServeStaleKeysAndBackOffAfterFailedFetch() {
+        assertEquals(first.getPublic(), cache.get("first"));
+        status = 503;
+        clock.advance(Duration.ofSeconds(61));
+
+        assertEquals(first.getPublic(), cache.get("first"));
+        assertEquals(first.getPublic(), cache.get("first"));
+        assertEquals(2, requests.get());
+
+        clock.advance(MIN_REFRESH_INTERVAL.plusSeconds(1));
+        assertEquals(first.getPublic(), cache.get("first"));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void shouldServeStaleKeysWhenAuthServiceIsDown() {
+        assertEquals(first.getPublic(), cache.get("first"));
+        server.stop(0);
+        clock.advance(Duration.ofSeconds(61));
+
+        assertEquals(first.getPublic(), cache.get("first"));
+    }
+
+    @Test
+    void shouldVerifyTokenSignedWithPublishedKey() {
+        TokenVerifier verifier = new TokenVerifier(cache);
+        Instant expiration = Instant.now().plusSeconds(600).truncatedTo(ChronoUnit.SECONDS);
+        String token = Jwts.builder()
+                .header().keyId("first").and()
+                .subject("user")
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(new Date())
+                .expiration(Date.from(expiration))
+                .signWith(first.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+
+        VerifiedToken verified = verifier.verify(token);
+
+        assertEquals("user", verified.username());
+        assertEquals(List.of("ROLE_USER"), verified.roles());
+        assertEquals(expiration, verified.expiresAt());
+    }
+
+    // the same JWK Set main-server's SigningKeyService publishes
+    private static byte[] jwks(Map<String, KeyPair> keys) {
+        return keys.entrySet().stream()
+                .map((entry) -> Jwks.builder()
+                        .key((ECPublicKey) entry.getValue().getPublic())
+                        .id(entry.getKey())
+                        .algorithm("ES256")
+                        .publicKeyUse("sig")
+                        .build())
+                .map(Jwks::json)
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}